@@ -0,0 +1,82 @@
+package com.todolist.benchmark;
+
+import com.todolist.repository.AppendLogTodoRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Startup cost of the embedded store: replaying a log of {@code todos} records into the index. Each
+ * iteration opens the same log cold, so the numbers include mapping the file but, after the first
+ * iteration, not reading it from disk. The log size and the heap the index retains per todo are printed
+ * once the log is written.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class AppendLogRecoveryBenchmark {
+
+    @Param({"1000000", "5000000"})
+    private int todos;
+
+    private Path directory;
+    private Path log;
+    private AppendLogTodoRepository opened;
+
+    @Setup(Level.Trial)
+    public void writeLog() throws IOException {
+        directory = Files.createTempDirectory("todo-log-benchmark");
+        log = directory.resolve("todos.log");
+        long before = usedHeap();
+        try (AppendLogTodoRepository repository = open()) {
+            for (int i = 0; i < todos; i++) {
+                repository.insert(BenchmarkTodos.todo(i));
+            }
+            long retained = usedHeap() - before;
+            System.out.printf("%nTodo log: %d todos, %d bytes on disk, %d bytes of index per todo%n",
+                    todos, repository.getLogBytes(), retained / todos);
+        }
+    }
+
+    @Benchmark
+    public long replay() throws IOException {
+        opened = open();
+        return opened.count();
+    }
+
+    @TearDown(Level.Iteration)
+    public void closeLog() throws IOException {
+        if (opened != null) {
+            opened.close();
+            opened = null;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteLog() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    private AppendLogTodoRepository open() throws IOException {
+        return AppendLogTodoRepository.open(log, Duration.ofDays(30), 0.5, false);
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,23 @@
+package com.todolist.benchmark;
+
+import com.todolist.model.Todo;
+
+import java.util.Date;
+
+final class BenchmarkTodos {
+
+    private static final String[] PRIORITIES = {"High", "Medium", "Low"};
+
+    private static final long START = 1_700_000_000_000L;
+
+    private BenchmarkTodos() {}
+
+    static Todo todo(int i) {
+        Todo todo = new Todo("Todo " + i, "Description of todo number " + i + " used for benchmarking",
+                new Date(START + i * 3_600_000L), PRIORITIES[i % PRIORITIES.length]);
+        todo.setId(String.format("%024x", i));
+        todo.setCompleted(i % 4 == 0);
+        todo.setVersion(0L);
+        return todo;
+    }
+}
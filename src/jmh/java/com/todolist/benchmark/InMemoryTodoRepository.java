@@ -0,0 +1,96 @@
+package com.todolist.benchmark;
+
+import com.todolist.model.Todo;
+import com.todolist.model.TodoTombstone;
+import com.todolist.repository.KeyValueTodoRepository;
+import com.todolist.repository.TodoRepository;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+/**
+ * Map-backed stand-in for {@link TodoRepository} so service code paths can be measured without a
+ * database.
+ */
+public class InMemoryTodoRepository extends KeyValueTodoRepository {
+
+    private final ConcurrentSkipListMap<String, Todo> todos = new ConcurrentSkipListMap<>();
+    private final ConcurrentMap<String, Date> tombstones = new ConcurrentHashMap<>();
+
+    @Override
+    protected Todo load(String id) {
+        Todo todo = todos.get(id);
+        return todo == null ? null : copy(todo);
+    }
+
+    @Override
+    protected Stream<Todo> loadAll(String afterId, boolean descending) {
+        ConcurrentNavigableMap<String, Todo> view = descending ? todos.descendingMap() : todos;
+        return (afterId == null ? view : view.tailMap(afterId, false)).values().stream().map(KeyValueTodoRepository::copy);
+    }
+
+    @Override
+    protected boolean contains(String id) {
+        return todos.containsKey(id);
+    }
+
+    @Override
+    protected long size() {
+        return todos.size();
+    }
+
+    @Override
+    protected boolean storeIfAbsent(Todo todo) {
+        return todos.putIfAbsent(todo.getId(), copy(todo)) == null;
+    }
+
+    @Override
+    protected Todo update(String id, UnaryOperator<Todo> change) {
+        Todo[] result = new Todo[1];
+        todos.computeIfPresent(id, (key, current) -> {
+            Todo updated = change.apply(copy(current));
+            if (updated == null) {
+                return current;
+            }
+            result[0] = copy(updated);
+            return result[0];
+        });
+        return result[0] == null ? null : copy(result[0]);
+    }
+
+    @Override
+    protected boolean remove(String id, boolean tombstone) {
+        if (todos.remove(id) == null) {
+            return false;
+        }
+        if (tombstone) {
+            tombstones.put(id, new Date());
+        }
+        return true;
+    }
+
+    @Override
+    protected boolean removeIf(String id, Predicate<Todo> condition) {
+        boolean[] removed = new boolean[1];
+        todos.computeIfPresent(id, (key, current) -> {
+            removed[0] = condition.test(copy(current));
+            return removed[0] ? null : current;
+        });
+        if (removed[0]) {
+            tombstones.put(id, new Date());
+        }
+        return removed[0];
+    }
+
+    @Override
+    protected Stream<TodoTombstone> tombstones() {
+        return tombstones.entrySet().stream().map((Map.Entry<String, Date> entry) -> new TodoTombstone(entry.getKey(), entry.getValue()));
+    }
+}
@@ -0,0 +1,123 @@
+package com.todolist.benchmark;
+
+import com.todolist.model.Todo;
+import com.todolist.model.TodoFilter;
+import com.todolist.service.TodoIngestQueue;
+import com.todolist.service.TodoService;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import jakarta.validation.Validation;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Cost the metrics add to a request. With {@code metrics=true} each call goes through the
+ * {@link TimedAspect} proxy the application puts around {@link TodoService}, and is also recorded in an
+ * {@code http.server.requests} timer with a percentile histogram, as the web layer does. Both record into
+ * a Prometheus registry. {@code metrics=false} calls the bare service.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MetricsOverheadBenchmark {
+
+    @Param({"false", "true"})
+    public boolean metrics;
+
+    @Param({"10000"})
+    public int todos;
+
+    private TodoService todoService;
+    private PrometheusMeterRegistry registry;
+    private Timer getRequests;
+    private Timer pageRequests;
+    private PageRequest page;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        InMemoryTodoRepository repository = new InMemoryTodoRepository();
+        for (int i = 0; i < todos; i++) {
+            repository.insert(BenchmarkTodos.todo(i));
+        }
+        TodoService target = new TodoService();
+        ReflectionTestUtils.setField(target, "todoRepository", repository);
+        ReflectionTestUtils.setField(target, "validator", Validation.buildDefaultValidatorFactory().getValidator());
+        ReflectionTestUtils.setField(target, "objectMapper", Jackson2ObjectMapperBuilder.json().build());
+        ReflectionTestUtils.setField(target, "eventPublisher", (ApplicationEventPublisher) event -> {});
+        ReflectionTestUtils.setField(target, "ingestQueue", new TodoIngestQueue());
+        todoService = target;
+        if (metrics) {
+            registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+            AspectJProxyFactory factory = new AspectJProxyFactory(target);
+            factory.setProxyTargetClass(true);
+            factory.addAspect(new TimedAspect(registry));
+            todoService = factory.getProxy();
+            getRequests = httpTimer("/api/v1/todos/{id}");
+            pageRequests = httpTimer("/api/v1/todos");
+        }
+        page = PageRequest.of(5, 20, Sort.by("id"));
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (registry != null) {
+            // Make sure the recordings ended up somewhere
+            System.out.printf("%n%s%n", registry.scrape().lines()
+                    .filter(line -> line.startsWith("todo_service_seconds_count"))
+                    .findFirst()
+                    .orElseThrow());
+        }
+    }
+
+    private Timer httpTimer(String uri) {
+        return Timer.builder("http.server.requests")
+                .tags(Tags.of("method", "GET", "uri", uri, "status", "200", "outcome", "SUCCESS", "exception", "none"))
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private String nextId() {
+        next = (next + 1) % todos;
+        return String.format("%024x", next);
+    }
+
+    private <T> T request(Timer timer, Supplier<T> call) {
+        if (timer == null) {
+            return call.get();
+        }
+        long start = System.nanoTime();
+        try {
+            return call.get();
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Benchmark
+    public Optional<Todo> getTodoById() {
+        String id = nextId();
+        return request(getRequests, () -> todoService.getTodoById(id));
+    }
+
+    @Benchmark
+    public Page<Todo> getPage() {
+        return request(pageRequests, () -> todoService.getAllTodos(TodoFilter.none(), page));
+    }
+}
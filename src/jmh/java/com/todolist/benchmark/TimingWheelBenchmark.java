@@ -0,0 +1,64 @@
+package com.todolist.benchmark;
+
+import com.todolist.service.TimingWheel;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the reminder {@link TimingWheel} with {@code pending} timers spread over a week of one-second
+ * ticks: scheduling and cancelling one timer, and one tick of the clock with every fired timer scheduled
+ * again a week out so the wheel stays full. The heap retained per timer is printed once it is filled.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TimingWheelBenchmark {
+
+    private static final long TICK = 1000;
+    private static final long WEEK = 7 * 86_400_000L;
+
+    @Param({"1000000", "5000000"})
+    private int pending;
+
+    private TimingWheel<Integer> wheel;
+    private long now;
+    private Random random;
+
+    @Setup
+    public void setUp() {
+        random = new Random(42);
+        now = 1_792_000_000_000L;
+        long before = usedHeap();
+        wheel = new TimingWheel<>(TICK, WEEK + 86_400_000L, now);
+        for (int i = 0; i < pending; i++) {
+            wheel.schedule(now + (long) (random.nextDouble() * WEEK), i);
+        }
+        long retained = usedHeap() - before;
+        System.out.printf("%nTiming wheel: %d timers, %d bytes retained per timer%n", pending, retained / pending);
+    }
+
+    @Benchmark
+    public boolean scheduleAndCancel() {
+        return wheel.cancel(wheel.schedule(now + (long) (random.nextDouble() * WEEK), -1));
+    }
+
+    @Benchmark
+    public int tick() {
+        now += TICK;
+        wheel.advanceTo(now, value -> wheel.schedule(now + WEEK, value));
+        return wheel.size();
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
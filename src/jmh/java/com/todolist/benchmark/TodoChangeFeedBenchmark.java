@@ -0,0 +1,66 @@
+package com.todolist.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.todolist.service.TodoChangeFeed;
+import com.todolist.service.TodoChangedEvent;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of fanning one change out to many connected event-stream subscribers, each of which takes it off
+ * its queue as soon as it is signalled. The fan-out runs inline here instead of on the feed's own
+ * thread. Setup prints the heap retained per idle subscription.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TodoChangeFeedBenchmark {
+
+    @Param({"1000", "10000", "50000"})
+    private int subscribers;
+
+    private TodoChangeFeed feed;
+    private TodoChangedEvent created;
+    private TodoChangedEvent deleted;
+
+    @Setup
+    public void setUp() {
+        feed = new TodoChangeFeed();
+        ReflectionTestUtils.setField(feed, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(feed, "dispatcher", (Executor) Runnable::run);
+        created = TodoChangedEvent.created(BenchmarkTodos.todo(1));
+        deleted = TodoChangedEvent.deleted(BenchmarkTodos.todo(1).getId());
+
+        long before = usedHeap();
+        for (int i = 0; i < subscribers; i++) {
+            TodoChangeFeed.Subscription[] subscription = new TodoChangeFeed.Subscription[1];
+            subscription[0] = feed.subscribe(null, () -> subscription[0].poll());
+        }
+        System.out.printf("%nChange feed: %d subscribers, %d bytes retained per subscriber%n",
+                subscribers, (usedHeap() - before) / subscribers);
+    }
+
+    @Benchmark
+    public void publishCreated() {
+        feed.publish(created);
+    }
+
+    @Benchmark
+    public void publishDeleted() {
+        feed.publish(deleted);
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
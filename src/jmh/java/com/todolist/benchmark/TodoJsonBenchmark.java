@@ -0,0 +1,90 @@
+package com.todolist.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.todolist.model.PartialTodo;
+import com.todolist.model.Todo;
+import com.todolist.model.TodoFields;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson cost of the payloads the controller writes and reads, using the same defaults Spring
+ * Boot applies to its {@link ObjectMapper}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TodoJsonBenchmark {
+
+    private static final TypeReference<List<Todo>> TODO_LIST = new TypeReference<>() {};
+
+    @Param({"20", "1000"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private Todo todo;
+    private List<Todo> todos;
+    private Page<Todo> page;
+    private List<PartialTodo> sparseTodos;
+    private byte[] todoJson;
+    private byte[] todosJson;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        todos = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            todos.add(BenchmarkTodos.todo(i));
+        }
+        todo = todos.get(0);
+        page = new PageImpl<>(todos, PageRequest.of(0, size), size * 10L);
+        TodoFields fields = TodoFields.of("title,completed,dueDate");
+        sparseTodos = new ArrayList<>(size);
+        for (Todo t : todos) {
+            sparseTodos.add(fields.project(t));
+        }
+        todoJson = objectMapper.writeValueAsBytes(todo);
+        todosJson = objectMapper.writeValueAsBytes(todos);
+    }
+
+    @Benchmark
+    public byte[] serializeTodo() throws Exception {
+        return objectMapper.writeValueAsBytes(todo);
+    }
+
+    @Benchmark
+    public Todo deserializeTodo() throws Exception {
+        return objectMapper.readValue(todoJson, Todo.class);
+    }
+
+    @Benchmark
+    public byte[] serializeList() throws Exception {
+        return objectMapper.writeValueAsBytes(todos);
+    }
+
+    @Benchmark
+    public byte[] serializeSparseList() throws Exception {
+        return objectMapper.writeValueAsBytes(sparseTodos);
+    }
+
+    @Benchmark
+    public List<Todo> deserializeList() throws Exception {
+        return objectMapper.readValue(todosJson, TODO_LIST);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws Exception {
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
@@ -0,0 +1,116 @@
+package com.todolist.benchmark;
+
+import com.todolist.model.Todo;
+import com.todolist.service.TodoSearchIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Search-as-you-type latency over a populated {@link TodoSearchIndex}, sampled so the report carries
+ * percentiles, plus the heap the index retains per todo (printed once the index is built).
+ *
+ * <p>Titles and descriptions draw words from a skewed synthetic vocabulary, so common prefixes match
+ * a large share of the todos the way real lists do.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TodoSearchIndexBenchmark {
+
+    private static final int VOCABULARY = 20_000;
+
+    @Param({"100000", "1000000"})
+    private int todos;
+
+    private TodoSearchIndex index;
+    private String[] words;
+    private String[] singleTerm;
+    private String[] twoTerms;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        words = new String[VOCABULARY];
+        for (int i = 0; i < VOCABULARY; i++) {
+            words[i] = word(random);
+        }
+
+        long before = usedHeap();
+        index = new TodoSearchIndex();
+        for (int i = 0; i < todos; i++) {
+            Todo todo = new Todo(sentence(random, 3, 6), sentence(random, 8, 20), null, "High");
+            todo.setId(String.format("%024x", i));
+            index.load(todo);
+        }
+        index.finishLoad();
+        long retained = usedHeap() - before;
+        System.out.printf("%nSearch index: %d todos, %d bytes retained per todo%n", todos, retained / todos);
+
+        singleTerm = new String[1024];
+        twoTerms = new String[1024];
+        for (int i = 0; i < singleTerm.length; i++) {
+            String first = pick(random);
+            singleTerm[i] = first.substring(0, Math.min(first.length(), 1 + random.nextInt(4)));
+            twoTerms[i] = first + " " + pick(random).substring(0, 2);
+        }
+    }
+
+    @Benchmark
+    public List<String> searchPrefix() {
+        return index.search(singleTerm[next++ & 1023], 10);
+    }
+
+    @Benchmark
+    public List<String> searchTwoTerms() {
+        return index.search(twoTerms[next++ & 1023], 10);
+    }
+
+    @Benchmark
+    public void update() {
+        int i = next++ % todos;
+        Todo todo = new Todo(words[i % VOCABULARY] + " updated", null, null, "Low");
+        todo.setId(String.format("%024x", i));
+        index.put(todo);
+    }
+
+    private String sentence(Random random, int minWords, int maxWords) {
+        int count = minWords + random.nextInt(maxWords - minWords + 1);
+        StringBuilder sentence = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                sentence.append(' ');
+            }
+            sentence.append(pick(random));
+        }
+        return sentence.toString();
+    }
+
+    // Cubing the uniform draw favours low indexes, giving a few very common words and a long tail
+    private String pick(Random random) {
+        double u = random.nextDouble();
+        return words[(int) (VOCABULARY * u * u * u)];
+    }
+
+    private static String word(Random random) {
+        char[] letters = new char[3 + random.nextInt(8)];
+        for (int i = 0; i < letters.length; i++) {
+            letters[i] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(letters);
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
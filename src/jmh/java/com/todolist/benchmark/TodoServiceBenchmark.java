@@ -0,0 +1,92 @@
+package com.todolist.benchmark;
+
+import com.todolist.model.Todo;
+import com.todolist.model.TodoFilter;
+import com.todolist.model.TodoSlice;
+import com.todolist.service.TodoIngestQueue;
+import com.todolist.service.TodoService;
+import jakarta.validation.Validation;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TodoService} overhead on top of an {@link InMemoryTodoRepository}, so the numbers are the
+ * service's own work (copying, validation, cursor encoding) rather than database time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TodoServiceBenchmark {
+
+    @Param({"10000"})
+    public int todos;
+
+    private TodoService todoService;
+    private PageRequest page;
+    private Todo replacement;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        InMemoryTodoRepository repository = new InMemoryTodoRepository();
+        for (int i = 0; i < todos; i++) {
+            repository.insert(BenchmarkTodos.todo(i));
+        }
+        todoService = new TodoService();
+        ReflectionTestUtils.setField(todoService, "todoRepository", repository);
+        ReflectionTestUtils.setField(todoService, "validator", Validation.buildDefaultValidatorFactory().getValidator());
+        ReflectionTestUtils.setField(todoService, "objectMapper", Jackson2ObjectMapperBuilder.json().build());
+        ReflectionTestUtils.setField(todoService, "eventPublisher", (ApplicationEventPublisher) event -> {});
+        ReflectionTestUtils.setField(todoService, "ingestQueue", new TodoIngestQueue());
+        page = PageRequest.of(5, 20, Sort.by("id"));
+        replacement = BenchmarkTodos.todo(7);
+    }
+
+    private String nextId() {
+        next = (next + 1) % todos;
+        return String.format("%024x", next);
+    }
+
+    @Benchmark
+    public Optional<Todo> getTodoById() {
+        return todoService.getTodoById(nextId());
+    }
+
+    @Benchmark
+    public Todo createTodo() {
+        return todoService.createTodo(new Todo("New todo", "Created by the benchmark", null, "Low"));
+    }
+
+    @Benchmark
+    public Optional<Todo> updateTodo() {
+        replacement.setVersion(null);
+        return todoService.updateTodo(nextId(), replacement);
+    }
+
+    @Benchmark
+    public Optional<Todo> patchTodo() {
+        return todoService.patchTodo(nextId(), Map.of("completed", true, "priority", "High"));
+    }
+
+    @Benchmark
+    public Page<Todo> getPage() {
+        return todoService.getAllTodos(TodoFilter.none(), page);
+    }
+
+    @Benchmark
+    public TodoSlice getCursorSlice() {
+        return todoService.getTodosByCursor("id", "asc", 20, null);
+    }
+}
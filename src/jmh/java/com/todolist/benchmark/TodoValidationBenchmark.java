@@ -0,0 +1,46 @@
+package com.todolist.benchmark;
+
+import com.todolist.model.Todo;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the {@code @Valid} check every POST/PUT pays, for a valid todo and for one that fails
+ * both title and description constraints.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TodoValidationBenchmark {
+
+    private Validator validator;
+    private Todo valid;
+    private Todo invalid;
+
+    @Setup
+    public void setUp() {
+        validator = Validation.buildDefaultValidatorFactory().getValidator();
+        valid = BenchmarkTodos.todo(1);
+        invalid = BenchmarkTodos.todo(2);
+        invalid.setTitle(" ");
+        invalid.setDescription("x".repeat(501));
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<Todo>> validateValid() {
+        return validator.validate(valid);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<Todo>> validateInvalid() {
+        return validator.validate(invalid);
+    }
+}
@@ -0,0 +1,78 @@
+package com.todolist.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.todolist.config.CborConfig;
+import com.todolist.model.Todo;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encode and decode cost of a todo list in each wire format the API speaks. The setup prints the
+ * payload size, plain and gzipped.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TodoWireFormatBenchmark {
+
+    private static final TypeReference<List<Todo>> TODO_LIST = new TypeReference<>() {};
+
+    @Param({"json", "cbor"})
+    public String format;
+
+    @Param({"1000"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private List<Todo> todos;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() throws Exception {
+        // Spring Boot writes JSON dates as ISO strings
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        objectMapper = format.equals("cbor") ? CborConfig.cborObjectMapper(builder) : builder.build();
+        todos = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            todos.add(BenchmarkTodos.todo(i));
+        }
+        payload = objectMapper.writeValueAsBytes(todos);
+        System.out.printf("%n%s: %d todos, %d bytes, %d bytes gzipped%n", format, size, payload.length, gzip(payload).length);
+    }
+
+    @Benchmark
+    public byte[] encode() throws Exception {
+        return objectMapper.writeValueAsBytes(todos);
+    }
+
+    @Benchmark
+    public List<Todo> decode() throws Exception {
+        return objectMapper.readValue(payload, TODO_LIST);
+    }
+
+    @Benchmark
+    public byte[] encodeGzipped() throws Exception {
+        return gzip(objectMapper.writeValueAsBytes(todos));
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,179 @@
+package com.todolist.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latency histograms per operation plus process-wide GC and allocation counters for one measurement
+ * window. Response time runs from the scheduled send time (corrected for coordinated omission), service
+ * time from the actual send. Allocation is summed over live threads, so it includes the load generator.
+ */
+class LoadReport {
+
+    private final Map<TodoWorkload.Operation, Recorder> responseTimes = new EnumMap<>(TodoWorkload.Operation.class);
+    private final Map<TodoWorkload.Operation, Recorder> serviceTimes = new EnumMap<>(TodoWorkload.Operation.class);
+    private final AtomicLong errors = new AtomicLong();
+    private final Map<String, Histogram> responseHistograms = new LinkedHashMap<>();
+    private final Map<String, Histogram> serviceHistograms = new LinkedHashMap<>();
+    private long startNanos;
+    private long elapsedNanos;
+    private long gcCount;
+    private long gcMillis;
+    private long allocatedBytes;
+
+    LoadReport() {
+        for (TodoWorkload.Operation operation : TodoWorkload.Operation.values()) {
+            responseTimes.put(operation, new Recorder(3));
+            serviceTimes.put(operation, new Recorder(3));
+        }
+    }
+
+    void record(TodoWorkload.Operation operation, long responseNanos, long serviceNanos, boolean ok) {
+        responseTimes.get(operation).recordValue(responseNanos / 1_000);
+        serviceTimes.get(operation).recordValue(serviceNanos / 1_000);
+        if (!ok) {
+            errors.incrementAndGet();
+        }
+    }
+
+    void start() {
+        responseTimes.values().forEach(Recorder::reset);
+        serviceTimes.values().forEach(Recorder::reset);
+        startNanos = System.nanoTime();
+        gcCount = -totalGcCount();
+        gcMillis = -totalGcMillis();
+        allocatedBytes = -allocatedBytes();
+    }
+
+    void stop() {
+        elapsedNanos = System.nanoTime() - startNanos;
+        gcCount += totalGcCount();
+        gcMillis += totalGcMillis();
+        allocatedBytes += allocatedBytes();
+        Histogram allResponses = new Histogram(3);
+        Histogram allServices = new Histogram(3);
+        responseHistograms.put("all", allResponses);
+        serviceHistograms.put("all", allServices);
+        for (TodoWorkload.Operation operation : TodoWorkload.Operation.values()) {
+            Histogram response = responseTimes.get(operation).getIntervalHistogram();
+            Histogram service = serviceTimes.get(operation).getIntervalHistogram();
+            if (response.getTotalCount() > 0) {
+                responseHistograms.put(operation.name().toLowerCase(), response);
+                serviceHistograms.put(operation.name().toLowerCase(), service);
+                allResponses.add(response);
+                allServices.add(service);
+            }
+        }
+    }
+
+    void print(PrintStream out) {
+        long requests = requests();
+        double seconds = elapsedNanos / 1e9;
+        out.printf("%-8s %9s %9s %9s %9s %9s %9s %9s%n",
+                "op", "requests", "p50 ms", "p99 ms", "p99.9 ms", "max ms", "svc p99", "svc p99.9");
+        responseHistograms.forEach((name, response) -> {
+            Histogram service = serviceHistograms.get(name);
+            out.printf("%-8s %9d %9.2f %9.2f %9.2f %9.2f %9.2f %9.2f%n", name, response.getTotalCount(),
+                    millis(response, 50), millis(response, 99), millis(response, 99.9), response.getMaxValue() / 1_000.0,
+                    millis(service, 99), millis(service, 99.9));
+        });
+        out.printf("throughput %.0f req/s, errors %d (%.3f%%)%n", requests / seconds, errors.get(), errorRate() * 100);
+        out.printf("gc %d collections, %d ms paused (%.2f%% of wall time)%n", gcCount, gcMillis, gcMillis / (seconds * 10));
+        out.printf("allocated %.1f MB/s, %.1f KB/request%n",
+                allocatedBytes / seconds / (1 << 20), requests == 0 ? 0 : allocatedBytes / (double) requests / 1024);
+    }
+
+    void write(File file, int rate, Duration duration) throws IOException {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("rate", rate);
+        result.put("durationSeconds", duration.toSeconds());
+        result.put("requests", requests());
+        result.put("throughput", requests() / (elapsedNanos / 1e9));
+        result.put("errors", errors.get());
+        Map<String, Object> operations = new LinkedHashMap<>();
+        responseHistograms.forEach((name, response) -> {
+            Histogram service = serviceHistograms.get(name);
+            Map<String, Object> latency = new LinkedHashMap<>();
+            latency.put("requests", response.getTotalCount());
+            latency.put("p50Ms", millis(response, 50));
+            latency.put("p99Ms", millis(response, 99));
+            latency.put("p999Ms", millis(response, 99.9));
+            latency.put("maxMs", response.getMaxValue() / 1_000.0);
+            latency.put("serviceP99Ms", millis(service, 99));
+            latency.put("serviceP999Ms", millis(service, 99.9));
+            operations.put(name, latency);
+        });
+        result.put("operations", operations);
+        result.put("gcCount", gcCount);
+        result.put("gcMillis", gcMillis);
+        result.put("allocatedBytes", allocatedBytes);
+        file.getAbsoluteFile().getParentFile().mkdirs();
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, result);
+    }
+
+    /**
+     * Returns a description of every gate the run exceeded; {@code NaN} disables a gate.
+     */
+    List<String> check(double maxP99Ms, double maxP999Ms, double maxErrorRate) {
+        List<String> violations = new ArrayList<>();
+        Histogram all = responseHistograms.get("all");
+        if (millis(all, 99) > maxP99Ms) {
+            violations.add(String.format("p99 %.2f ms > %.2f ms", millis(all, 99), maxP99Ms));
+        }
+        if (millis(all, 99.9) > maxP999Ms) {
+            violations.add(String.format("p99.9 %.2f ms > %.2f ms", millis(all, 99.9), maxP999Ms));
+        }
+        if (errorRate() > maxErrorRate) {
+            violations.add(String.format("error rate %.4f > %.4f", errorRate(), maxErrorRate));
+        }
+        return violations;
+    }
+
+    private long requests() {
+        return responseHistograms.get("all").getTotalCount();
+    }
+
+    private double errorRate() {
+        return requests() == 0 ? 0 : errors.get() / (double) requests();
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1_000.0;
+    }
+
+    private static long totalGcCount() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionCount).filter(count -> count > 0).sum();
+    }
+
+    private static long totalGcMillis() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionTime).filter(time -> time > 0).sum();
+    }
+
+    private static long allocatedBytes() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long total = 0;
+        for (long allocated : threads.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+            if (allocated > 0) {
+                total += allocated;
+            }
+        }
+        return total;
+    }
+}
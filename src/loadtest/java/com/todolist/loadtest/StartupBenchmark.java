@@ -0,0 +1,173 @@
+package com.todolist.loadtest;
+
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarFile;
+
+/**
+ * Starts the packaged application as a separate process in every startup mode that has been built and
+ * reports the time from launching the process to the first successful {@code GET /api/v1/todos}, and the
+ * resident set size right after that request. Each mode runs against the same in-process Mongo.
+ *
+ * <ul>
+ *   <li>{@code jvm}: the plain jar, always</li>
+ *   <li>{@code aot}: the jar with {@code -Dspring.aot.enabled=true}, when built with {@code -Pnative}</li>
+ *   <li>{@code cds}, {@code aot+cds}: the extracted jar with its class data sharing archive, when built with {@code -Pcds}</li>
+ *   <li>{@code native}: the GraalVM executable, when built with {@code -Pnative native:compile}</li>
+ * </ul>
+ *
+ * <pre>
+ * ./mvnw -Pnative,cds package -DskipTests -Dcds.aot=true
+ * ./mvnw -Ploadtest test-compile exec:java -Dexec.mainClass=com.todolist.loadtest.StartupBenchmark -Druns=5
+ * </pre>
+ * RSS is read from {@code /proc} and only reported on Linux.
+ */
+public class StartupBenchmark {
+
+    private static final Duration START_TIMEOUT = Duration.ofMinutes(2);
+
+    public static void main(String[] args) throws Exception {
+        int runs = Integer.getInteger("runs", 5);
+        Path target = Path.of(System.getProperty("target", "target"));
+        Map<String, List<String>> modes = modes(target);
+
+        MongoServer mongo = new MongoServer(new MemoryBackend());
+        String mongoUri = "mongodb://localhost:" + mongo.bind().getPort() + "/todolist";
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        try {
+            System.out.printf("runs=%d%n", runs);
+            System.out.printf("%-10s %14s %14s %10s%n", "mode", "median ms", "min ms", "RSS MB");
+            for (Map.Entry<String, List<String>> mode : modes.entrySet()) {
+                long[] millis = new long[runs];
+                long[] rss = new long[runs];
+                for (int run = 0; run < runs; run++) {
+                    long[] result = start(mode.getKey(), mode.getValue(), mongoUri, client, target);
+                    millis[run] = result[0];
+                    rss[run] = result[1];
+                }
+                Arrays.sort(millis);
+                Arrays.sort(rss);
+                System.out.printf("%-10s %14d %14d %10s%n", mode.getKey(), millis[runs / 2], millis[0],
+                        rss[runs / 2] < 0 ? "n/a" : String.valueOf(rss[runs / 2] / 1024));
+            }
+        } finally {
+            mongo.shutdownNow();
+        }
+        System.exit(0);
+    }
+
+    private static Map<String, List<String>> modes(Path target) throws IOException {
+        Path jar = findJar(target);
+        boolean aotProcessed;
+        try (JarFile file = new JarFile(jar.toFile())) {
+            aotProcessed = "true".equals(file.getManifest().getMainAttributes().getValue("Spring-Boot-Native-Processed"));
+        }
+        Map<String, List<String>> modes = new LinkedHashMap<>();
+        modes.put("jvm", List.of("java", "-jar", jar.toString()));
+        if (aotProcessed) {
+            modes.put("aot", List.of("java", "-Dspring.aot.enabled=true", "-jar", jar.toString()));
+        }
+        Path application = target.resolve("application");
+        Path archive = application.resolve("application.jsa");
+        if (Files.exists(archive)) {
+            String extractedJar = application.resolve(jar.getFileName()).toString();
+            modes.put("cds", List.of("java", "-XX:SharedArchiveFile=" + archive, "-jar", extractedJar));
+            if (aotProcessed) {
+                modes.put("aot+cds", List.of("java", "-XX:SharedArchiveFile=" + archive,
+                        "-Dspring.aot.enabled=true", "-jar", extractedJar));
+            }
+        }
+        Path executable = target.resolve("to-do-list");
+        if (Files.isExecutable(executable)) {
+            modes.put("native", List.of(executable.toString()));
+        }
+        return modes;
+    }
+
+    private static Path findJar(Path target) throws IOException {
+        try (var files = Files.list(target)) {
+            return files.filter(file -> file.getFileName().toString().matches("to-do-list-.*\\.jar"))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("No application jar in " + target + ", run ./mvnw package first"));
+        }
+    }
+
+    /**
+     * Returns the milliseconds to the first successful request and the RSS in KB at that point, or -1 for
+     * the RSS where it cannot be read.
+     */
+    private static long[] start(String mode, List<String> command, String mongoUri, HttpClient client, Path target)
+            throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        List<String> arguments = new ArrayList<>(command);
+        arguments.add("--server.port=" + port);
+        arguments.add("--spring.data.mongodb.uri=" + mongoUri);
+        arguments.add("--spring.main.banner-mode=off");
+        arguments.add("--logging.level.root=warn");
+        File log = target.resolve("startup-" + mode.replace('+', '-') + ".log").toFile();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/todos"))
+                .timeout(Duration.ofSeconds(5))
+                .build();
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(arguments).redirectErrorStream(true).redirectOutput(log).start();
+        try {
+            while (true) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException(mode + " exited with " + process.exitValue() + ", see " + log);
+                }
+                if (System.nanoTime() - start > START_TIMEOUT.toNanos()) {
+                    throw new IllegalStateException(mode + " did not answer within " + START_TIMEOUT + ", see " + log);
+                }
+                try {
+                    if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        break;
+                    }
+                } catch (IOException e) {
+                    // Not listening yet
+                }
+                Thread.sleep(5);
+            }
+            long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            return new long[]{millis, rssKb(process.pid())};
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private static long rssKb(long pid) {
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc/" + pid + "/status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("\\D", ""));
+                }
+            }
+        } catch (IOException e) {
+            // Not Linux
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,128 @@
+package com.todolist.loadtest;
+
+import com.todolist.ToDoListApplication;
+import com.todolist.model.Todo;
+import com.todolist.repository.TodoRepository;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Boots the app against an in-process Mongo (mongo-java-server) and drives {@code /api/v1/todos} with a
+ * weighted mix of operations at a fixed arrival rate. Latency is measured from the time each request was
+ * scheduled to be sent, not from when it was actually sent, so a stalled server is charged for the
+ * requests queued behind it (coordinated omission).
+ *
+ * <p>Runs offline with the {@code loadtest} profile:
+ * <pre>
+ * ./mvnw -Ploadtest test-compile exec:java -Drate=500 -DdurationSeconds=30 \
+ *     -Dmix=read=60,page=10,create=15,update=10,delete=5 -DmaxP99Ms=50
+ * </pre>
+ * The JVM exits with status 2 when a {@code maxP99Ms}, {@code maxP999Ms} or {@code maxErrorRate} gate
+ * is exceeded.
+ */
+public class TodoLoadRunner {
+
+    public static void main(String[] args) throws Exception {
+        int rate = Integer.getInteger("rate", 500);
+        Duration warmup = Duration.ofSeconds(Long.getLong("warmupSeconds", 10));
+        Duration measure = Duration.ofSeconds(Long.getLong("durationSeconds", 30));
+        int seed = Integer.getInteger("seed", 10_000);
+        int maxInFlight = Integer.getInteger("maxInFlight", 1_000);
+        // Off by default so the run measures the service rather than how fast it answers 503
+        boolean admission = Boolean.getBoolean("admission");
+        TodoWorkload.Mix mix = TodoWorkload.Mix.parse(System.getProperty("mix", "read=60,page=10,create=15,update=10,delete=5"));
+        File output = new File(System.getProperty("output", "target/loadtest-result.json"));
+
+        MongoServer mongo = new MongoServer(new MemoryBackend());
+        InetSocketAddress mongoAddress = mongo.bind();
+        int exitCode;
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ToDoListApplication.class)
+                .run("--server.port=0",
+                        "--spring.data.mongodb.uri=mongodb://localhost:" + mongoAddress.getPort() + "/todolist",
+                        "--todo.admission.enabled=" + admission,
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=warn")) {
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            List<String> seededIds = seed(context.getBean(TodoRepository.class), seed);
+            TodoWorkload workload = new TodoWorkload(URI.create("http://localhost:" + port + "/api/v1/todos"), seededIds, mix);
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+            System.out.printf("rate=%d/s warmup=%ss duration=%ss seed=%d maxInFlight=%d mix=%s admission=%s%n",
+                    rate, warmup.toSeconds(), measure.toSeconds(), seed, maxInFlight, mix, admission);
+            drive(client, workload, rate, warmup, maxInFlight, new LoadReport());
+            LoadReport report = new LoadReport();
+            report.start();
+            drive(client, workload, rate, measure, maxInFlight, report);
+            report.stop();
+
+            report.print(System.out);
+            report.write(output, rate, measure);
+            System.out.println("Results written to " + output);
+            List<String> violations = report.check(
+                    Double.parseDouble(System.getProperty("maxP99Ms", "NaN")),
+                    Double.parseDouble(System.getProperty("maxP999Ms", "NaN")),
+                    Double.parseDouble(System.getProperty("maxErrorRate", "NaN")));
+            violations.forEach(violation -> System.out.println("GATE FAILED: " + violation));
+            exitCode = violations.isEmpty() ? 0 : 2;
+        } finally {
+            mongo.shutdownNow();
+        }
+        System.exit(exitCode);
+    }
+
+    private static List<String> seed(TodoRepository repository, int count) {
+        List<String> ids = new ArrayList<>(count);
+        List<Todo> batch = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            batch.add(new Todo("Seed " + i, "Seeded for the load test", new Date(), TodoWorkload.PRIORITIES[i % 3]));
+            if (batch.size() == 1_000 || i == count - 1) {
+                repository.insert(batch).forEach(todo -> ids.add(todo.getId()));
+                batch.clear();
+            }
+        }
+        return ids;
+    }
+
+    private static void drive(HttpClient client, TodoWorkload workload, int rate, Duration duration,
+                              int maxInFlight, LoadReport report) throws InterruptedException {
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        long intervalNanos = 1_000_000_000L / rate;
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        for (long i = 0; ; i++) {
+            long intended = start + i * intervalNanos;
+            if (intended >= end) {
+                break;
+            }
+            long wait;
+            while ((wait = intended - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            inFlight.acquire();
+            TodoWorkload.Call call = workload.next(ThreadLocalRandom.current());
+            long sent = System.nanoTime();
+            client.sendAsync(call.request(), HttpResponse.BodyHandlers.ofString()).whenComplete((response, error) -> {
+                long done = System.nanoTime();
+                boolean ok = error == null && call.succeeded(response);
+                report.record(call.operation(), done - intended, done - sent, ok);
+                inFlight.release();
+            });
+        }
+        inFlight.acquire(maxInFlight);
+    }
+}
@@ -0,0 +1,174 @@
+package com.todolist.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.todolist.model.Todo;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+
+/**
+ * Builds the requests of the load test. Reads and updates target the seeded todos, deletes consume todos
+ * created during the run (falling back to a read when none are left), paging walks the cursor
+ * endpoint, restarting from the first page after the last one, and listing fetches the whole collection.
+ */
+class TodoWorkload {
+
+    static final String[] PRIORITIES = {"High", "Medium", "Low"};
+
+    enum Operation {
+        READ, PAGE, LIST, CREATE, UPDATE, DELETE
+    }
+
+    record Call(Operation operation, HttpRequest request, Predicate<HttpResponse<String>> check) {
+
+        boolean succeeded(HttpResponse<String> response) {
+            return check.test(response);
+        }
+    }
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final URI baseUri;
+    private final List<String> seededIds;
+    private final Mix mix;
+    private final Queue<String> createdIds = new ConcurrentLinkedQueue<>();
+    private final AtomicReference<String> nextPageToken = new AtomicReference<>();
+
+    TodoWorkload(URI baseUri, List<String> seededIds, Mix mix) {
+        this.baseUri = baseUri;
+        this.seededIds = seededIds;
+        this.mix = mix;
+    }
+
+    Call next(Random random) {
+        Operation operation = mix.pick(random);
+        if (operation == Operation.DELETE) {
+            String id = createdIds.poll();
+            if (id != null) {
+                return new Call(operation, HttpRequest.newBuilder(uri(id)).DELETE().build(),
+                        response -> response.statusCode() == 204);
+            }
+            operation = Operation.READ;
+        }
+        return switch (operation) {
+            case READ -> new Call(operation, HttpRequest.newBuilder(uri(randomSeededId(random))).GET().build(),
+                    response -> response.statusCode() == 200);
+            case PAGE -> {
+                String token = nextPageToken.get();
+                String query = "size=50" + (token == null ? "" : "&token=" + URLEncoder.encode(token, StandardCharsets.UTF_8));
+                yield new Call(operation, HttpRequest.newBuilder(URI.create(baseUri + "/cursor?" + query)).GET().build(),
+                        response -> response.statusCode() == 200 && onPage(token, response.body()));
+            }
+            case LIST -> new Call(operation, HttpRequest.newBuilder(baseUri).GET().build(),
+                    response -> response.statusCode() == 200);
+            case CREATE -> new Call(operation, json(HttpRequest.newBuilder(baseUri), "POST", todo(random)),
+                    response -> response.statusCode() == 200 && onCreated(response.body()));
+            case UPDATE -> {
+                Todo todo = todo(random);
+                todo.setCompleted(random.nextBoolean());
+                yield new Call(operation, json(HttpRequest.newBuilder(uri(randomSeededId(random))), "PUT", todo),
+                        response -> response.statusCode() == 200);
+            }
+            case DELETE -> throw new IllegalStateException();
+        };
+    }
+
+    private boolean onCreated(String body) {
+        createdIds.add(read(body).path("id").asText());
+        return true;
+    }
+
+    private boolean onPage(String token, String body) {
+        JsonNode next = read(body).path("nextToken");
+        nextPageToken.compareAndSet(token, next.isTextual() ? next.asText() : null);
+        return true;
+    }
+
+    private String randomSeededId(Random random) {
+        return seededIds.get(random.nextInt(seededIds.size()));
+    }
+
+    private Todo todo(Random random) {
+        return new Todo("Load " + random.nextInt(1_000_000), "Written by the load test",
+                new Date(System.currentTimeMillis() + random.nextInt(86_400_000)), PRIORITIES[random.nextInt(PRIORITIES.length)]);
+    }
+
+    private URI uri(String id) {
+        return URI.create(baseUri + "/" + id);
+    }
+
+    private HttpRequest json(HttpRequest.Builder builder, String method, Todo todo) {
+        try {
+            return builder.header("Content-Type", "application/json")
+                    .method(method, HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(todo)))
+                    .build();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private JsonNode read(String body) {
+        try {
+            return objectMapper.readTree(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Operation weights parsed from {@code read=60,page=10,...}; omitted operations get weight zero.
+     */
+    static class Mix {
+
+        private final Map<Operation, Integer> weights;
+        private final List<Operation> wheel = new ArrayList<>();
+
+        private Mix(Map<Operation, Integer> weights) {
+            this.weights = weights;
+            weights.forEach((operation, weight) -> {
+                for (int i = 0; i < weight; i++) {
+                    wheel.add(operation);
+                }
+            });
+            if (wheel.isEmpty()) {
+                throw new IllegalArgumentException("Mix needs at least one operation with a positive weight");
+            }
+        }
+
+        static Mix parse(String spec) {
+            Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+            for (String entry : spec.split(",")) {
+                String[] parts = entry.trim().split("=");
+                if (parts.length != 2) {
+                    throw new IllegalArgumentException("Invalid mix entry: " + entry);
+                }
+                weights.put(Operation.valueOf(parts[0].trim().toUpperCase()), Integer.parseInt(parts[1].trim()));
+            }
+            return new Mix(weights);
+        }
+
+        Operation pick(Random random) {
+            return wheel.get(random.nextInt(wheel.size()));
+        }
+
+        @Override
+        public String toString() {
+            return weights.toString();
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.todolist.loadtest;
+
+import com.todolist.ToDoListApplication;
+import com.todolist.model.Todo;
+import com.todolist.repository.TodoRepository;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Compares Tomcat on platform threads with Tomcat on virtual threads when every request blocks on a
+ * slow backend. The app is booted twice in-process with {@link TodoRepository} replaced by a stub
+ * whose {@code findById} sleeps for {@code backendLatencyMs}; each run then drives
+ * {@code GET /api/v1/todos/{id}} with {@code concurrency} requests in flight. The requests cycle through
+ * {@code ids} different ids, so concurrent reads of one todo are rarely coalesced into one backend call.
+ *
+ * <p>Needs a Java 21 runtime:
+ * <pre>
+ * ./mvnw -Pvirtual-threads,loadtest test-compile exec:java \
+ *     -Dexec.mainClass=com.todolist.loadtest.VirtualThreadsBenchmark \
+ *     -Dconcurrency=1000 -DbackendLatencyMs=50 -Dids=100000 -DwarmupSeconds=5 -DmeasureSeconds=15
+ * </pre>
+ */
+public class VirtualThreadsBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        if (Runtime.version().feature() < 21) {
+            System.err.println("Virtual threads need Java 21+, running on " + Runtime.version());
+            System.exit(1);
+        }
+        int concurrency = Integer.getInteger("concurrency", 1000);
+        long backendLatencyMs = Long.getLong("backendLatencyMs", 50);
+        int ids = Integer.getInteger("ids", 100_000);
+        Duration warmup = Duration.ofSeconds(Long.getLong("warmupSeconds", 5));
+        Duration measure = Duration.ofSeconds(Long.getLong("measureSeconds", 15));
+
+        System.out.printf("concurrency=%d backendLatencyMs=%d ids=%d warmup=%ss measure=%ss%n",
+                concurrency, backendLatencyMs, ids, warmup.toSeconds(), measure.toSeconds());
+        System.out.printf("%-10s %10s %10s %9s %9s %9s %9s %9s %8s%n",
+                "mode", "requests", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "errors");
+        for (boolean virtualThreads : new boolean[]{false, true}) {
+            SlowBackend.latencyMs = backendLatencyMs;
+            ConfigurableApplicationContext context = new SpringApplicationBuilder(ToDoListApplication.class, SlowBackend.class)
+                    .properties(
+                            "server.port=0",
+                            "spring.threads.virtual.enabled=" + virtualThreads,
+                            "spring.cache.type=none",
+                            // Compares the threading models, not how many requests admission control turns away
+                            "todo.admission.enabled=false",
+                            "spring.main.banner-mode=off",
+                            "logging.level.root=warn",
+                            "logging.level.org.mongodb=off",
+                            "todo.mongo.server-selection-timeout=1s")
+                    .run();
+            try {
+                int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+                URI todos = URI.create("http://localhost:" + port + "/api/v1/todos/");
+                drive(todos, ids, concurrency, warmup, null);
+                Result result = new Result();
+                drive(todos, ids, concurrency, measure, result);
+                result.print(virtualThreads ? "virtual" : "platform", measure);
+            } finally {
+                context.close();
+            }
+        }
+    }
+
+    private static void drive(URI todos, int ids, int concurrency, Duration duration, Result result) throws InterruptedException {
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        Semaphore inFlight = new Semaphore(concurrency);
+        long end = System.nanoTime() + duration.toNanos();
+        for (long sent = 0; System.nanoTime() < end; sent++) {
+            HttpRequest request = HttpRequest.newBuilder(todos.resolve("bench-" + sent % ids)).GET().build();
+            inFlight.acquire();
+            long start = System.nanoTime();
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+                if (result != null) {
+                    result.record(System.nanoTime() - start, error == null && response.statusCode() == 200);
+                }
+                inFlight.release();
+            });
+        }
+        inFlight.acquire(concurrency);
+    }
+
+    private static class Result {
+
+        private final ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        private final AtomicLong errors = new AtomicLong();
+
+        void record(long latencyNanos, boolean ok) {
+            latencies.add(latencyNanos);
+            if (!ok) {
+                errors.incrementAndGet();
+            }
+        }
+
+        void print(String mode, Duration measure) {
+            long[] sorted = latencies.stream().mapToLong(Long::longValue).toArray();
+            Arrays.sort(sorted);
+            System.out.printf("%-10s %10d %10.0f %9.1f %9.1f %9.1f %9.1f %9.1f %8d%n",
+                    mode, sorted.length, sorted.length / (double) measure.toSeconds(),
+                    percentile(sorted, 50), percentile(sorted, 90), percentile(sorted, 99),
+                    percentile(sorted, 99.9), percentile(sorted, 100), errors.get());
+        }
+
+        private static double percentile(long[] sorted, double percentile) {
+            if (sorted.length == 0) {
+                return Double.NaN;
+            }
+            int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+            return sorted[Math.max(index, 0)] / 1_000_000.0;
+        }
+    }
+
+    // Registered explicitly as a source; not a @Configuration so component scanning never picks it up
+    static class SlowBackend {
+
+        static volatile long latencyMs;
+
+        @Bean
+        @Primary
+        TodoRepository slowTodoRepository() {
+            TodoRepository repository = mock(TodoRepository.class, withSettings().stubOnly());
+            // Any id exists, so each request can read a todo of its own
+            when(repository.findById(anyString())).thenAnswer(invocation -> {
+                Thread.sleep(latencyMs);
+                Todo todo = new Todo("Bench", "Benchmark todo", new Date(), "High");
+                todo.setId(invocation.getArgument(0));
+                return Optional.of(todo);
+            });
+            return repository;
+        }
+    }
+}
@@ -1,9 +1,18 @@
 package com.todolist;
 
+import com.todolist.config.TodoRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableCaching
+@EnableAsync
+@EnableScheduling
+@ImportRuntimeHints(TodoRuntimeHints.class)
 public class ToDoListApplication {
 
 	public static void main(String[] args) {
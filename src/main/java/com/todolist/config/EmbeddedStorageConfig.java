@@ -0,0 +1,37 @@
+package com.todolist.config;
+
+import com.todolist.repository.AppendLogTodoRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Keeps todos in an append-only log file on local disk instead of MongoDB. Only the servlet stack runs on it;
+ * the {@code embedded} profile switches off the Mongo auto-configuration along with the Mongo-only beans.
+ */
+@Configuration
+@Profile("embedded")
+public class EmbeddedStorageConfig {
+
+    @Value("${todo.embedded.path:data/todos.log}")
+    private Path path;
+
+    @Value("${todo.embedded.fsync:false}")
+    private boolean fsync;
+
+    @Value("${todo.embedded.compaction-garbage-ratio:0.5}")
+    private double compactionGarbageRatio;
+
+    @Value("${todo.sync.tombstone-retention:30d}")
+    private Duration tombstoneRetention;
+
+    @Bean(destroyMethod = "close")
+    public AppendLogTodoRepository todoRepository() throws IOException {
+        return AppendLogTodoRepository.open(path, tombstoneRetention, compactionGarbageRatio, fsync);
+    }
+}
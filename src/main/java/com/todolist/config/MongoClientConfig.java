@@ -0,0 +1,55 @@
+package com.todolist.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Connection pool and timeout settings, plus pool wait metrics, for the blocking Mongo client and, in the
+ * reactive profile, the reactive one.
+ */
+@Configuration
+public class MongoClientConfig {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${todo.mongo.max-pool-size:100}")
+    private int maxPoolSize;
+
+    @Value("${todo.mongo.min-pool-size:0}")
+    private int minPoolSize;
+
+    @Value("${todo.mongo.max-wait-time:2m}")
+    private Duration maxWaitTime;
+
+    @Value("${todo.mongo.connect-timeout:10s}")
+    private Duration connectTimeout;
+
+    @Value("${todo.mongo.read-timeout:0s}")
+    private Duration readTimeout;
+
+    @Value("${todo.mongo.server-selection-timeout:30s}")
+    private Duration serverSelectionTimeout;
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer todoMongoClientSettings() {
+        return builder -> builder
+                .applyToConnectionPoolSettings(pool -> pool
+                        .maxSize(maxPoolSize)
+                        .minSize(minPoolSize)
+                        .maxWaitTime(maxWaitTime.toMillis(), TimeUnit.MILLISECONDS)
+                        .addConnectionPoolListener(new MongoPoolWaitMetrics(meterRegistry)))
+                .applyToSocketSettings(socket -> socket
+                        .connectTimeout(connectTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                        .readTimeout(readTimeout.toMillis(), TimeUnit.MILLISECONDS))
+                .applyToClusterSettings(cluster -> cluster
+                        .serverSelectionTimeout(serverSelectionTimeout.toMillis(), TimeUnit.MILLISECONDS));
+    }
+}
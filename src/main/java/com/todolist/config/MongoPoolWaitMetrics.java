@@ -0,0 +1,43 @@
+package com.todolist.config;
+
+import com.mongodb.event.ConnectionCheckOutFailedEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionPoolListener;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records how long requests wait to check a connection out of the Mongo pool, as the
+ * {@code todo.mongo.pool.wait} timer tagged with the server and the outcome. The driver's own pool
+ * metrics cover the pool size, connections in use and failed checkouts, but not the wait.
+ */
+class MongoPoolWaitMetrics implements ConnectionPoolListener {
+
+    private final Meter.MeterProvider<Timer> waits;
+
+    MongoPoolWaitMetrics(MeterRegistry registry) {
+        this.waits = Timer.builder("todo.mongo.pool.wait")
+                .description("Time spent waiting for a pooled Mongo connection")
+                .publishPercentileHistogram()
+                .withRegistry(registry);
+    }
+
+    @Override
+    public void connectionCheckedOut(ConnectionCheckedOutEvent event) {
+        waits.withTags(Tags.of("server.address", event.getConnectionId().getServerId().getAddress().toString(),
+                        "outcome", "success"))
+                .record(event.getElapsedTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void connectionCheckOutFailed(ConnectionCheckOutFailedEvent event) {
+        waits.withTags(Tags.of("server.address", event.getServerId().getAddress().toString(),
+                        "outcome", event.getReason().name().toLowerCase(Locale.ROOT)))
+                .record(event.getElapsedTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,161 @@
+package com.todolist.config;
+
+import com.mongodb.MongoCommandException;
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.todolist.model.ArchivedTodo;
+import com.todolist.model.Todo;
+import com.todolist.model.TodoTombstone;
+import com.todolist.service.TodoChangeFeed;
+import com.todolist.service.TodoChangedEvent;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Feeds the {@link TodoChangeFeed} from a Mongo change stream, so clients also see writes made through
+ * other instances. {@code todo.events.source} picks the source: {@code auto} (the default) watches when
+ * the deployment supports change streams and otherwise leaves the feed on in-process events,
+ * {@code change-stream} keeps retrying until it can watch, and {@code local} never watches. A todo
+ * removed by the archiver is published as archived, as it is in-process.
+ */
+@Component
+@Profile("!embedded")
+public class TodoChangeStreamWatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(TodoChangeStreamWatcher.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private TodoChangeFeed changeFeed;
+
+    @Value("${todo.events.source:auto}")
+    private String source;
+
+    @Value("${todo.events.retry-delay:30s}")
+    private Duration retryDelay;
+
+    private volatile Thread watcher;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startWatching() {
+        if ("local".equals(source)) {
+            return;
+        }
+        watcher = new Thread(this::watch, "todo-change-stream");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    public void stopWatching() {
+        Thread thread = watcher;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    void watch() {
+        boolean watching = false;
+        BsonDocument resumeToken = null;
+        while (!Thread.currentThread().isInterrupted()) {
+            try (MongoCursor<ChangeStreamDocument<Document>> cursor = open(resumeToken)) {
+                if (!watching) {
+                    changeFeed.useExternalSource();
+                    watching = true;
+                    log.info("Publishing todo changes from a Mongo change stream");
+                }
+                while (cursor.hasNext()) {
+                    ChangeStreamDocument<Document> change = cursor.next();
+                    resumeToken = change.getResumeToken();
+                    TodoChangedEvent event = toEvent(change);
+                    if (event != null) {
+                        changeFeed.publish(event);
+                    }
+                }
+            } catch (MongoCommandException e) {
+                if (!watching && "auto".equals(source)) {
+                    log.info("Change streams are not available, publishing in-process todo changes: {}", e.getErrorMessage());
+                    return;
+                }
+                // Most likely the resume token fell out of the oplog; start again from now
+                resumeToken = null;
+                if (!pause(e)) {
+                    return;
+                }
+            } catch (MongoException e) {
+                if (!pause(e)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private MongoCursor<ChangeStreamDocument<Document>> open(BsonDocument resumeToken) {
+        var changeStream = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Todo.class))
+                .watch()
+                .fullDocument(FullDocument.UPDATE_LOOKUP);
+        return (resumeToken == null ? changeStream : changeStream.resumeAfter(resumeToken)).cursor();
+    }
+
+    private TodoChangedEvent toEvent(ChangeStreamDocument<Document> change) {
+        return switch (change.getOperationType()) {
+            case INSERT -> TodoChangedEvent.created(read(change.getFullDocument()));
+            // No full document means the todo was deleted before the lookup; its delete follows
+            case UPDATE, REPLACE -> change.getFullDocument() == null ? null : TodoChangedEvent.updated(read(change.getFullDocument()));
+            case DELETE -> removed(idOf(change.getDocumentKey().get("_id")));
+            default -> null;
+        };
+    }
+
+    // The archiver copies a todo before removing it and marks its tombstone archived after, so a removal with
+    // a copy in the archive was archiving, unless a tombstone left since the copy was taken says otherwise
+    private TodoChangedEvent removed(String id) {
+        ArchivedTodo copy = mongoTemplate.findById(id, ArchivedTodo.class);
+        if (copy == null) {
+            return TodoChangedEvent.deleted(id);
+        }
+        TodoTombstone tombstone = mongoTemplate.findById(id, TodoTombstone.class);
+        if (tombstone != null && !tombstone.getDeletedAt().before(copy.getArchivedAt()) && !tombstone.isArchived()) {
+            return TodoChangedEvent.deleted(id);
+        }
+        return TodoChangedEvent.archived(id);
+    }
+
+    private Todo read(Document document) {
+        return mongoTemplate.getConverter().read(Todo.class, document);
+    }
+
+    private static String idOf(BsonValue id) {
+        if (id.isObjectId()) {
+            return id.asObjectId().getValue().toHexString();
+        }
+        return id.isString() ? id.asString().getValue() : id.toString();
+    }
+
+    private boolean pause(MongoException e) {
+        log.warn("Change stream failed, retrying in {}: {}", retryDelay, e.getMessage());
+        try {
+            Thread.sleep(retryDelay.toMillis());
+            return true;
+        } catch (InterruptedException interrupted) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.todolist.config;
+
+import com.todolist.model.ArchivedTodo;
+import com.todolist.model.Todo;
+import com.todolist.model.TodoTombstone;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@Profile("!embedded")
+public class TodoIndexInitializer {
+
+    private static final Logger log = LoggerFactory.getLogger(TodoIndexInitializer.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MongoMappingContext mappingContext;
+
+    @Value("${todo.sync.tombstone-retention:30d}")
+    private Duration tombstoneRetention;
+
+    @Value("${todo.archive.retention:365d}")
+    private Duration archiveRetention;
+
+    // Runs off the startup thread so the app still boots while Mongo is unreachable
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexes() {
+        IndexOperations indexOps = mongoTemplate.indexOps(Todo.class);
+        try {
+            new MongoPersistentEntityIndexResolver(mappingContext)
+                    .resolveIndexFor(Todo.class)
+                    .forEach(indexOps::ensureIndex);
+        } catch (DataAccessException e) {
+            log.warn("Could not create indexes for {}: {}", Todo.class.getSimpleName(), e.getMessage());
+        }
+        // Changing the retention later needs the old index dropped first; ensureIndex fails on the conflict
+        try {
+            mongoTemplate.indexOps(TodoTombstone.class).ensureIndex(new Index("deletedAt", Sort.Direction.ASC)
+                    .named("deletedAt_ttl")
+                    .expire(tombstoneRetention));
+        } catch (DataAccessException e) {
+            log.warn("Could not create indexes for {}: {}", TodoTombstone.class.getSimpleName(), e.getMessage());
+        }
+        try {
+            mongoTemplate.indexOps(ArchivedTodo.class).ensureIndex(new Index("archivedAt", Sort.Direction.ASC)
+                    .named("archivedAt_ttl")
+                    .expire(archiveRetention));
+        } catch (DataAccessException e) {
+            log.warn("Could not create indexes for {}: {}", ArchivedTodo.class.getSimpleName(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.todolist.config;
+
+import com.todolist.model.ArchivedTodo;
+import com.todolist.model.Todo;
+import com.todolist.model.TodoCursor;
+import com.todolist.model.TodoFilter;
+import com.todolist.model.TodoSyncToken;
+import com.todolist.service.TodoChangedEvent;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+/**
+ * Reflection a native image needs that AOT processing cannot work out from the controller signatures.
+ * Spring Data already covers the {@code @Document} classes.
+ */
+public class TodoRuntimeHints implements RuntimeHintsRegistrar {
+
+    private final BindingReflectionHintsRegistrar bindingHints = new BindingReflectionHintsRegistrar();
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        // Written by Jackson behind wildcard return types, in change events and in page tokens; archived
+        // todos are returned as Todo
+        bindingHints.registerReflectionHints(hints.reflection(),
+                Todo.class, ArchivedTodo.class, TodoFilter.class, TodoChangedEvent.class, TodoCursor.class, TodoSyncToken.class);
+        // Bean Validation and query parameter binding read annotations off the fields
+        hints.reflection().registerType(Todo.class, MemberCategory.DECLARED_FIELDS);
+        hints.reflection().registerType(TodoFilter.class, MemberCategory.DECLARED_FIELDS);
+    }
+}
@@ -0,0 +1,75 @@
+package com.todolist.config;
+
+import com.todolist.model.Todo;
+import com.todolist.model.TodoFilter;
+import com.todolist.model.TodoTally;
+import com.todolist.repository.TodoRepository;
+import com.todolist.service.TodoStatistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Periodically recounts todos in Mongo and, when the incrementally kept statistics no longer agree, reads
+ * every todo again to rebuild them.
+ */
+@Component
+public class TodoStatisticsReconciler {
+
+    private static final Logger log = LoggerFactory.getLogger(TodoStatisticsReconciler.class);
+
+    // A disagreement while writes are landing may only mean the recount missed them; after this many
+    // such runs the statistics are rebuilt anyway
+    static final int MAX_SKIPPED_RUNS = 3;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private TodoStatistics statistics;
+
+    @Value("${todo.stream.batch-size:500}")
+    private int batchSize = 500;
+
+    private int skippedRuns;
+
+    @Scheduled(fixedDelayString = "${todo.stats.reconcile-interval:5m}",
+            initialDelayString = "${todo.stats.reconcile-interval:5m}")
+    public void reconcile() {
+        if (!statistics.isReady()) {
+            return;
+        }
+        long writesSeen = statistics.getWriteCount();
+        try {
+            List<TodoTally> tallies = todoRepository.tally(statistics.getZone());
+            if (statistics.agrees(tallies)) {
+                skippedRuns = 0;
+                return;
+            }
+            if (statistics.getWriteCount() != writesSeen && ++skippedRuns < MAX_SKIPPED_RUNS) {
+                return;
+            }
+            skippedRuns = 0;
+            rebuild();
+        } catch (DataAccessException e) {
+            log.warn("Could not reconcile statistics: {}", e.getMessage());
+        }
+    }
+
+    private void rebuild() {
+        statistics.startRebuild();
+        try (Stream<Todo> todos = todoRepository.streamAll(TodoFilter.none(), batchSize)) {
+            todos.forEach(statistics::rebuild);
+            statistics.finishRebuild();
+        } finally {
+            statistics.abortRebuild();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.todolist.config;
+
+import com.todolist.model.Todo;
+import com.todolist.model.TodoFilter;
+import com.todolist.repository.TodoRepository;
+import com.todolist.service.TodoSearchIndex;
+import com.todolist.service.TodoStatistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.stream.Stream;
+
+/**
+ * Fills the in-memory views that are kept current from change events, the search index and the
+ * statistics, from a single pass over the collection at startup.
+ */
+@Component
+public class TodoViewsInitializer {
+
+    private static final Logger log = LoggerFactory.getLogger(TodoViewsInitializer.class);
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private TodoSearchIndex searchIndex;
+
+    @Autowired
+    private TodoStatistics statistics;
+
+    @Value("${todo.stream.batch-size:500}")
+    private int batchSize;
+
+    @Value("${todo.views.load-retry-delay:30s}")
+    private Duration retryDelay;
+
+    private volatile Thread loader;
+
+    // Runs on its own daemon thread rather than the task executor, which would hold up shutdown for
+    // as long as a load is blocked waiting for Mongo
+    @EventListener(ApplicationReadyEvent.class)
+    public void startLoading() {
+        loader = new Thread(this::loadViews, "todo-views-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    public void stopLoading() {
+        Thread thread = loader;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    // Writes made while the load runs reach the views through events and win over what the load reads
+    void loadViews() {
+        while (!searchIndex.isReady() && !Thread.currentThread().isInterrupted()) {
+            try (Stream<Todo> todos = todoRepository.streamAll(TodoFilter.none(), batchSize)) {
+                todos.forEach(todo -> {
+                    searchIndex.load(todo);
+                    statistics.load(todo);
+                });
+                searchIndex.finishLoad();
+                statistics.finishLoad();
+                log.info("Search index and statistics loaded with {} todos", searchIndex.size());
+            } catch (DataAccessException e) {
+                log.warn("Could not load the search index and statistics, retrying in {}: {}", retryDelay, e.getMessage());
+                try {
+                    Thread.sleep(retryDelay.toMillis());
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.todolist.controller;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrency limit that adapts to latency (AIMD). The baseline is the lowest latency seen over the last
+ * one to two windows of {@value #WINDOW} calls, i.e. what a call costs without queueing, and each call
+ * also feeds a moving average of recent latency. While that average stays within {@code tolerance} times
+ * the baseline and the limit is in use, the limit grows by about one per limit's worth of calls. When the
+ * average rises above it, or a call fails, the limit is cut by {@code backoff}, at most once per round
+ * trip, i.e. only for calls that started after the previous cut.
+ *
+ * <p>Callers over the limit wait up to their own deadline for a slot; no more than {@code maxQueue} wait at
+ * once, and the rest are turned away straight away.
+ */
+public final class AdaptiveLimiter {
+
+    private static final int WINDOW = 1000;
+    private static final double WEIGHT = 0.1;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final int maxQueue;
+    private final double tolerance;
+    private final double backoff;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+    private double limit;
+    private int inFlight;
+    private int queued;
+    private long rejected;
+    private double recentLatency;
+    private long windowMin = Long.MAX_VALUE;
+    private long previousWindowMin = Long.MAX_VALUE;
+    private int windowCalls;
+    private long lastCut = Long.MIN_VALUE;
+
+    public AdaptiveLimiter(int initialLimit, int minLimit, int maxLimit, int maxQueue, double tolerance, double backoff) {
+        if (minLimit < 1 || initialLimit < minLimit || maxLimit < initialLimit) {
+            throw new IllegalArgumentException("Need 1 <= minLimit <= initialLimit <= maxLimit");
+        }
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.maxQueue = maxQueue;
+        this.tolerance = tolerance;
+        this.backoff = backoff;
+    }
+
+    /**
+     * Takes a slot, waiting up to {@code maxWait} for one. Every successful acquire must be paired with a
+     * {@link #release}.
+     *
+     * @return false if no slot came free in time or too many callers were already waiting
+     */
+    public boolean acquire(long maxWait, TimeUnit unit) throws InterruptedException {
+        lock.lock();
+        try {
+            if (inFlight < (int) limit) {
+                inFlight++;
+                return true;
+            }
+            if (maxWait <= 0 || queued >= maxQueue) {
+                rejected++;
+                return false;
+            }
+            queued++;
+            try {
+                long remaining = unit.toNanos(maxWait);
+                while (inFlight >= (int) limit) {
+                    if (remaining <= 0) {
+                        rejected++;
+                        return false;
+                    }
+                    remaining = released.awaitNanos(remaining);
+                }
+                inFlight++;
+                return true;
+            } finally {
+                queued--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Frees a slot and adjusts the limit.
+     *
+     * @param startNanos {@link System#nanoTime()} when the call was admitted
+     * @param succeeded false if the call failed in a way that points at an overloaded backend
+     */
+    public void release(long startNanos, long endNanos, boolean succeeded) {
+        lock.lock();
+        try {
+            inFlight--;
+            long latency = endNanos - startNanos;
+            if (windowMin == Long.MAX_VALUE && previousWindowMin == Long.MAX_VALUE) {
+                recentLatency = latency;
+            } else {
+                recentLatency += (latency - recentLatency) * WEIGHT;
+            }
+            windowMin = Math.min(windowMin, latency);
+            long baseline = Math.min(windowMin, previousWindowMin);
+            if (++windowCalls == WINDOW) {
+                previousWindowMin = windowMin;
+                windowMin = Long.MAX_VALUE;
+                windowCalls = 0;
+            }
+            int before = (int) limit;
+            if (!succeeded || recentLatency > tolerance * baseline) {
+                if (startNanos > lastCut) {
+                    limit = Math.max(minLimit, limit * backoff);
+                    lastCut = endNanos;
+                }
+            } else if (inFlight + 1 >= limit / 2) {
+                limit = Math.min(maxLimit, limit + 1 / limit);
+            }
+            if ((int) limit > before) {
+                released.signalAll();
+            } else {
+                released.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Counts a caller turned away without trying {@link #acquire}.
+     */
+    public void reject() {
+        lock.lock();
+        try {
+            rejected++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getQueued() {
+        lock.lock();
+        try {
+            return queued;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getRejected() {
+        lock.lock();
+        try {
+            return rejected;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
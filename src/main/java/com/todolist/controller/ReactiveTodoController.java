@@ -0,0 +1,199 @@
+package com.todolist.controller;
+
+import com.todolist.model.Todo;
+import com.todolist.model.TodoBulkOperation;
+import com.todolist.model.TodoBulkResult;
+import com.todolist.model.TodoChanges;
+import com.todolist.model.TodoFilter;
+import com.todolist.model.TodoJob;
+import com.todolist.model.TodoJobRequest;
+import com.todolist.model.TodoSlice;
+import com.todolist.model.TodoStats;
+import com.todolist.service.ReactiveTodoService;
+import com.todolist.service.TodoChangeFeed;
+import com.todolist.service.TodoJobRunner;
+import com.todolist.service.TodoService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import jakarta.validation.Valid;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * WebFlux twin of {@link TodoController}, active under the {@code reactive} profile.
+ */
+@RestController
+@RequestMapping("/api/v1/todos")
+@Validated
+@Profile("reactive")
+public class ReactiveTodoController {
+
+    @Autowired
+    private ReactiveTodoService todoService;
+
+    @Autowired
+    private TodoService blockingTodoService;
+
+    @Autowired
+    private TodoChangeFeed changeFeed;
+
+    @Autowired
+    private TodoJobRunner jobRunner;
+
+    @Value("${todo.events.timeout:30m}")
+    private Duration eventsTimeout = Duration.ofMinutes(30);
+
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public Flux<?> getAllTodos(@Valid TodoFilter filter, @RequestParam(required = false) String fields) {
+        if (fields == null) {
+            return todoService.getAllTodos(filter);
+        }
+        return todoService.getAllTodos(filter, fields).onErrorMap(IllegalArgumentException.class, ReactiveTodoController::badFields);
+    }
+
+    @GetMapping("/paged")
+    public Mono<? extends Page<?>> getAllTodosPaged(@Valid TodoFilter filter, Pageable pageable,
+                                                    @RequestParam(required = false) String fields) {
+        if (fields == null) {
+            return todoService.getAllTodos(filter, pageable);
+        }
+        return todoService.getAllTodos(filter, fields, pageable).onErrorMap(IllegalArgumentException.class, ReactiveTodoController::badFields);
+    }
+
+    @GetMapping("/cursor")
+    public Mono<ResponseEntity<TodoSlice>> getTodosByCursor(@RequestParam(defaultValue = "id") String sort,
+                                                            @RequestParam(defaultValue = "asc") String direction,
+                                                            @RequestParam(defaultValue = "20") int size,
+                                                            @RequestParam(required = false) String token) {
+        return todoService.getTodosByCursor(sort, direction, size, token)
+                .map(ResponseEntity::ok)
+                .onErrorResume(IllegalArgumentException.class, e -> Mono.just(ResponseEntity.badRequest().build()));
+    }
+
+    @GetMapping("/changes")
+    public Mono<ResponseEntity<TodoChanges>> getChanges(@RequestParam(required = false) String since,
+                                                        @RequestParam(defaultValue = "500") int size) {
+        return todoService.getChanges(since, size)
+                .map(changes -> changes.isReset() ? ResponseEntity.status(HttpStatus.GONE).body(changes) : ResponseEntity.ok(changes))
+                .onErrorResume(IllegalArgumentException.class, e -> Mono.just(ResponseEntity.badRequest().build()));
+    }
+
+    @GetMapping("/search")
+    public Mono<ResponseEntity<List<Todo>>> searchTodos(@RequestParam String q, @RequestParam(defaultValue = "10") int limit) {
+        return todoService.searchTodos(q, limit).collectList()
+                .map(ResponseEntity::ok)
+                .onErrorResume(IllegalStateException.class,
+                        e -> Mono.just(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build()));
+    }
+
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<String>> streamEvents(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return TodoEventFlux.subscribe(changeFeed, lastEventId).take(eventsTimeout);
+    }
+
+    @GetMapping("/stats")
+    public Mono<ResponseEntity<TodoStats>> getStats() {
+        return todoService.getStats()
+                .map(ResponseEntity::ok)
+                .onErrorResume(IllegalStateException.class,
+                        e -> Mono.just(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build()));
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Todo>> getTodoById(@PathVariable String id, @RequestParam(defaultValue = "false") boolean includeArchived) {
+        return todoService.getTodoById(id)
+                .switchIfEmpty(includeArchived ? todoService.getArchivedTodoById(id) : Mono.empty())
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<Todo>> createTodo(@Valid @RequestBody Todo todo) {
+        return todoService.createTodo(todo)
+                .map(ResponseEntity::ok)
+                .onErrorResume(RejectedExecutionException.class, e -> Mono.just(
+                        ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").build()));
+    }
+
+    // Bulk writes reuse the blocking implementation, moved off the event loop
+    @PostMapping("/_bulk")
+    public Mono<ResponseEntity<List<TodoBulkResult>>> bulkWrite(@RequestBody List<TodoBulkOperation> operations) {
+        return Mono.fromCallable(() -> blockingTodoService.bulkWrite(operations))
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(ResponseEntity::ok)
+                .onErrorResume(IllegalArgumentException.class, e -> Mono.just(ResponseEntity.badRequest().build()));
+    }
+
+    @PostMapping("/jobs")
+    public Mono<ResponseEntity<TodoJob>> submitJob(@Valid @RequestBody TodoJobRequest request) {
+        return Mono.fromCallable(() -> jobRunner.submit(request))
+                .map(job -> ResponseEntity.accepted().location(URI.create("/api/v1/todos/jobs/" + job.getId())).body(job))
+                .onErrorResume(RejectedExecutionException.class, e -> Mono.just(
+                        ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").build()));
+    }
+
+    @GetMapping("/jobs/{id}")
+    public Mono<ResponseEntity<TodoJob>> getJob(@PathVariable String id) {
+        return Mono.justOrEmpty(jobRunner.getJob(id))
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @DeleteMapping("/jobs/{id}")
+    public Mono<ResponseEntity<TodoJob>> cancelJob(@PathVariable String id) {
+        return Mono.justOrEmpty(jobRunner.getJob(id))
+                .map(job -> job.cancel() ? ResponseEntity.accepted().body(job) : ResponseEntity.status(HttpStatus.CONFLICT).body(job))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<Todo>> updateTodo(@PathVariable String id, @Valid @RequestBody Todo todo) {
+        return todoService.updateTodo(id, todo)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build())
+                .onErrorResume(OptimisticLockingFailureException.class,
+                        e -> Mono.just(ResponseEntity.status(HttpStatus.CONFLICT).build()));
+    }
+
+    @PatchMapping("/{id}")
+    public Mono<ResponseEntity<?>> patchTodo(@PathVariable String id, @RequestBody Map<String, Object> changes) {
+        return todoService.patchTodo(id, changes)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build())
+                .onErrorResume(IllegalArgumentException.class, e -> Mono.just(ResponseEntity.badRequest().body(e.getMessage())))
+                .onErrorResume(OptimisticLockingFailureException.class,
+                        e -> Mono.just(ResponseEntity.status(HttpStatus.CONFLICT).build()));
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteTodo(@PathVariable String id) {
+        return todoService.deleteTodo(id)
+                .map(deleted -> deleted
+                        ? ResponseEntity.noContent().<Void>build()
+                        : ResponseEntity.notFound().<Void>build());
+    }
+
+    // A Flux body cannot carry a ResponseEntity, so the status travels on the error
+    private static ResponseStatusException badFields(IllegalArgumentException e) {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+    }
+}
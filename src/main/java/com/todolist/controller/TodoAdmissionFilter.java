@@ -0,0 +1,201 @@
+package com.todolist.controller;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control for {@link TodoController}. Requests are split into single-todo reads, other reads and
+ * writes, each with its own {@link AdaptiveLimiter}, so a slow Mongo holds at most each class's limit of
+ * Tomcat threads instead of all of them. A request over its limit waits up to {@code todo.admission.max-wait}
+ * and is then answered with 503 and {@code Retry-After}.
+ *
+ * <p>Single-todo reads come first: while any {@code GET /{id}} is waiting for a slot, collection reads are
+ * turned away even if their own class has room. Streamed responses keep their slot until the stream ends.
+ * {@code /events} is not limited, as its connections are long-lived and mostly idle.
+ */
+@Component
+@Profile("!reactive")
+public class TodoAdmissionFilter extends OncePerRequestFilter implements MeterBinder {
+
+    enum RequestClass { GET, LIST, WRITE }
+
+    private static final String PATH = "/api/v1/todos";
+    private static final Set<String> COLLECTION_PATHS = Set.of("paged", "cursor", "changes", "search", "stats");
+
+    @Value("${todo.admission.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${todo.admission.initial-limit:20}")
+    private int initialLimit = 20;
+
+    @Value("${todo.admission.min-limit:10}")
+    private int minLimit = 10;
+
+    @Value("${todo.admission.max-limit:100}")
+    private int maxLimit = 100;
+
+    @Value("${todo.admission.queue-size:50}")
+    private int queueSize = 50;
+
+    @Value("${todo.admission.max-wait:50ms}")
+    private Duration maxWait = Duration.ofMillis(50);
+
+    @Value("${todo.admission.latency-tolerance:2.0}")
+    private double latencyTolerance = 2.0;
+
+    @Value("${todo.admission.backoff:0.9}")
+    private double backoff = 0.9;
+
+    @Value("${todo.admission.retry-after:1s}")
+    private Duration retryAfter = Duration.ofSeconds(1);
+
+    private final Map<RequestClass, AdaptiveLimiter> limiters = new EnumMap<>(RequestClass.class);
+
+    @PostConstruct
+    public void init() {
+        for (RequestClass requestClass : RequestClass.values()) {
+            limiters.put(requestClass, new AdaptiveLimiter(initialLimit, minLimit, maxLimit, queueSize, latencyTolerance, backoff));
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        limiters.forEach((requestClass, limiter) -> {
+            String tag = requestClass.name().toLowerCase(Locale.ROOT);
+            Gauge.builder("todo.admission.limit", limiter, AdaptiveLimiter::getLimit)
+                    .tag("class", tag).register(registry);
+            Gauge.builder("todo.admission.in.flight", limiter, AdaptiveLimiter::getInFlight)
+                    .tag("class", tag).register(registry);
+            Gauge.builder("todo.admission.queued", limiter, AdaptiveLimiter::getQueued)
+                    .tag("class", tag).register(registry);
+            FunctionCounter.builder("todo.admission.rejected", limiter, AdaptiveLimiter::getRejected)
+                    .tag("class", tag).register(registry);
+        });
+    }
+
+    AdaptiveLimiter limiter(RequestClass requestClass) {
+        return limiters.get(requestClass);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || classify(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestClass requestClass = classify(request);
+        AdaptiveLimiter limiter = limiters.get(requestClass);
+        boolean admitted;
+        if (requestClass == RequestClass.LIST && limiters.get(RequestClass.GET).getQueued() > 0) {
+            limiter.reject();
+            admitted = false;
+        } else {
+            try {
+                admitted = limiter.acquire(maxWait.toNanos(), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                admitted = false;
+            }
+        }
+        if (!admitted) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter.toSeconds()));
+            return;
+        }
+        long start = System.nanoTime();
+        boolean succeeded = false;
+        try {
+            chain.doFilter(request, response);
+            succeeded = response.getStatus() < 500;
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new Release(limiter, start, response));
+            } else {
+                limiter.release(start, System.nanoTime(), succeeded);
+            }
+        }
+    }
+
+    static RequestClass classify(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (!path.startsWith(PATH) || path.length() > PATH.length() && path.charAt(PATH.length()) != '/') {
+            return null;
+        }
+        String rest = path.length() > PATH.length() + 1 ? path.substring(PATH.length() + 1) : "";
+        if (rest.equals("events")) {
+            return null;
+        }
+        if (!HttpMethod.GET.matches(request.getMethod()) && !HttpMethod.HEAD.matches(request.getMethod())) {
+            return RequestClass.WRITE;
+        }
+        return rest.isEmpty() || rest.contains("/") || COLLECTION_PATHS.contains(rest) ? RequestClass.LIST : RequestClass.GET;
+    }
+
+    private static final class Release implements AsyncListener {
+
+        private final AdaptiveLimiter limiter;
+        private final long start;
+        private final HttpServletResponse response;
+        private boolean done;
+
+        Release(AdaptiveLimiter limiter, long start, HttpServletResponse response) {
+            this.limiter = limiter;
+            this.start = start;
+            this.response = response;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release(response.getStatus() < 500);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release(false);
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release(false);
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+
+        // Timeouts and errors are followed by onComplete
+        private synchronized void release(boolean succeeded) {
+            if (!done) {
+                done = true;
+                limiter.release(start, System.nanoTime(), succeeded);
+            }
+        }
+    }
+}
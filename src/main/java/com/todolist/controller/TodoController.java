@@ -1,67 +1,247 @@
 package com.todolist.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.todolist.model.Todo;
+import com.todolist.model.TodoBulkOperation;
+import com.todolist.model.TodoBulkResult;
+import com.todolist.model.TodoChanges;
+import com.todolist.model.TodoFields;
+import com.todolist.model.TodoFilter;
+import com.todolist.model.TodoJob;
+import com.todolist.model.TodoJobRequest;
+import com.todolist.model.TodoSlice;
+import com.todolist.model.TodoStats;
+import com.todolist.service.TodoChangeFeed;
+import com.todolist.service.TodoJobRunner;
 import com.todolist.service.TodoService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping("/api/v1/todos")
 @Validated
+@Profile("!reactive")
 public class TodoController {
 
     @Autowired
     private TodoService todoService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TodoChangeFeed changeFeed;
+
+    @Autowired
+    private TodoJobRunner jobRunner;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private TaskExecutor taskExecutor;
+
+    @Value("${todo.events.timeout:30m}")
+    private Duration eventsTimeout = Duration.ofMinutes(30);
+
     @GetMapping
-    public ResponseEntity<List<Todo>> getAllTodos() {
-        List<Todo> todos = todoService.getAllTodos();
-        return ResponseEntity.ok(todos);
+    public ResponseEntity<?> getAllTodos(@Valid TodoFilter filter, @RequestParam(required = false) String fields) {
+        if (fields == null) {
+            List<Todo> todos = todoService.getAllTodos(filter);
+            return ResponseEntity.ok(todos);
+        }
+        try {
+            return ResponseEntity.ok(todoService.getAllTodos(filter, fields));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllTodos(@Valid TodoFilter filter, @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            // Checked up front; once the body is streaming the status can no longer change
+            try {
+                TodoFields.of(fields);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().build();
+            }
+        }
+        StreamingResponseBody body = outputStream -> {
+            // Closing the stream kills the server-side cursor, including when the client disconnects mid-write
+            try (Stream<?> todos = fields == null ? todoService.streamAllTodos(filter) : todoService.streamAllTodos(filter, fields)) {
+                Iterator<?> iterator = todos.iterator();
+                while (iterator.hasNext()) {
+                    outputStream.write(objectMapper.writeValueAsBytes(iterator.next()));
+                    outputStream.write('\n');
+                }
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
 
     @GetMapping("/paged")
-    public ResponseEntity<Page<Todo>> getAllTodosPaged(Pageable pageable) {
-        Page<Todo> todos = todoService.getAllTodos(pageable);
-        return ResponseEntity.ok(todos);
+    public ResponseEntity<?> getAllTodosPaged(@Valid TodoFilter filter, Pageable pageable,
+                                              @RequestParam(required = false) String fields) {
+        if (fields == null) {
+            Page<Todo> todos = todoService.getAllTodos(filter, pageable);
+            return ResponseEntity.ok(todos);
+        }
+        try {
+            return ResponseEntity.ok(todoService.getAllTodos(filter, fields, pageable));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/cursor")
+    public ResponseEntity<TodoSlice> getTodosByCursor(@RequestParam(defaultValue = "id") String sort,
+                                                      @RequestParam(defaultValue = "asc") String direction,
+                                                      @RequestParam(defaultValue = "20") int size,
+                                                      @RequestParam(required = false) String token) {
+        try {
+            TodoSlice todos = todoService.getTodosByCursor(sort, direction, size, token);
+            return ResponseEntity.ok(todos);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // 410 tells the client its token outlived the tombstones and it has to sync again from scratch
+    @GetMapping("/changes")
+    public ResponseEntity<TodoChanges> getChanges(@RequestParam(required = false) String since,
+                                                  @RequestParam(defaultValue = "500") int size) {
+        try {
+            TodoChanges changes = todoService.getChanges(since, size);
+            return changes.isReset() ? ResponseEntity.status(HttpStatus.GONE).body(changes) : ResponseEntity.ok(changes);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<List<Todo>> searchTodos(@RequestParam String q, @RequestParam(defaultValue = "10") int limit) {
+        try {
+            List<Todo> todos = todoService.searchTodos(q, limit);
+            return ResponseEntity.ok(todos);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return TodoEventEmitter.subscribe(changeFeed, lastEventId, eventsTimeout.toMillis(), taskExecutor);
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<TodoStats> getStats() {
+        try {
+            return ResponseEntity.ok(todoService.getStats());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Todo> getTodoById(@PathVariable String id) {
+    public ResponseEntity<Todo> getTodoById(@PathVariable String id, @RequestParam(defaultValue = "false") boolean includeArchived) {
         Optional<Todo> todo = todoService.getTodoById(id);
+        if (todo.isEmpty() && includeArchived) {
+            todo = todoService.getArchivedTodoById(id);
+        }
         return todo.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     @PostMapping
     public ResponseEntity<?> createTodo(@Valid @RequestBody Todo todo) {
-        Todo createdTodo = todoService.createTodo(todo);
-        return ResponseEntity.ok(createdTodo);
+        try {
+            Todo createdTodo = todoService.createTodo(todo);
+            return ResponseEntity.ok(createdTodo);
+        } catch (RejectedExecutionException | QueryTimeoutException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").build();
+        }
+    }
+
+    @PostMapping("/_bulk")
+    public ResponseEntity<List<TodoBulkResult>> bulkWrite(@RequestBody List<TodoBulkOperation> operations) {
+        try {
+            List<TodoBulkResult> results = todoService.bulkWrite(operations);
+            return ResponseEntity.ok(results);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PostMapping("/jobs")
+    public ResponseEntity<TodoJob> submitJob(@Valid @RequestBody TodoJobRequest request) {
+        try {
+            TodoJob job = jobRunner.submit(request);
+            return ResponseEntity.accepted().location(URI.create("/api/v1/todos/jobs/" + job.getId())).body(job);
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").build();
+        }
+    }
+
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<TodoJob> getJob(@PathVariable String id) {
+        return jobRunner.getJob(id).map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @DeleteMapping("/jobs/{id}")
+    public ResponseEntity<TodoJob> cancelJob(@PathVariable String id) {
+        return jobRunner.getJob(id)
+                .map(job -> job.cancel() ? ResponseEntity.accepted().body(job) : ResponseEntity.status(HttpStatus.CONFLICT).body(job))
+                .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     @PutMapping("/{id}")
     public ResponseEntity<?> updateTodo(@PathVariable String id, @Valid @RequestBody Todo todo) {
-        Optional<Todo> existingTodo = todoService.getTodoById(id);
-        if (existingTodo.isEmpty()) {
-            return ResponseEntity.notFound().build();
+        try {
+            Optional<Todo> updatedTodo = todoService.updateTodo(id, todo);
+            return updatedTodo.<ResponseEntity<?>>map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         }
+    }
 
-        todo.setId(id);
-        Todo updatedTodo = todoService.updateTodo(id, todo);
-        return ResponseEntity.ok(updatedTodo);
+    @PatchMapping("/{id}")
+    public ResponseEntity<?> patchTodo(@PathVariable String id, @RequestBody Map<String, Object> changes) {
+        try {
+            Optional<Todo> patchedTodo = todoService.patchTodo(id, changes);
+            return patchedTodo.<ResponseEntity<?>>map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteTodo(@PathVariable String id) {
-        Optional<Todo> todo = todoService.getTodoById(id);
-        if (todo.isPresent()) {
-            todoService.deleteTodo(id);
+        if (todoService.deleteTodo(id)) {
             return ResponseEntity.noContent().build();
         }
         return ResponseEntity.notFound().build();
@@ -0,0 +1,71 @@
+package com.todolist.controller;
+
+import com.todolist.service.TodoChangeFeed;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Writes one {@link TodoChangeFeed} subscription to an SSE response. Nothing runs while the subscription
+ * is idle; when entries arrive a single drain is scheduled on the executor and sends everything queued.
+ */
+class TodoEventEmitter extends SseEmitter {
+
+    private final TaskExecutor executor;
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private volatile TodoChangeFeed.Subscription subscription;
+
+    private TodoEventEmitter(long timeout, TaskExecutor executor) {
+        super(timeout);
+        this.executor = executor;
+    }
+
+    static TodoEventEmitter subscribe(TodoChangeFeed feed, String lastEventId, long timeout, TaskExecutor executor) {
+        TodoEventEmitter emitter = new TodoEventEmitter(timeout, executor);
+        emitter.subscription = feed.subscribe(lastEventId, emitter::schedule);
+        emitter.onCompletion(emitter.subscription::cancel);
+        emitter.onTimeout(emitter.subscription::cancel);
+        emitter.onError(error -> emitter.subscription.cancel());
+        emitter.schedule();
+        return emitter;
+    }
+
+    private void schedule() {
+        if (subscription != null && scheduled.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        try {
+            for (TodoChangeFeed.Entry entry = subscription.poll(); entry != null; entry = subscription.poll()) {
+                send(toEvent(entry));
+            }
+            if (subscription.isEnded()) {
+                complete();
+                return;
+            }
+        } catch (IOException | IllegalStateException e) {
+            // The client went away or the response already completed
+            subscription.cancel();
+            return;
+        } finally {
+            scheduled.set(false);
+        }
+        // An entry queued, or an eviction, after the last poll found the drain still scheduled
+        if (subscription.hasQueued() || subscription.isEnded()) {
+            schedule();
+        }
+    }
+
+    private static SseEventBuilder toEvent(TodoChangeFeed.Entry entry) {
+        if (entry == TodoChangeFeed.Entry.HEARTBEAT) {
+            return event().comment("");
+        }
+        SseEventBuilder event = event().name(entry.getName()).data(entry.getData(), MediaType.APPLICATION_JSON);
+        return entry.getId() == null ? event : event.id(entry.getId());
+    }
+}
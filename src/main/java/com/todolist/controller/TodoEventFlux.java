@@ -0,0 +1,62 @@
+package com.todolist.controller;
+
+import com.todolist.service.TodoChangeFeed;
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * WebFlux counterpart of {@link TodoEventEmitter}: emits a {@link TodoChangeFeed} subscription as
+ * server-sent events, only as fast as the connection requests them.
+ */
+final class TodoEventFlux {
+
+    private TodoEventFlux() {}
+
+    static Flux<ServerSentEvent<String>> subscribe(TodoChangeFeed feed, String lastEventId) {
+        return Flux.create(sink -> new Drain(feed, lastEventId, sink));
+    }
+
+    private static final class Drain {
+
+        private final FluxSink<ServerSentEvent<String>> sink;
+        private final AtomicInteger pending = new AtomicInteger();
+        private volatile TodoChangeFeed.Subscription subscription;
+
+        Drain(TodoChangeFeed feed, String lastEventId, FluxSink<ServerSentEvent<String>> sink) {
+            this.sink = sink;
+            subscription = feed.subscribe(lastEventId, this::drain);
+            sink.onRequest(requested -> drain());
+            sink.onDispose(subscription::cancel);
+            drain();
+        }
+
+        // Whoever finds pending at zero drains, repeating while more signals arrived in the meantime
+        private void drain() {
+            if (subscription == null || pending.getAndIncrement() != 0) {
+                return;
+            }
+            do {
+                while (sink.requestedFromDownstream() > 0) {
+                    TodoChangeFeed.Entry entry = subscription.poll();
+                    if (entry == null) {
+                        break;
+                    }
+                    sink.next(toEvent(entry));
+                }
+                if (subscription.isEnded() && !subscription.hasQueued()) {
+                    sink.complete();
+                }
+            } while (pending.decrementAndGet() != 0);
+        }
+
+        private static ServerSentEvent<String> toEvent(TodoChangeFeed.Entry entry) {
+            if (entry == TodoChangeFeed.Entry.HEARTBEAT) {
+                return ServerSentEvent.<String>builder().comment("").build();
+            }
+            return ServerSentEvent.builder(entry.getData()).id(entry.getId()).event(entry.getName()).build();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.todolist.model;
+
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+/**
+ * A completed todo moved out of the live collection by the archiver. Archived todos are read-only and
+ * expire after {@code todo.archive.retention} through a TTL index on {@code archivedAt}.
+ */
+@Document(collection = "todos_archive")
+public class ArchivedTodo extends Todo {
+
+    private Date archivedAt;
+
+    public ArchivedTodo() {}
+
+    public ArchivedTodo(Todo todo, Date archivedAt) {
+        setId(todo.getId());
+        setTitle(todo.getTitle());
+        setDescription(todo.getDescription());
+        setCompleted(todo.isCompleted());
+        setDueDate(todo.getDueDate());
+        setPriority(todo.getPriority());
+        setVersion(todo.getVersion());
+        setLastModified(todo.getLastModified());
+        this.archivedAt = archivedAt;
+    }
+
+    public Date getArchivedAt() {
+        return archivedAt;
+    }
+
+    public void setArchivedAt(Date archivedAt) {
+        this.archivedAt = archivedAt;
+    }
+}
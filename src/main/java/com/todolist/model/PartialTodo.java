@@ -0,0 +1,62 @@
+package com.todolist.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+
+import java.io.IOException;
+
+/**
+ * A todo that serializes only the {@link TodoFields} it was read with, in the same form and order as
+ * the full {@link Todo}. Written straight to the generator, without going through bean introspection.
+ */
+public final class PartialTodo implements JsonSerializable {
+
+    private final Todo todo;
+    private final TodoFields fields;
+
+    PartialTodo(Todo todo, TodoFields fields) {
+        this.todo = todo;
+        this.fields = fields;
+    }
+
+    public Todo getTodo() {
+        return todo;
+    }
+
+    @Override
+    public void serialize(JsonGenerator generator, SerializerProvider serializers) throws IOException {
+        generator.writeStartObject();
+        if (fields.includes(TodoFields.ID)) {
+            generator.writeStringField("id", todo.getId());
+        }
+        if (fields.includes(TodoFields.TITLE)) {
+            generator.writeStringField("title", todo.getTitle());
+        }
+        if (fields.includes(TodoFields.DESCRIPTION)) {
+            generator.writeStringField("description", todo.getDescription());
+        }
+        if (fields.includes(TodoFields.COMPLETED)) {
+            generator.writeBooleanField("completed", todo.isCompleted());
+        }
+        if (fields.includes(TodoFields.DUE_DATE)) {
+            serializers.defaultSerializeField("dueDate", todo.getDueDate(), generator);
+        }
+        if (fields.includes(TodoFields.PRIORITY)) {
+            generator.writeStringField("priority", todo.getPriority());
+        }
+        if (fields.includes(TodoFields.VERSION)) {
+            serializers.defaultSerializeField("version", todo.getVersion(), generator);
+        }
+        if (fields.includes(TodoFields.LAST_MODIFIED)) {
+            serializers.defaultSerializeField("lastModified", todo.getLastModified(), generator);
+        }
+        generator.writeEndObject();
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator generator, SerializerProvider serializers, TypeSerializer typeSerializer) throws IOException {
+        serialize(generator, serializers);
+    }
+}
@@ -1,6 +1,9 @@
 package com.todolist.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
@@ -8,6 +11,12 @@ import jakarta.validation.constraints.Size;
 import java.util.Date;
 
 @Document(collection = "todos")
+@CompoundIndexes({
+        @CompoundIndex(name = "dueDate_id", def = "{'dueDate': 1, '_id': 1}"),
+        @CompoundIndex(name = "priority_id", def = "{'priority': 1, '_id': 1}"),
+        @CompoundIndex(name = "completed_priority_dueDate", def = "{'completed': 1, 'priority': 1, 'dueDate': 1}"),
+        @CompoundIndex(name = "lastModified_id", def = "{'lastModified': 1, '_id': 1}")
+})
 public class Todo {
     @Id
     private String id;
@@ -24,6 +33,12 @@ public class Todo {
     private Date dueDate;
     private String priority;
 
+    @Version
+    private Long version;
+
+    // Stamped by the server on every write; drives delta sync
+    private Date lastModified;
+
     public Todo(String title, String description, Date dueDate, String priority) {
         this.title = title;
         this.description = description;
@@ -81,4 +96,20 @@ public class Todo {
     public void setPriority(String priority) {
         this.priority = priority;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public Date getLastModified() {
+        return lastModified;
+    }
+
+    public void setLastModified(Date lastModified) {
+        this.lastModified = lastModified;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,48 @@
+package com.todolist.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public class TodoBulkOperation {
+
+    public enum Type {
+        @JsonProperty("create") CREATE,
+        @JsonProperty("update") UPDATE,
+        @JsonProperty("delete") DELETE
+    }
+
+    private Type op;
+    private String id;
+    private Todo todo;
+
+    public TodoBulkOperation() {}
+
+    public TodoBulkOperation(Type op, String id, Todo todo) {
+        this.op = op;
+        this.id = id;
+        this.todo = todo;
+    }
+
+    public Type getOp() {
+        return op;
+    }
+
+    public void setOp(Type op) {
+        this.op = op;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public Todo getTodo() {
+        return todo;
+    }
+
+    public void setTodo(Todo todo) {
+        this.todo = todo;
+    }
+}
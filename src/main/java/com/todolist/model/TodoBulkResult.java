@@ -0,0 +1,38 @@
+package com.todolist.model;
+
+public class TodoBulkResult {
+
+    private final int index;
+    private final TodoBulkOperation.Type op;
+    private final String id;
+    private final int status;
+    private final String error;
+
+    public TodoBulkResult(int index, TodoBulkOperation.Type op, String id, int status, String error) {
+        this.index = index;
+        this.op = op;
+        this.id = id;
+        this.status = status;
+        this.error = error;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public TodoBulkOperation.Type getOp() {
+        return op;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
@@ -0,0 +1,103 @@
+package com.todolist.model;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * One page of delta sync. Clients apply {@code deleted} and {@code archived} before {@code changed}: a todo
+ * only appears in {@code changed} while it exists, so an id in both was removed and then created again.
+ * {@code archived} lists todos moved to the archive, which are no longer live but can still be read with
+ * {@code includeArchived}. Changes may be delivered more than once and should be applied as upserts.
+ */
+public class TodoChanges {
+
+    private static final Comparator<Date> TIME_ORDER = Comparator.nullsFirst(Comparator.naturalOrder());
+
+    private final List<Todo> changed;
+    private final List<String> deleted;
+    private final List<String> archived;
+    private final boolean hasMore;
+    private final String nextToken;
+    private final boolean reset;
+
+    public TodoChanges(List<Todo> changed, List<String> deleted, List<String> archived, boolean hasMore,
+                       String nextToken, boolean reset) {
+        this.changed = changed;
+        this.deleted = deleted;
+        this.archived = archived;
+        this.hasMore = hasMore;
+        this.nextToken = nextToken;
+        this.reset = reset;
+    }
+
+    /**
+     * The token is older than the tombstones that are kept; the client has to sync again without one.
+     */
+    public static TodoChanges reset() {
+        return new TodoChanges(List.of(), List.of(), List.of(), false, null, true);
+    }
+
+    /**
+     * Merges todos and tombstones that each fetched up to {@code limit + 1} rows in sync order and
+     * keeps the first {@code limit}; anything left over means another page exists.
+     */
+    public static TodoChanges of(List<Todo> todos, List<TodoTombstone> tombstones, int limit, TodoSyncToken token) {
+        List<Todo> changed = new ArrayList<>();
+        List<String> deleted = new ArrayList<>();
+        List<String> archived = new ArrayList<>();
+        int t = 0;
+        int d = 0;
+        Date lastTime = null;
+        String lastId = null;
+        while (t + d < limit && (t < todos.size() || d < tombstones.size())) {
+            boolean takeTodo = d == tombstones.size() || (t < todos.size()
+                    && compare(todos.get(t).getLastModified(), todos.get(t).getId(),
+                            tombstones.get(d).getDeletedAt(), tombstones.get(d).getId()) <= 0);
+            if (takeTodo) {
+                Todo todo = todos.get(t++);
+                changed.add(todo);
+                lastTime = todo.getLastModified();
+                lastId = todo.getId();
+            } else {
+                TodoTombstone tombstone = tombstones.get(d++);
+                (tombstone.isArchived() ? archived : deleted).add(tombstone.getId());
+                lastTime = tombstone.getDeletedAt();
+                lastId = tombstone.getId();
+            }
+        }
+        boolean hasMore = t < todos.size() || d < tombstones.size();
+        TodoSyncToken next = hasMore ? token.after(lastTime, lastId) : token.nextPass();
+        return new TodoChanges(changed, deleted, archived, hasMore, next.encode(), false);
+    }
+
+    private static int compare(Date time, String id, Date otherTime, String otherId) {
+        int byTime = TIME_ORDER.compare(time, otherTime);
+        return byTime != 0 ? byTime : id.compareTo(otherId);
+    }
+
+    public List<Todo> getChanged() {
+        return changed;
+    }
+
+    public List<String> getDeleted() {
+        return deleted;
+    }
+
+    public List<String> getArchived() {
+        return archived;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public String getNextToken() {
+        return nextToken;
+    }
+
+    public boolean isReset() {
+        return reset;
+    }
+}
@@ -0,0 +1,127 @@
+package com.todolist.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.data.domain.Sort;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Set;
+
+public class TodoCursor {
+
+    public static final Set<String> SORT_FIELDS = Set.of("id", "dueDate", "priority");
+
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private String sort;
+    private Sort.Direction direction;
+    private Object lastValue;
+    private String lastId;
+
+    public TodoCursor() {}
+
+    private TodoCursor(String sort, Sort.Direction direction, Object lastValue, String lastId) {
+        this.sort = sort;
+        this.direction = direction;
+        this.lastValue = lastValue;
+        this.lastId = lastId;
+    }
+
+    /**
+     * Resumes from {@code token} when present, otherwise starts a new traversal ordered by
+     * {@code sort} and {@code direction}.
+     */
+    public static TodoCursor of(String sort, String direction, String token) {
+        return token != null ? decode(token) : first(sort, Sort.Direction.fromString(direction));
+    }
+
+    public static int clampSize(int size) {
+        return Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+    }
+
+    public static TodoCursor first(String sort, Sort.Direction direction) {
+        if (!SORT_FIELDS.contains(sort)) {
+            throw new IllegalArgumentException("Unsupported cursor sort field: " + sort);
+        }
+        return new TodoCursor(sort, direction, null, null);
+    }
+
+    public static TodoCursor decode(String token) {
+        TodoCursor cursor;
+        try {
+            cursor = MAPPER.readValue(Base64.getUrlDecoder().decode(token), TodoCursor.class);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor token", e);
+        }
+        if (!SORT_FIELDS.contains(cursor.sort) || cursor.direction == null || cursor.lastId == null) {
+            throw new IllegalArgumentException("Invalid cursor token");
+        }
+        return cursor;
+    }
+
+    public String encode() {
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(MAPPER.writeValueAsBytes(this));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public TodoCursor after(Todo todo) {
+        Object value = switch (sort) {
+            case "dueDate" -> todo.getDueDate() != null ? todo.getDueDate().getTime() : null;
+            case "priority" -> todo.getPriority();
+            default -> null;
+        };
+        return new TodoCursor(sort, direction, value, todo.getId());
+    }
+
+    @JsonIgnore
+    public boolean isFirst() {
+        return lastId == null;
+    }
+
+    public Object sortValue() {
+        if ("dueDate".equals(sort) && lastValue instanceof Number millis) {
+            return new Date(millis.longValue());
+        }
+        return lastValue;
+    }
+
+    public String getSort() {
+        return sort;
+    }
+
+    public void setSort(String sort) {
+        this.sort = sort;
+    }
+
+    public Sort.Direction getDirection() {
+        return direction;
+    }
+
+    public void setDirection(Sort.Direction direction) {
+        this.direction = direction;
+    }
+
+    public Object getLastValue() {
+        return lastValue;
+    }
+
+    public void setLastValue(Object lastValue) {
+        this.lastValue = lastValue;
+    }
+
+    public String getLastId() {
+        return lastId;
+    }
+
+    public void setLastId(String lastId) {
+        this.lastId = lastId;
+    }
+}
@@ -0,0 +1,86 @@
+package com.todolist.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The todo fields a list request asks for with {@code fields=}, for example {@code fields=title,completed}.
+ * The id is always included. Repositories read only the selected fields, and {@link #project(Todo)}
+ * wraps a todo so that only they are serialized.
+ */
+public final class TodoFields {
+
+    // In the order Todo serializes them; a field's bit is 1 shifted by its index
+    private static final List<String> NAMES = List.of(
+            "id", "title", "description", "completed", "dueDate", "priority", "version", "lastModified");
+
+    static final int ID = 1;
+    static final int TITLE = 1 << 1;
+    static final int DESCRIPTION = 1 << 2;
+    static final int COMPLETED = 1 << 3;
+    static final int DUE_DATE = 1 << 4;
+    static final int PRIORITY = 1 << 5;
+    static final int VERSION = 1 << 6;
+    static final int LAST_MODIFIED = 1 << 7;
+
+    private static final TodoFields ALL = new TodoFields((1 << NAMES.size()) - 1);
+
+    private final int mask;
+
+    private TodoFields(int mask) {
+        this.mask = mask;
+    }
+
+    public static TodoFields all() {
+        return ALL;
+    }
+
+    /**
+     * Parses a comma-separated list of field names.
+     *
+     * @throws IllegalArgumentException if a name is not a todo field
+     */
+    public static TodoFields of(String fields) {
+        int mask = ID;
+        for (String name : fields.split(",", -1)) {
+            int index = NAMES.indexOf(name.trim());
+            if (index < 0) {
+                throw new IllegalArgumentException("Unknown todo field: '" + name.trim() + "'");
+            }
+            mask |= 1 << index;
+        }
+        return new TodoFields(mask);
+    }
+
+    public boolean isAll() {
+        return mask == ALL.mask;
+    }
+
+    public List<String> names() {
+        List<String> names = new ArrayList<>(NAMES.size());
+        for (int i = 0; i < NAMES.size(); i++) {
+            if ((mask & 1 << i) != 0) {
+                names.add(NAMES.get(i));
+            }
+        }
+        return names;
+    }
+
+    public PartialTodo project(Todo todo) {
+        return new PartialTodo(todo, this);
+    }
+
+    boolean includes(int field) {
+        return (mask & field) != 0;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof TodoFields other && mask == other.mask;
+    }
+
+    @Override
+    public int hashCode() {
+        return mask;
+    }
+}
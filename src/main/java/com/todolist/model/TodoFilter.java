@@ -0,0 +1,103 @@
+package com.todolist.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.util.Date;
+import java.util.Objects;
+
+/**
+ * Optional list filters bound from query parameters. {@code dueFrom} is inclusive and {@code dueTo}
+ * exclusive, so consecutive ranges never overlap. Unset fields do not filter. Archived todos are only
+ * included with {@code includeArchived}, after all live ones.
+ */
+public class TodoFilter {
+
+    private Boolean completed;
+    private String priority;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private Date dueFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private Date dueTo;
+
+    private boolean includeArchived;
+
+    public TodoFilter() {}
+
+    public TodoFilter(Boolean completed, String priority, Date dueFrom, Date dueTo) {
+        this.completed = completed;
+        this.priority = priority;
+        this.dueFrom = dueFrom;
+        this.dueTo = dueTo;
+    }
+
+    public static TodoFilter none() {
+        return new TodoFilter();
+    }
+
+    @JsonIgnore
+    @AssertTrue(message = "dueFrom must not be after dueTo")
+    public boolean isDueRangeValid() {
+        return dueFrom == null || dueTo == null || !dueFrom.after(dueTo);
+    }
+
+    public Boolean getCompleted() {
+        return completed;
+    }
+
+    public void setCompleted(Boolean completed) {
+        this.completed = completed;
+    }
+
+    public String getPriority() {
+        return priority;
+    }
+
+    public void setPriority(String priority) {
+        this.priority = priority;
+    }
+
+    public Date getDueFrom() {
+        return dueFrom;
+    }
+
+    public void setDueFrom(Date dueFrom) {
+        this.dueFrom = dueFrom;
+    }
+
+    public Date getDueTo() {
+        return dueTo;
+    }
+
+    public void setDueTo(Date dueTo) {
+        this.dueTo = dueTo;
+    }
+
+    public boolean isIncludeArchived() {
+        return includeArchived;
+    }
+
+    public void setIncludeArchived(boolean includeArchived) {
+        this.includeArchived = includeArchived;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TodoFilter other)) {
+            return false;
+        }
+        return Objects.equals(completed, other.completed) && Objects.equals(priority, other.priority)
+                && Objects.equals(dueFrom, other.dueFrom) && Objects.equals(dueTo, other.dueTo) && includeArchived == other.includeArchived;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(completed, priority, dueFrom, dueTo, includeArchived);
+    }
+}
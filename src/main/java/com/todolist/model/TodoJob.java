@@ -0,0 +1,137 @@
+package com.todolist.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Date;
+
+/**
+ * A change applied in the background to every live todo matching a filter, a chunk at a time. The job's
+ * thread is the only writer; anyone may read its progress while it runs.
+ *
+ * <p>{@code total} is how many todos matched when the job started, {@code processed} how many of those it
+ * has got to so far, and {@code affected} how many it changed, which leaves out todos that stopped matching
+ * before their chunk was reached.
+ */
+public class TodoJob {
+
+    public enum Action {
+        @JsonProperty("complete") COMPLETE,
+        @JsonProperty("reprioritize") REPRIORITIZE,
+        @JsonProperty("delete") DELETE
+    }
+
+    public enum Status {
+        @JsonProperty("queued") QUEUED,
+        @JsonProperty("running") RUNNING,
+        @JsonProperty("succeeded") SUCCEEDED,
+        @JsonProperty("failed") FAILED,
+        @JsonProperty("cancelled") CANCELLED
+    }
+
+    private final String id;
+    private final Action action;
+    private final TodoFilter filter;
+    private final String priority;
+    private final Date createdAt;
+
+    private volatile Status status = Status.QUEUED;
+    private volatile boolean cancelRequested;
+    private volatile Long total;
+    private volatile long processed;
+    private volatile long affected;
+    private volatile Date startedAt;
+    private volatile Date finishedAt;
+    private volatile String error;
+
+    public TodoJob(String id, Action action, TodoFilter filter, String priority, Date createdAt) {
+        this.id = id;
+        this.action = action;
+        this.filter = filter;
+        this.priority = priority;
+        this.createdAt = createdAt;
+    }
+
+    public void start(long total) {
+        this.total = total;
+        this.startedAt = new Date();
+        this.status = Status.RUNNING;
+    }
+
+    public void progress(int processed, int affected) {
+        this.processed += processed;
+        this.affected += affected;
+    }
+
+    public void finish(Status status, String error) {
+        this.error = error;
+        this.finishedAt = new Date();
+        this.status = status;
+    }
+
+    /**
+     * Asks the job to stop before its next chunk; a queued job does not start. Returns false if it had
+     * already finished.
+     */
+    public boolean cancel() {
+        cancelRequested = true;
+        return !isFinished();
+    }
+
+    @JsonIgnore
+    public boolean isFinished() {
+        return status == Status.SUCCEEDED || status == Status.FAILED || status == Status.CANCELLED;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Action getAction() {
+        return action;
+    }
+
+    public TodoFilter getFilter() {
+        return filter;
+    }
+
+    public String getPriority() {
+        return priority;
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public boolean isCancelRequested() {
+        return cancelRequested;
+    }
+
+    public Long getTotal() {
+        return total;
+    }
+
+    public long getProcessed() {
+        return processed;
+    }
+
+    public long getAffected() {
+        return affected;
+    }
+
+    public Date getStartedAt() {
+        return startedAt;
+    }
+
+    public Date getFinishedAt() {
+        return finishedAt;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
@@ -0,0 +1,67 @@
+package com.todolist.model;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Body of {@code POST /api/v1/todos/jobs}. A missing filter matches every todo, which is only allowed for
+ * jobs that do not delete.
+ */
+public class TodoJobRequest {
+
+    @NotNull(message = "action is required")
+    private TodoJob.Action action;
+
+    @Valid
+    private TodoFilter filter;
+
+    private String priority;
+
+    public TodoJobRequest() {}
+
+    public TodoJobRequest(TodoJob.Action action, TodoFilter filter, String priority) {
+        this.action = action;
+        this.filter = filter;
+        this.priority = priority;
+    }
+
+    @AssertTrue(message = "priority is required to reprioritize")
+    public boolean isPriorityGiven() {
+        return action != TodoJob.Action.REPRIORITIZE || priority != null && !priority.isBlank();
+    }
+
+    @AssertTrue(message = "a delete job needs a filter")
+    public boolean isDeleteFiltered() {
+        return action != TodoJob.Action.DELETE || filter != null && !filter.equals(TodoFilter.none());
+    }
+
+    @AssertTrue(message = "jobs only change live todos")
+    public boolean isLiveOnly() {
+        return filter == null || !filter.isIncludeArchived();
+    }
+
+    public TodoJob.Action getAction() {
+        return action;
+    }
+
+    public void setAction(TodoJob.Action action) {
+        this.action = action;
+    }
+
+    public TodoFilter getFilter() {
+        return filter == null ? TodoFilter.none() : filter;
+    }
+
+    public void setFilter(TodoFilter filter) {
+        this.filter = filter;
+    }
+
+    public String getPriority() {
+        return priority;
+    }
+
+    public void setPriority(String priority) {
+        this.priority = priority;
+    }
+}
@@ -0,0 +1,43 @@
+package com.todolist.model;
+
+import java.util.List;
+
+public class TodoSlice {
+
+    private final List<Todo> content;
+    private final boolean hasNext;
+    private final String nextToken;
+
+    public TodoSlice(List<Todo> content, boolean hasNext, String nextToken) {
+        this.content = content;
+        this.hasNext = hasNext;
+        this.nextToken = nextToken;
+    }
+
+    /**
+     * Builds a slice from a keyset query that fetched up to {@code limit + 1} rows; the extra row
+     * only signals that another page exists.
+     */
+    public static TodoSlice of(List<Todo> fetched, int limit, TodoCursor cursor) {
+        boolean hasNext = fetched.size() > limit;
+        List<Todo> content = hasNext ? fetched.subList(0, limit) : fetched;
+        String nextToken = hasNext ? cursor.after(content.get(limit - 1)).encode() : null;
+        return new TodoSlice(content, hasNext, nextToken);
+    }
+
+    public List<Todo> getContent() {
+        return content;
+    }
+
+    public int getSize() {
+        return content.size();
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public String getNextToken() {
+        return nextToken;
+    }
+}
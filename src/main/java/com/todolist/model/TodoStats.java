@@ -0,0 +1,48 @@
+package com.todolist.model;
+
+import java.util.Map;
+
+/**
+ * Todo counts for dashboards. {@code overdue} and {@code dueToday} only count open todos and use
+ * calendar days, so a todo due later today is due today rather than overdue.
+ */
+public class TodoStats {
+
+    private final long total;
+    private final long completed;
+    private final Map<String, Long> byPriority;
+    private final long overdue;
+    private final long dueToday;
+
+    public TodoStats(long total, long completed, Map<String, Long> byPriority, long overdue, long dueToday) {
+        this.total = total;
+        this.completed = completed;
+        this.byPriority = byPriority;
+        this.overdue = overdue;
+        this.dueToday = dueToday;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public long getCompleted() {
+        return completed;
+    }
+
+    public long getOpen() {
+        return total - completed;
+    }
+
+    public Map<String, Long> getByPriority() {
+        return byPriority;
+    }
+
+    public long getOverdue() {
+        return overdue;
+    }
+
+    public long getDueToday() {
+        return dueToday;
+    }
+}
@@ -0,0 +1,140 @@
+package com.todolist.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.util.Base64;
+import java.util.Date;
+
+/**
+ * Position in the delta sync order of {@code (lastModified, id)}, shared by todos and tombstones.
+ *
+ * <p>A sync pass starts either from nothing ({@link #full()}, every todo and no tombstones) or from the
+ * time the previous pass handed out, and pages forward until it runs out of changes. Its last page hands
+ * out {@code resumeFrom}: the time the pass started, less an overlap, so that writes stamped just before
+ * the pass but committed after it read past them are picked up by the next one.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TodoSyncToken {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private boolean full;
+    private Long time;
+    private String lastId;
+    private Long resumeFrom;
+
+    public TodoSyncToken() {}
+
+    private TodoSyncToken(boolean full, Long time, String lastId, Long resumeFrom) {
+        this.full = full;
+        this.time = time;
+        this.lastId = lastId;
+        this.resumeFrom = resumeFrom;
+    }
+
+    public static TodoSyncToken full() {
+        return new TodoSyncToken(true, null, null, null);
+    }
+
+    /**
+     * Everything changed at or after {@code time}.
+     */
+    public static TodoSyncToken since(long time) {
+        return new TodoSyncToken(false, time, null, null);
+    }
+
+    public static TodoSyncToken of(String token) {
+        return token != null ? decode(token) : full();
+    }
+
+    public static TodoSyncToken decode(String token) {
+        TodoSyncToken decoded;
+        try {
+            decoded = MAPPER.readValue(Base64.getUrlDecoder().decode(token), TodoSyncToken.class);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid sync token", e);
+        }
+        if ((!decoded.full && decoded.time == null) || (decoded.lastId != null && decoded.resumeFrom == null)) {
+            throw new IllegalArgumentException("Invalid sync token");
+        }
+        return decoded;
+    }
+
+    public String encode() {
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(MAPPER.writeValueAsBytes(this));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Starts a pass at {@code resumeFrom} unless this token continues one.
+     */
+    public TodoSyncToken startingPass(long resumeFrom) {
+        return this.resumeFrom != null ? this : new TodoSyncToken(full, time, lastId, resumeFrom);
+    }
+
+    /**
+     * Continues this pass after the given change.
+     */
+    public TodoSyncToken after(Date time, String id) {
+        return new TodoSyncToken(full, time == null ? null : time.getTime(), id, resumeFrom);
+    }
+
+    public TodoSyncToken nextPass() {
+        return since(resumeFrom);
+    }
+
+    /**
+     * Whether the pass starts before {@code oldestKept}, so tombstones it needs may already be gone.
+     */
+    public boolean isExpired(long oldestKept) {
+        return !full && time < oldestKept;
+    }
+
+    @JsonIgnore
+    public boolean isFirstPage() {
+        return lastId == null;
+    }
+
+    @JsonIgnore
+    public Date getTimeAsDate() {
+        return time == null ? null : new Date(time);
+    }
+
+    public boolean isFull() {
+        return full;
+    }
+
+    public void setFull(boolean full) {
+        this.full = full;
+    }
+
+    public Long getTime() {
+        return time;
+    }
+
+    public void setTime(Long time) {
+        this.time = time;
+    }
+
+    public String getLastId() {
+        return lastId;
+    }
+
+    public void setLastId(String lastId) {
+        this.lastId = lastId;
+    }
+
+    public Long getResumeFrom() {
+        return resumeFrom;
+    }
+
+    public void setResumeFrom(Long resumeFrom) {
+        this.resumeFrom = resumeFrom;
+    }
+}
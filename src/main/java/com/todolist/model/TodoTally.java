@@ -0,0 +1,37 @@
+package com.todolist.model;
+
+import java.time.LocalDate;
+
+/**
+ * Number of todos sharing a priority, completion state and due day, as counted by Mongo.
+ */
+public class TodoTally {
+
+    private final String priority;
+    private final boolean completed;
+    private final LocalDate dueDay;
+    private final long count;
+
+    public TodoTally(String priority, boolean completed, LocalDate dueDay, long count) {
+        this.priority = priority;
+        this.completed = completed;
+        this.dueDay = dueDay;
+        this.count = count;
+    }
+
+    public String getPriority() {
+        return priority;
+    }
+
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    public LocalDate getDueDay() {
+        return dueDay;
+    }
+
+    public long getCount() {
+        return count;
+    }
+}
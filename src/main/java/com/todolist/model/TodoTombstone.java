@@ -0,0 +1,52 @@
+package com.todolist.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.PersistenceCreator;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+/**
+ * Records that a todo left the live collection, deleted or archived, so delta sync can tell clients about it.
+ * Tombstones expire after {@code todo.sync.tombstone-retention} through a TTL index on {@code deletedAt}.
+ */
+@Document(collection = "todo_tombstones")
+public class TodoTombstone {
+
+    public static final String ARCHIVED = "archived";
+
+    @Id
+    private final String id;
+
+    private final Date deletedAt;
+
+    // ARCHIVED when the archiver moved the todo, null when it was deleted
+    private final String reason;
+
+    public TodoTombstone(String id, Date deletedAt) {
+        this(id, deletedAt, null);
+    }
+
+    @PersistenceCreator
+    public TodoTombstone(String id, Date deletedAt, String reason) {
+        this.id = id;
+        this.deletedAt = deletedAt;
+        this.reason = reason;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Date getDeletedAt() {
+        return deletedAt;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public boolean isArchived() {
+        return ARCHIVED.equals(reason);
+    }
+}
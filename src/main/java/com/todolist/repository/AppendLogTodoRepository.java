@@ -0,0 +1,534 @@
+package com.todolist.repository;
+
+import com.todolist.model.Todo;
+import com.todolist.model.TodoTombstone;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Embedded storage for deployments without MongoDB. Every write is appended to a memory-mapped log file
+ * and an in-memory index maps each id to the offset of its latest record. Reads decode straight from the
+ * mapping, so serving them never touches the file system.
+ *
+ * <p>On open the log is replayed to rebuild the index. Replay only reads record ids, and stops at the
+ * first record that is cut short or fails its checksum, which is where a crash mid-write leaves the log.
+ * {@link #compact()} copies the live records, and the tombstones still within retention, into a fresh
+ * file and swaps it in; {@link #compactIfWasteful()} does so once enough of the log is dead records.
+ *
+ * <p>Writes are serialized and reads are lock-free. A log holds at most 2 GB, the size of one mapping.
+ * Records reach the page cache immediately, which survives a crash of the process; set {@code fsync} to
+ * also survive a crash of the machine, at the cost of a disk flush per write.
+ */
+public class AppendLogTodoRepository extends KeyValueTodoRepository implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(AppendLogTodoRepository.class);
+
+    private static final long MAGIC = 0x544f444f4c4f4731L; // "TODOLOG1"
+    private static final int HEADER_SIZE = 8;
+    // Body length, then the CRC32 of the body; the body starts with the record type
+    private static final int RECORD_HEADER_SIZE = 8;
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+    private static final long NO_TIME = Long.MIN_VALUE;
+    private static final int INITIAL_CAPACITY = 1 << 20;
+    private static final long MIN_GARBAGE_TO_COMPACT = 1 << 20;
+
+    private final Path path;
+    private final Duration tombstoneRetention;
+    private final double compactionGarbageRatio;
+    private final boolean fsync;
+    private final Object writeLock = new Object();
+    private volatile Segment segment;
+    private boolean closed;
+
+    private AppendLogTodoRepository(Path path, Duration tombstoneRetention, double compactionGarbageRatio, boolean fsync) {
+        this.path = path;
+        this.tombstoneRetention = tombstoneRetention;
+        this.compactionGarbageRatio = compactionGarbageRatio;
+        this.fsync = fsync;
+    }
+
+    /**
+     * Opens the log at {@code path}, creating it if needed, and replays it.
+     *
+     * @param compactionGarbageRatio fraction of the log that has to be dead records before
+     *                               {@link #compactIfWasteful()} compacts it
+     */
+    public static AppendLogTodoRepository open(Path path, Duration tombstoneRetention, double compactionGarbageRatio,
+                                               boolean fsync) throws IOException {
+        AppendLogTodoRepository repository = new AppendLogTodoRepository(path, tombstoneRetention, compactionGarbageRatio, fsync);
+        if (path.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(path.toAbsolutePath().getParent());
+        }
+        // Left behind by a compaction that did not finish; the log itself is still intact
+        Files.deleteIfExists(compactionFile(path));
+        long started = System.nanoTime();
+        repository.segment = Segment.replay(FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE), path);
+        log.info("Replayed {} todos and {} tombstones from {} in {} ms", repository.segment.index.size(),
+                repository.segment.tombstones.size(), path, (System.nanoTime() - started) / 1_000_000);
+        return repository;
+    }
+
+    @Override
+    protected Todo load(String id) {
+        Segment current = segment;
+        Integer offset = current.index.get(id);
+        return offset == null ? null : current.decode(offset);
+    }
+
+    @Override
+    protected Stream<Todo> loadAll(String afterId, boolean descending) {
+        Segment current = segment;
+        ConcurrentNavigableMap<String, Integer> view = descending ? current.index.descendingMap() : current.index;
+        return (afterId == null ? view : view.tailMap(afterId, false)).values().stream().map(current::decode);
+    }
+
+    @Override
+    protected boolean contains(String id) {
+        return segment.index.containsKey(id);
+    }
+
+    @Override
+    protected long size() {
+        return segment.index.size();
+    }
+
+    @Override
+    protected boolean storeIfAbsent(Todo todo) {
+        synchronized (writeLock) {
+            if (segment.index.containsKey(todo.getId())) {
+                return false;
+            }
+            put(todo);
+            return true;
+        }
+    }
+
+    @Override
+    protected Todo update(String id, UnaryOperator<Todo> change) {
+        synchronized (writeLock) {
+            Integer offset = segment.index.get(id);
+            if (offset == null) {
+                return null;
+            }
+            Todo updated = change.apply(segment.decode(offset));
+            if (updated == null) {
+                return null;
+            }
+            put(updated);
+            return updated;
+        }
+    }
+
+    @Override
+    protected boolean remove(String id, boolean tombstone) {
+        synchronized (writeLock) {
+            Segment current = segment;
+            if (!current.index.containsKey(id)) {
+                return false;
+            }
+            long deletedAt = tombstone ? System.currentTimeMillis() : NO_TIME;
+            int offset = append(encodeDelete(id, deletedAt));
+            current.drop(current.index.remove(id));
+            if (tombstone) {
+                current.keepTombstone(id, deletedAt, offset);
+            }
+            return true;
+        }
+    }
+
+    @Override
+    protected boolean removeIf(String id, Predicate<Todo> condition) {
+        synchronized (writeLock) {
+            Integer offset = segment.index.get(id);
+            return offset != null && condition.test(segment.decode(offset)) && remove(id, true);
+        }
+    }
+
+    @Override
+    protected Stream<TodoTombstone> tombstones() {
+        return segment.tombstones.entrySet().stream()
+                .map(entry -> new TodoTombstone(entry.getKey(), new Date(entry.getValue().deletedAt)));
+    }
+
+    /**
+     * Compacts the log once dead records make up more than the configured fraction of it.
+     */
+    @Scheduled(fixedDelayString = "${todo.embedded.compaction-check-interval:1m}")
+    public void compactIfWasteful() throws IOException {
+        long garbage;
+        long length;
+        synchronized (writeLock) {
+            garbage = getGarbageBytes();
+            length = segment.end;
+        }
+        if (garbage >= MIN_GARBAGE_TO_COMPACT && garbage > length * compactionGarbageRatio) {
+            compact();
+        }
+    }
+
+    /**
+     * Rewrites the log with only the latest record of every todo and the tombstones still within retention.
+     * Writes wait for the compaction; reads carry on against the old log until the new one is swapped in.
+     */
+    public void compact() throws IOException {
+        synchronized (writeLock) {
+            ensureOpen();
+            Segment old = segment;
+            long before = old.end;
+            long keepTombstonesAfter = System.currentTimeMillis() - tombstoneRetention.toMillis();
+            Path target = compactionFile(path);
+            FileChannel channel = FileChannel.open(target,
+                    StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            Segment fresh = Segment.create(channel, (int) Math.min(Integer.MAX_VALUE,
+                    Math.max(INITIAL_CAPACITY, HEADER_SIZE + old.liveBytes + old.liveBytes / 4)));
+            try {
+                for (Map.Entry<String, Integer> entry : old.index.entrySet()) {
+                    int offset = fresh.copyRecord(old, entry.getValue());
+                    fresh.index.put(entry.getKey(), offset);
+                    fresh.liveBytes += fresh.recordSize(offset);
+                }
+                for (Map.Entry<String, Tombstone> entry : old.tombstones.entrySet()) {
+                    if (entry.getValue().deletedAt > keepTombstonesAfter) {
+                        fresh.keepTombstone(entry.getKey(), entry.getValue().deletedAt,
+                                fresh.copyRecord(old, entry.getValue().offset));
+                    }
+                }
+                fresh.buffer.force();
+            } catch (RuntimeException e) {
+                channel.close();
+                Files.deleteIfExists(target);
+                throw e;
+            }
+            Files.move(target, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            segment = fresh;
+            // The old mapping stays valid for reads still walking it
+            old.channel.close();
+            log.info("Compacted {} from {} to {} bytes", path, before, fresh.end);
+        }
+    }
+
+    /**
+     * Bytes of the log taken up by overwritten and deleted todos and by expired tombstones.
+     */
+    public long getGarbageBytes() {
+        Segment current = segment;
+        return current.end - HEADER_SIZE - current.liveBytes;
+    }
+
+    public long getLogBytes() {
+        return segment.end;
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (writeLock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            segment.buffer.force();
+            segment.channel.close();
+        }
+    }
+
+    private void put(Todo todo) {
+        Segment current = segment;
+        int offset = append(encodePut(todo));
+        current.drop(current.index.put(todo.getId(), offset));
+        current.liveBytes += current.recordSize(offset);
+    }
+
+    // Called with the write lock held
+    private int append(byte[] body) {
+        ensureOpen();
+        Segment current = segment;
+        int size = RECORD_HEADER_SIZE + body.length;
+        current.ensureCapacity(size);
+        int offset = current.end;
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        MappedByteBuffer buffer = current.buffer;
+        buffer.put(offset + RECORD_HEADER_SIZE, body);
+        buffer.putInt(offset + 4, (int) crc.getValue());
+        // The length goes in last; until it is non-zero the record does not exist
+        buffer.putInt(offset, body.length);
+        if (fsync) {
+            buffer.force(offset, size);
+        }
+        current.end += size;
+        return offset;
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Todo log is closed: " + path);
+        }
+    }
+
+    private static Path compactionFile(Path path) {
+        return path.resolveSibling(path.getFileName() + ".compacting");
+    }
+
+    private static byte[] encodePut(Todo todo) {
+        byte[] id = utf8(todo.getId());
+        byte[] title = utf8(todo.getTitle());
+        byte[] description = utf8(todo.getDescription());
+        byte[] priority = utf8(todo.getPriority());
+        ByteBuffer body = ByteBuffer.allocate(1 + 4 * 4 + length(id) + length(title) + length(description)
+                + length(priority) + 1 + 3 * 8);
+        body.put(PUT);
+        putString(body, id);
+        putString(body, title);
+        putString(body, description);
+        putString(body, priority);
+        body.put((byte) (todo.isCompleted() ? 1 : 0));
+        body.putLong(todo.getDueDate() == null ? NO_TIME : todo.getDueDate().getTime());
+        body.putLong(todo.getVersion() == null ? NO_TIME : todo.getVersion());
+        body.putLong(todo.getLastModified() == null ? NO_TIME : todo.getLastModified().getTime());
+        return body.array();
+    }
+
+    private static byte[] encodeDelete(String id, long deletedAt) {
+        byte[] idBytes = utf8(id);
+        ByteBuffer body = ByteBuffer.allocate(1 + 4 + idBytes.length + 8);
+        body.put(DELETE);
+        putString(body, idBytes);
+        body.putLong(deletedAt);
+        return body.array();
+    }
+
+    private static byte[] utf8(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int length(byte[] bytes) {
+        return bytes == null ? 0 : bytes.length;
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] bytes) {
+        buffer.putInt(bytes == null ? -1 : bytes.length);
+        if (bytes != null) {
+            buffer.put(bytes);
+        }
+    }
+
+    private static final class Tombstone {
+
+        private final long deletedAt;
+        private final int offset;
+
+        private Tombstone(long deletedAt, int offset) {
+            this.deletedAt = deletedAt;
+            this.offset = offset;
+        }
+    }
+
+    /**
+     * One log file: its mapping, the index into it and how much of it is live. Compaction replaces the
+     * whole segment, so a reader that takes the segment once sees offsets and mapping that belong together.
+     */
+    private static final class Segment {
+
+        private final FileChannel channel;
+        private final ConcurrentSkipListMap<String, Integer> index = new ConcurrentSkipListMap<>();
+        private final Map<String, Tombstone> tombstones = new ConcurrentHashMap<>();
+        // Grows by remapping; offsets stay valid because every mapping starts at the beginning of the file
+        private volatile MappedByteBuffer buffer;
+        // Guarded by the write lock once the segment is in use
+        private int end;
+        private long liveBytes;
+
+        private Segment(FileChannel channel, MappedByteBuffer buffer) {
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        static Segment create(FileChannel channel, int capacity) throws IOException {
+            Segment segment = new Segment(channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity));
+            segment.buffer.putLong(0, MAGIC);
+            segment.end = HEADER_SIZE;
+            return segment;
+        }
+
+        static Segment replay(FileChannel channel, Path path) throws IOException {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Todo log is larger than 2 GB: " + path);
+            }
+            if (size < HEADER_SIZE) {
+                return create(channel, INITIAL_CAPACITY);
+            }
+            Segment segment = new Segment(channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+            MappedByteBuffer buffer = segment.buffer;
+            if (buffer.getLong(0) != MAGIC) {
+                throw new IllegalStateException("Not a todo log: " + path);
+            }
+            int capacity = buffer.capacity();
+            int position = HEADER_SIZE;
+            while (position <= capacity - RECORD_HEADER_SIZE) {
+                int length = buffer.getInt(position);
+                if (length == 0) {
+                    break;
+                }
+                if (length < 0 || length > capacity - position - RECORD_HEADER_SIZE || !segment.checksumMatches(position, length)) {
+                    log.warn("Discarding {} from offset {}: the record there is incomplete or corrupt", path, position);
+                    for (int i = position; i < capacity; i++) {
+                        buffer.put(i, (byte) 0);
+                    }
+                    break;
+                }
+                segment.apply(position);
+                position += RECORD_HEADER_SIZE + length;
+            }
+            segment.end = position;
+            return segment;
+        }
+
+        void ensureCapacity(int recordSize) {
+            long needed = (long) end + recordSize;
+            int capacity = buffer.capacity();
+            if (needed <= capacity) {
+                return;
+            }
+            if (needed > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Todo log is full at 2 GB; it needs compacting");
+            }
+            long grown = Math.min(Integer.MAX_VALUE, Math.max(needed, 2L * capacity));
+            try {
+                buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, grown);
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not grow the todo log", e);
+            }
+        }
+
+        int recordSize(int offset) {
+            return RECORD_HEADER_SIZE + buffer.getInt(offset);
+        }
+
+        // Takes a record that is no longer reachable out of the live bytes
+        void drop(Integer offset) {
+            if (offset != null) {
+                liveBytes -= recordSize(offset);
+            }
+        }
+
+        void keepTombstone(String id, long deletedAt, int offset) {
+            Tombstone previous = tombstones.put(id, new Tombstone(deletedAt, offset));
+            if (previous != null) {
+                drop(previous.offset);
+            }
+            liveBytes += recordSize(offset);
+        }
+
+        int copyRecord(Segment from, int offset) {
+            int size = from.recordSize(offset);
+            byte[] record = new byte[size];
+            from.buffer.get(offset, record);
+            ensureCapacity(size);
+            int copiedTo = end;
+            buffer.put(copiedTo, record);
+            end += size;
+            return copiedTo;
+        }
+
+        Todo decode(int offset) {
+            Reader reader = new Reader(buffer, offset + RECORD_HEADER_SIZE + 1);
+            Todo todo = new Todo();
+            todo.setId(reader.string());
+            todo.setTitle(reader.string());
+            todo.setDescription(reader.string());
+            todo.setPriority(reader.string());
+            todo.setCompleted(reader.bite() == 1);
+            todo.setDueDate(reader.date());
+            long version = reader.time();
+            todo.setVersion(version == NO_TIME ? null : version);
+            todo.setLastModified(reader.date());
+            return todo;
+        }
+
+        private boolean checksumMatches(int position, int length) {
+            CRC32 crc = new CRC32();
+            crc.update(buffer.slice(position + RECORD_HEADER_SIZE, length));
+            return (int) crc.getValue() == buffer.getInt(position + 4);
+        }
+
+        // Replay only needs each record's id, which comes first, so the rest is never decoded
+        private void apply(int offset) {
+            Reader reader = new Reader(buffer, offset + RECORD_HEADER_SIZE);
+            byte type = reader.bite();
+            String id = reader.string();
+            if (type == PUT) {
+                drop(index.put(id, offset));
+                liveBytes += recordSize(offset);
+            } else if (type == DELETE) {
+                drop(index.remove(id));
+                long deletedAt = reader.time();
+                if (deletedAt != NO_TIME) {
+                    keepTombstone(id, deletedAt, offset);
+                }
+            }
+        }
+    }
+
+    private static final class Reader {
+
+        private final ByteBuffer buffer;
+        private int position;
+
+        Reader(ByteBuffer buffer, int position) {
+            this.buffer = buffer;
+            this.position = position;
+        }
+
+        byte bite() {
+            return buffer.get(position++);
+        }
+
+        long time() {
+            long value = buffer.getLong(position);
+            position += 8;
+            return value;
+        }
+
+        Date date() {
+            long time = time();
+            return time == NO_TIME ? null : new Date(time);
+        }
+
+        String string() {
+            int length = buffer.getInt(position);
+            position += 4;
+            if (length < 0) {
+                return null;
+            }
+            byte[] bytes = new byte[length];
+            buffer.get(position, bytes);
+            position += length;
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,687 @@
+package com.todolist.repository;
+
+import com.todolist.model.Todo;
+import com.todolist.model.TodoCursor;
+import com.todolist.model.TodoFields;
+import com.todolist.model.TodoFilter;
+import com.todolist.model.TodoSyncToken;
+import com.todolist.model.TodoTally;
+import com.todolist.model.TodoTombstone;
+import org.bson.types.ObjectId;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.repository.query.FluentQuery;
+import org.springframework.data.support.ExampleMatcherAccessor;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * {@link TodoRepository} over any store that can look todos up by id and walk them in id order. Filters,
+ * sorting and aggregation are evaluated in memory, so every query beyond an id lookup is a full scan.
+ * Query by example is evaluated the same way, and there is no archive: nothing is archived, and reads
+ * that include archived todos return only live ones.
+ *
+ * <p>Todos returned by the {@code load} methods belong to the caller; {@code store} must not keep a
+ * reference to the instance it is given.
+ */
+public abstract class KeyValueTodoRepository implements TodoRepository {
+
+    private static final List<String> EXAMPLE_FIELDS =
+            List.of("id", "title", "description", "completed", "dueDate", "priority", "version", "lastModified");
+
+    protected abstract Todo load(String id);
+
+    /**
+     * Todos in id order, after {@code afterId} when it is not {@code null}.
+     */
+    protected abstract Stream<Todo> loadAll(String afterId, boolean descending);
+
+    protected abstract boolean contains(String id);
+
+    protected abstract long size();
+
+    /**
+     * Stores the todo unless its id is taken; returns whether it was stored.
+     */
+    protected abstract boolean storeIfAbsent(Todo todo);
+
+    /**
+     * Atomically replaces the todo with {@code change} applied to it. A {@code null} from {@code change}
+     * leaves the todo as it was. Returns what was stored, or {@code null} if nothing was.
+     */
+    protected abstract Todo update(String id, UnaryOperator<Todo> change);
+
+    /**
+     * Removes the todo, leaving a tombstone when asked to; returns whether it existed.
+     */
+    protected abstract boolean remove(String id, boolean tombstone);
+
+    /**
+     * Removes the todo, leaving a tombstone, if it exists and matches the condition, checked and removed as one
+     * step against concurrent writes; returns whether it was removed.
+     */
+    protected abstract boolean removeIf(String id, Predicate<Todo> condition);
+
+    protected abstract Stream<TodoTombstone> tombstones();
+
+    @Override
+    public <S extends Todo> S save(S todo) {
+        if (todo.getVersion() == null) {
+            if (todo.getId() == null) {
+                todo.setId(new ObjectId().toHexString());
+            }
+            todo.setVersion(0L);
+            if (!storeIfAbsent(todo)) {
+                todo.setVersion(null);
+                throw new DuplicateKeyException("Duplicate id: " + todo.getId());
+            }
+            return todo;
+        }
+        long expected = todo.getVersion();
+        Todo saved = update(todo.getId(), current -> {
+            if (!Objects.equals(current.getVersion(), expected)) {
+                return null;
+            }
+            Todo next = copy(todo);
+            next.setVersion(expected + 1);
+            return next;
+        });
+        if (saved == null) {
+            throw new OptimisticLockingFailureException("Task was modified concurrently, ID: " + todo.getId());
+        }
+        todo.setVersion(saved.getVersion());
+        return todo;
+    }
+
+    @Override
+    public <S extends Todo> List<S> saveAll(Iterable<S> entities) {
+        List<S> saved = new ArrayList<>();
+        entities.forEach(todo -> saved.add(save(todo)));
+        return saved;
+    }
+
+    @Override
+    public <S extends Todo> S insert(S todo) {
+        todo.setVersion(null);
+        return save(todo);
+    }
+
+    @Override
+    public <S extends Todo> List<S> insert(Iterable<S> entities) {
+        List<S> inserted = new ArrayList<>();
+        entities.forEach(todo -> inserted.add(insert(todo)));
+        return inserted;
+    }
+
+    @Override
+    public Optional<Todo> findById(String id) {
+        return Optional.ofNullable(load(id));
+    }
+
+    @Override
+    public boolean existsById(String id) {
+        return contains(id);
+    }
+
+    @Override
+    public List<Todo> findAll() {
+        return loadAll(null, false).collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Todo> findAllById(Iterable<String> ids) {
+        return StreamSupport.stream(ids.spliterator(), false)
+                .map(this::load)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Todo> findAll(Sort sort) {
+        return ordered(sort).collect(Collectors.toList());
+    }
+
+    @Override
+    public Page<Todo> findAll(Pageable pageable) {
+        List<Todo> content = ordered(pageable.getSort())
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .collect(Collectors.toList());
+        return new PageImpl<>(content, pageable, size());
+    }
+
+    @Override
+    public long count() {
+        return size();
+    }
+
+    @Override
+    public void deleteById(String id) {
+        remove(id, false);
+    }
+
+    @Override
+    public void delete(Todo todo) {
+        remove(todo.getId(), false);
+    }
+
+    @Override
+    public void deleteAllById(Iterable<? extends String> ids) {
+        ids.forEach(this::deleteById);
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends Todo> entities) {
+        entities.forEach(this::delete);
+    }
+
+    @Override
+    public void deleteAll() {
+        loadAll(null, false).map(Todo::getId).toList().forEach(this::deleteById);
+    }
+
+    @Override
+    public long removeWithTombstone(String id) {
+        return remove(id, true) ? 1 : 0;
+    }
+
+    @Override
+    public List<Todo> findChangedSince(TodoSyncToken token, int limit) {
+        Comparator<Todo> order = Comparator.comparing(Todo::getLastModified, Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparing(Todo::getId);
+        Todo position = new Todo();
+        position.setLastModified(token.getTimeAsDate());
+        position.setId(token.isFirstPage() ? "" : token.getLastId());
+        return loadAll(null, false)
+                .filter(todo -> token.isFull() || todo.getLastModified() != null)
+                .filter(todo -> (token.isFull() && token.isFirstPage()) || isPast(order.compare(todo, position), token))
+                .sorted(order)
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<TodoTombstone> findDeletedSince(TodoSyncToken token, int limit) {
+        Comparator<TodoTombstone> order = Comparator.comparing(TodoTombstone::getDeletedAt).thenComparing(TodoTombstone::getId);
+        TodoTombstone position = new TodoTombstone(token.isFirstPage() ? "" : token.getLastId(), token.getTimeAsDate());
+        return tombstones()
+                .filter(tombstone -> isPast(order.compare(tombstone, position), token))
+                .sorted(order)
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public Stream<Todo> streamAll(TodoFilter filter, int batchSize) {
+        return loadAll(null, false).filter(matching(filter));
+    }
+
+    @Override
+    public Stream<Todo> streamDueBetween(Date from, Date to, int batchSize) {
+        return loadAll(null, false)
+                .filter(todo -> !todo.isCompleted() && todo.getDueDate() != null
+                        && !todo.getDueDate().before(from) && todo.getDueDate().before(to))
+                .sorted(Comparator.comparing(Todo::getDueDate).thenComparing(Todo::getId));
+    }
+
+    @Override
+    public List<Todo> findAll(TodoFilter filter) {
+        return streamAll(filter, 0).collect(Collectors.toList());
+    }
+
+    // The todos are in memory already, so a projection would save nothing until they are serialized
+    @Override
+    public Stream<Todo> streamAll(TodoFilter filter, TodoFields fields, int batchSize) {
+        return streamAll(filter, batchSize);
+    }
+
+    @Override
+    public List<Todo> findAll(TodoFilter filter, TodoFields fields) {
+        return findAll(filter);
+    }
+
+    @Override
+    public Page<Todo> findAll(TodoFilter filter, TodoFields fields, Pageable pageable) {
+        return findAll(filter, pageable);
+    }
+
+    @Override
+    public Page<Todo> findAll(TodoFilter filter, Pageable pageable) {
+        Predicate<Todo> matching = matching(filter);
+        List<Todo> content = ordered(pageable.getSort())
+                .filter(matching)
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .collect(Collectors.toList());
+        return PageableExecutionUtils.getPage(content, pageable, () -> loadAll(null, false).filter(matching).count());
+    }
+
+    @Override
+    public long count(TodoFilter filter) {
+        return loadAll(null, false).filter(matching(filter)).count();
+    }
+
+    @Override
+    public List<Todo> findAfter(TodoCursor cursor, int limit) {
+        if ("id".equals(cursor.getSort())) {
+            // The store is already in id order, so a keyset page is just a walk past the last id
+            return loadAll(cursor.getLastId(), !cursor.getDirection().isAscending())
+                    .limit(limit)
+                    .collect(Collectors.toList());
+        }
+        Comparator<Todo> order = comparator(Sort.by(cursor.getDirection(), cursor.getSort(), "id"));
+        Todo after = null;
+        if (!cursor.isFirst()) {
+            after = new Todo();
+            after.setId(cursor.getLastId());
+            if ("dueDate".equals(cursor.getSort())) {
+                after.setDueDate((Date) cursor.sortValue());
+            } else if ("priority".equals(cursor.getSort())) {
+                after.setPriority((String) cursor.sortValue());
+            }
+        }
+        Todo last = after;
+        return loadAll(null, false)
+                .filter(todo -> last == null || order.compare(todo, last) > 0)
+                .sorted(order)
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public Optional<Todo> findArchivedById(String id) {
+        return Optional.empty();
+    }
+
+    @Override
+    public List<String> archiveCompleted(Date completedBefore, int limit) {
+        return List.of();
+    }
+
+    @Override
+    public Todo replace(String id, Todo todo) {
+        Map<String, Object> fields = new HashMap<>();
+        fields.put("title", todo.getTitle());
+        fields.put("description", todo.getDescription());
+        fields.put("completed", todo.isCompleted());
+        fields.put("dueDate", todo.getDueDate());
+        fields.put("priority", todo.getPriority());
+        return patch(id, fields, todo.getVersion());
+    }
+
+    @Override
+    public List<Todo> replaceAll(List<Todo> todos) {
+        List<Todo> replaced = new ArrayList<>();
+        for (Todo todo : todos) {
+            Todo stored = replace(todo.getId(), todo);
+            if (stored != null) {
+                replaced.add(stored);
+            }
+        }
+        return replaced;
+    }
+
+    @Override
+    public Todo patch(String id, Map<String, Object> changes, Long expectedVersion) {
+        return update(id, current -> {
+            if (expectedVersion != null && !expectedVersion.equals(current.getVersion())) {
+                return null;
+            }
+            changes.forEach((field, value) -> apply(current, field, value));
+            current.setLastModified(new Date());
+            current.setVersion(current.getVersion() == null ? 1L : current.getVersion() + 1);
+            return current;
+        });
+    }
+
+    @Override
+    public Set<String> findExistingIds(Collection<String> ids) {
+        Set<String> existing = new HashSet<>();
+        for (String id : ids) {
+            if (contains(id)) {
+                existing.add(id);
+            }
+        }
+        return existing;
+    }
+
+    @Override
+    public List<String> findIdsMatching(TodoFilter filter, String afterId, int limit) {
+        return loadAll(afterId, false)
+                .filter(matching(filter))
+                .limit(limit)
+                .map(Todo::getId)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Todo> updateMatching(Collection<String> ids, TodoFilter filter, Map<String, Object> changes) {
+        Predicate<Todo> matching = matching(filter);
+        Date lastModified = new Date();
+        List<Todo> updated = new ArrayList<>();
+        for (String id : ids) {
+            Todo todo = update(id, current -> {
+                if (!matching.test(current)) {
+                    return null;
+                }
+                changes.forEach((field, value) -> apply(current, field, value));
+                current.setLastModified(lastModified);
+                current.setVersion(current.getVersion() == null ? 1L : current.getVersion() + 1);
+                return current;
+            });
+            if (todo != null) {
+                updated.add(todo);
+            }
+        }
+        return updated;
+    }
+
+    @Override
+    public List<String> removeMatching(Collection<String> ids, TodoFilter filter) {
+        Predicate<Todo> matching = matching(filter);
+        List<String> removed = new ArrayList<>();
+        for (String id : ids) {
+            if (removeIf(id, matching)) {
+                removed.add(id);
+            }
+        }
+        return removed;
+    }
+
+    @Override
+    public Map<Integer, String> insertAll(List<Todo> todos) {
+        Map<Integer, String> errors = new HashMap<>();
+        for (int i = 0; i < todos.size(); i++) {
+            if (!storeIfAbsent(todos.get(i))) {
+                errors.put(i, "duplicate key: " + todos.get(i).getId());
+            }
+        }
+        return errors;
+    }
+
+    @Override
+    public List<TodoTally> tally(ZoneId zone) {
+        Map<List<Object>, Long> counts = new HashMap<>();
+        loadAll(null, false).forEach(todo -> {
+            LocalDate dueDay = todo.getDueDate() == null ? null : todo.getDueDate().toInstant().atZone(zone).toLocalDate();
+            counts.merge(Arrays.asList(todo.getPriority(), todo.isCompleted(), dueDay), 1L, Long::sum);
+        });
+        List<TodoTally> tallies = new ArrayList<>();
+        counts.forEach((key, count) -> tallies.add(new TodoTally((String) key.get(0), (Boolean) key.get(1), (LocalDate) key.get(2), count)));
+        return tallies;
+    }
+
+    @Override
+    public <S extends Todo> Optional<S> findOne(Example<S> example) {
+        return Optional.ofNullable(new ExampleQuery<S>(matching(example), Sort.unsorted(), Integer.MAX_VALUE).oneValue());
+    }
+
+    @Override
+    public <S extends Todo> List<S> findAll(Example<S> example) {
+        return findAll(example, Sort.unsorted());
+    }
+
+    @Override
+    public <S extends Todo> List<S> findAll(Example<S> example, Sort sort) {
+        return new ExampleQuery<S>(matching(example), sort, Integer.MAX_VALUE).all();
+    }
+
+    @Override
+    public <S extends Todo> Page<S> findAll(Example<S> example, Pageable pageable) {
+        return new ExampleQuery<S>(matching(example), Sort.unsorted(), Integer.MAX_VALUE).page(pageable);
+    }
+
+    @Override
+    public <S extends Todo> long count(Example<S> example) {
+        return loadAll(null, false).filter(matching(example)).count();
+    }
+
+    @Override
+    public <S extends Todo> boolean exists(Example<S> example) {
+        return loadAll(null, false).anyMatch(matching(example));
+    }
+
+    @Override
+    public <S extends Todo, R> R findBy(Example<S> example, Function<FluentQuery.FetchableFluentQuery<S>, R> queryFunction) {
+        return queryFunction.apply(new ExampleQuery<>(matching(example), Sort.unsorted(), Integer.MAX_VALUE));
+    }
+
+    protected static Todo copy(Todo todo) {
+        Todo copy = new Todo(todo.getTitle(), todo.getDescription(), todo.getDueDate(), todo.getPriority());
+        copy.setId(todo.getId());
+        copy.setCompleted(todo.isCompleted());
+        copy.setVersion(todo.getVersion());
+        copy.setLastModified(todo.getLastModified());
+        return copy;
+    }
+
+    // A first page includes its starting time; later pages start strictly after the last change sent
+    private static boolean isPast(int comparedToPosition, TodoSyncToken token) {
+        return token.isFirstPage() ? comparedToPosition >= 0 : comparedToPosition > 0;
+    }
+
+    private static void apply(Todo todo, String field, Object value) {
+        switch (field) {
+            case "title" -> todo.setTitle((String) value);
+            case "description" -> todo.setDescription((String) value);
+            case "completed" -> todo.setCompleted((Boolean) value);
+            case "dueDate" -> todo.setDueDate((Date) value);
+            case "priority" -> todo.setPriority((String) value);
+            default -> throw new IllegalArgumentException("Unknown field: " + field);
+        }
+    }
+
+    private static Predicate<Todo> matching(TodoFilter filter) {
+        return todo -> (filter.getCompleted() == null || filter.getCompleted() == todo.isCompleted())
+                && (filter.getPriority() == null || filter.getPriority().equals(todo.getPriority()))
+                && (filter.getDueFrom() == null || (todo.getDueDate() != null && !todo.getDueDate().before(filter.getDueFrom())))
+                && (filter.getDueTo() == null || (todo.getDueDate() != null && todo.getDueDate().before(filter.getDueTo())));
+    }
+
+    private Stream<Todo> ordered(Sort sort) {
+        return ordered(todo -> true, sort);
+    }
+
+    private Stream<Todo> ordered(Predicate<Todo> filter, Sort sort) {
+        if (sort.isUnsorted() || sort.equals(Sort.by("id"))) {
+            return loadAll(null, false).filter(filter);
+        }
+        return loadAll(null, false).filter(filter).sorted(comparator(sort));
+    }
+
+    // Follows Spring Data's rules for query by example: null probe fields are skipped unless the matcher
+    // includes nulls, and primitive ones always take part unless ignored
+    private static Predicate<Todo> matching(Example<? extends Todo> example) {
+        Todo probe = example.getProbe();
+        ExampleMatcherAccessor matcher = new ExampleMatcherAccessor(example.getMatcher());
+        List<Predicate<Todo>> conditions = new ArrayList<>();
+        for (String field : EXAMPLE_FIELDS) {
+            if (matcher.isIgnoredPath(field)) {
+                continue;
+            }
+            Object expected = matcher.getValueTransformerForPath(field).apply(Optional.ofNullable(valueOf(probe, field))).orElse(null);
+            if (expected == null && matcher.getNullHandler() == ExampleMatcher.NullHandler.IGNORE) {
+                continue;
+            }
+            conditions.add(condition(field, expected, matcher));
+        }
+        Class<?> type = example.getProbeType();
+        if (conditions.isEmpty() || example.getMatcher().isAllMatching()) {
+            return todo -> type.isInstance(todo) && conditions.stream().allMatch(condition -> condition.test(todo));
+        }
+        return todo -> type.isInstance(todo) && conditions.stream().anyMatch(condition -> condition.test(todo));
+    }
+
+    private static Predicate<Todo> condition(String field, Object expected, ExampleMatcherAccessor matcher) {
+        if (!(expected instanceof String text)) {
+            return todo -> Objects.equals(valueOf(todo, field), expected);
+        }
+        boolean ignoreCase = matcher.isIgnoreCaseForPath(field);
+        Predicate<String> test = switch (matcher.getStringMatcherForPath(field)) {
+            case DEFAULT, EXACT -> value -> ignoreCase ? value.equalsIgnoreCase(text) : value.equals(text);
+            case STARTING -> value -> value.regionMatches(ignoreCase, 0, text, 0, text.length());
+            case ENDING -> value -> value.regionMatches(ignoreCase, value.length() - text.length(), text, 0, text.length());
+            case CONTAINING -> ignoreCase
+                    ? value -> value.toLowerCase(Locale.ROOT).contains(text.toLowerCase(Locale.ROOT))
+                    : value -> value.contains(text);
+            case REGEX -> Pattern.compile(text, ignoreCase ? Pattern.CASE_INSENSITIVE : 0).asPredicate();
+        };
+        return todo -> valueOf(todo, field) instanceof String value && test.test(value);
+    }
+
+    private static Object valueOf(Todo todo, String field) {
+        return switch (field) {
+            case "id" -> todo.getId();
+            case "title" -> todo.getTitle();
+            case "description" -> todo.getDescription();
+            case "completed" -> todo.isCompleted();
+            case "dueDate" -> todo.getDueDate();
+            case "priority" -> todo.getPriority();
+            case "version" -> todo.getVersion();
+            case "lastModified" -> todo.getLastModified();
+            default -> throw new IllegalArgumentException("Unknown field: " + field);
+        };
+    }
+
+    private static Comparator<Todo> comparator(Sort sort) {
+        Comparator<Todo> comparator = Comparator.comparing(Todo::getId);
+        List<Comparator<Todo>> orders = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            Comparator<Todo> byField = switch (order.getProperty()) {
+                case "id" -> Comparator.comparing(Todo::getId);
+                case "title" -> Comparator.comparing(Todo::getTitle, Comparator.nullsFirst(Comparator.naturalOrder()));
+                case "dueDate" -> Comparator.comparing(Todo::getDueDate, Comparator.nullsFirst(Comparator.naturalOrder()));
+                case "priority" -> Comparator.comparing(Todo::getPriority, Comparator.nullsFirst(Comparator.naturalOrder()));
+                case "completed" -> Comparator.comparing(Todo::isCompleted);
+                case "lastModified" -> Comparator.comparing(Todo::getLastModified, Comparator.nullsFirst(Comparator.naturalOrder()));
+                default -> throw new IllegalArgumentException("Unsupported sort property: " + order.getProperty());
+            };
+            orders.add(order.isAscending() ? byField : byField.reversed());
+        }
+        if (!orders.isEmpty()) {
+            comparator = orders.get(0);
+            for (int i = 1; i < orders.size(); i++) {
+                comparator = comparator.thenComparing(orders.get(i));
+            }
+        }
+        return comparator;
+    }
+
+    /**
+     * Query by example evaluated in memory. Projections return whole todos, and {@link #as} only accepts
+     * {@link Todo} and its supertypes.
+     */
+    private final class ExampleQuery<T> implements FluentQuery.FetchableFluentQuery<T> {
+
+        private final Predicate<Todo> filter;
+        private final Sort sort;
+        private final int limit;
+
+        private ExampleQuery(Predicate<Todo> filter, Sort sort, int limit) {
+            this.filter = filter;
+            this.sort = sort;
+            this.limit = limit;
+        }
+
+        @Override
+        public FluentQuery.FetchableFluentQuery<T> sortBy(Sort sort) {
+            return new ExampleQuery<>(filter, this.sort.and(sort), limit);
+        }
+
+        @Override
+        public FluentQuery.FetchableFluentQuery<T> limit(int limit) {
+            return new ExampleQuery<>(filter, sort, limit);
+        }
+
+        @Override
+        public <R> FluentQuery.FetchableFluentQuery<R> as(Class<R> resultType) {
+            if (!resultType.isAssignableFrom(Todo.class)) {
+                throw new UnsupportedOperationException("Cannot read todos as " + resultType.getName());
+            }
+            return new ExampleQuery<>(filter, sort, limit);
+        }
+
+        @Override
+        public FluentQuery.FetchableFluentQuery<T> project(Collection<String> properties) {
+            return this;
+        }
+
+        @Override
+        public T oneValue() {
+            List<T> found = stream().limit(2).collect(Collectors.toList());
+            if (found.size() > 1) {
+                throw new IncorrectResultSizeDataAccessException(1, found.size());
+            }
+            return found.isEmpty() ? null : found.get(0);
+        }
+
+        @Override
+        public T firstValue() {
+            return stream().findFirst().orElse(null);
+        }
+
+        @Override
+        public List<T> all() {
+            return stream().collect(Collectors.toList());
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Page<T> page(Pageable pageable) {
+            if (pageable.isUnpaged()) {
+                return new PageImpl<>(all());
+            }
+            List<T> content = ordered(filter, sort.and(pageable.getSort()))
+                    .skip(pageable.getOffset())
+                    .limit(Math.min(pageable.getPageSize(), limit))
+                    .map(todo -> (T) todo)
+                    .collect(Collectors.toList());
+            return PageableExecutionUtils.getPage(content, pageable, this::count);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Stream<T> stream() {
+            return ordered(filter, sort).limit(limit).map(todo -> (T) todo);
+        }
+
+        @Override
+        public long count() {
+            return loadAll(null, false).filter(filter).count();
+        }
+
+        @Override
+        public boolean exists() {
+            return loadAll(null, false).anyMatch(filter);
+        }
+    }
+}
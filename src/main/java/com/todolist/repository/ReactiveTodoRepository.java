@@ -0,0 +1,8 @@
+package com.todolist.repository;
+
+import com.todolist.model.Todo;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+
+public interface ReactiveTodoRepository extends ReactiveMongoRepository<Todo, String>, ReactiveTodoRepositoryCustom {
+
+}
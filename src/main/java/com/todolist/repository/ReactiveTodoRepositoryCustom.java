@@ -0,0 +1,58 @@
+package com.todolist.repository;
+
+import com.todolist.model.Todo;
+import com.todolist.model.TodoCursor;
+import com.todolist.model.TodoFields;
+import com.todolist.model.TodoFilter;
+import com.todolist.model.TodoSyncToken;
+import com.todolist.model.TodoTombstone;
+import org.springframework.data.domain.Pageable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Includes archived todos the same way as {@link TodoRepositoryCustom}.
+ */
+public interface ReactiveTodoRepositoryCustom {
+
+    Flux<Todo> streamAll(TodoFilter filter, int batchSize);
+
+    /**
+     * Reads only {@code fields} of each todo; the others are left unset.
+     */
+    Flux<Todo> streamAll(TodoFilter filter, TodoFields fields, int batchSize);
+
+    Flux<Todo> findAll(TodoFilter filter, Pageable pageable);
+
+    Flux<Todo> findAll(TodoFilter filter, TodoFields fields, Pageable pageable);
+
+    Mono<Long> count(TodoFilter filter);
+
+    Flux<Todo> findAfter(TodoCursor cursor, int limit);
+
+    Mono<Todo> findArchivedById(String id);
+
+    /**
+     * Reactive counterpart of {@link TodoRepositoryCustom#replace(String, Todo)}; completes empty
+     * if nothing matched.
+     */
+    Mono<Todo> replace(String id, Todo todo);
+
+    /**
+     * Reactive counterpart of {@link TodoRepositoryCustom#patch(String, Map, Long)}; completes
+     * empty if nothing matched.
+     */
+    Mono<Todo> patch(String id, Map<String, Object> changes, Long expectedVersion);
+
+    /**
+     * Reactive counterpart of {@link TodoRepositoryCustom#removeWithTombstone(String)}.
+     */
+    Mono<Long> removeWithTombstone(String id);
+
+    Flux<Todo> findChangedSince(TodoSyncToken token, int limit);
+
+    Flux<TodoTombstone> findDeletedSince(TodoSyncToken token, int limit);
+
+}
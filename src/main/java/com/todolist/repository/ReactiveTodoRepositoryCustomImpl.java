@@ -0,0 +1,121 @@
+package com.todolist.repository;
+
+import com.mongodb.client.result.DeleteResult;
+import com.todolist.model.ArchivedTodo;
+import com.todolist.model.Todo;
+import com.todolist.model.TodoCursor;
+import com.todolist.model.TodoFields;
+import com.todolist.model.TodoFilter;
+import com.todolist.model.TodoSyncToken;
+import com.todolist.model.TodoTombstone;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+public class ReactiveTodoRepositoryCustomImpl implements ReactiveTodoRepositoryCustom {
+
+    @Autowired
+    private ReactiveMongoTemplate reactiveMongoTemplate;
+
+    @Override
+    public Flux<Todo> streamAll(TodoFilter filter, int batchSize) {
+        return streamAll(filter, TodoFields.all(), batchSize);
+    }
+
+    @Override
+    public Flux<Todo> streamAll(TodoFilter filter, TodoFields fields, int batchSize) {
+        Flux<Todo> live = reactiveMongoTemplate.find(TodoQueries.project(TodoQueries.all(filter, batchSize), fields), Todo.class);
+        if (!TodoQueries.includesArchive(filter)) {
+            return live;
+        }
+        return live.concatWith(findArchived(TodoQueries.project(TodoQueries.all(filter, batchSize), fields)));
+    }
+
+    @Override
+    public Flux<Todo> findAll(TodoFilter filter, Pageable pageable) {
+        return findAll(filter, TodoFields.all(), pageable);
+    }
+
+    @Override
+    public Flux<Todo> findAll(TodoFilter filter, TodoFields fields, Pageable pageable) {
+        Flux<Todo> live = reactiveMongoTemplate.find(TodoQueries.project(TodoQueries.matching(filter), fields).with(pageable), Todo.class);
+        if (!TodoQueries.includesArchive(filter)) {
+            return live;
+        }
+        if (pageable.isUnpaged()) {
+            return live.concatWith(findArchived(TodoQueries.project(TodoQueries.matching(filter), fields)));
+        }
+        // The archive part starts where the live todos run out, so its offset is relative to the live count
+        return reactiveMongoTemplate.count(TodoQueries.matching(filter), Todo.class).flatMapMany(liveCount -> {
+            long archiveOffset = Math.max(0, pageable.getOffset() - liveCount);
+            int fromLive = (int) Math.max(0, Math.min(pageable.getPageSize(), liveCount - pageable.getOffset()));
+            Flux<Todo> archived = findArchived(TodoQueries.project(TodoQueries.matching(filter), fields)
+                    .with(pageable.getSort()).skip(archiveOffset).limit(pageable.getPageSize() - fromLive));
+            if (fromLive == 0) {
+                return archived;
+            }
+            return fromLive == pageable.getPageSize() ? live : live.concatWith(archived);
+        });
+    }
+
+    @Override
+    public Mono<Long> count(TodoFilter filter) {
+        Mono<Long> live = reactiveMongoTemplate.count(TodoQueries.matching(filter), Todo.class);
+        if (!TodoQueries.includesArchive(filter)) {
+            return live;
+        }
+        return live.zipWith(reactiveMongoTemplate.count(TodoQueries.matching(filter), ArchivedTodo.class), Long::sum);
+    }
+
+    @Override
+    public Flux<Todo> findAfter(TodoCursor cursor, int limit) {
+        return reactiveMongoTemplate.find(TodoQueries.keyset(cursor, limit), Todo.class);
+    }
+
+    @Override
+    public Mono<Todo> findArchivedById(String id) {
+        return reactiveMongoTemplate.findById(id, ArchivedTodo.class).cast(Todo.class);
+    }
+
+    private Flux<Todo> findArchived(Query query) {
+        return reactiveMongoTemplate.find(query, ArchivedTodo.class).cast(Todo.class);
+    }
+
+    @Override
+    public Mono<Todo> replace(String id, Todo todo) {
+        return reactiveMongoTemplate.findAndModify(TodoQueries.byId(id, todo.getVersion()),
+                TodoQueries.replacementOf(todo), FindAndModifyOptions.options().returnNew(true), Todo.class);
+    }
+
+    @Override
+    public Mono<Todo> patch(String id, Map<String, Object> changes, Long expectedVersion) {
+        return reactiveMongoTemplate.findAndModify(TodoQueries.byId(id, expectedVersion),
+                TodoQueries.patchOf(changes), FindAndModifyOptions.options().returnNew(true), Todo.class);
+    }
+
+    @Override
+    public Mono<Long> removeWithTombstone(String id) {
+        return reactiveMongoTemplate.remove(TodoQueries.byId(id), Todo.class)
+                .map(DeleteResult::getDeletedCount)
+                .flatMap(deleted -> deleted == 0 ? Mono.just(deleted)
+                        : reactiveMongoTemplate.upsert(TodoQueries.byId(id), TodoQueries.tombstone(), TodoTombstone.class)
+                                .thenReturn(deleted));
+    }
+
+    @Override
+    public Flux<Todo> findChangedSince(TodoSyncToken token, int limit) {
+        return reactiveMongoTemplate.find(TodoQueries.changedSince(token, limit), Todo.class);
+    }
+
+    @Override
+    public Flux<TodoTombstone> findDeletedSince(TodoSyncToken token, int limit) {
+        return reactiveMongoTemplate.find(TodoQueries.deletedSince(token, limit), TodoTombstone.class);
+    }
+
+}
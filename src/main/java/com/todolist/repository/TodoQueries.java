@@ -0,0 +1,212 @@
+package com.todolist.repository;
+
+import com.todolist.model.Todo;
+import com.todolist.model.TodoCursor;
+import com.todolist.model.TodoFields;
+import com.todolist.model.TodoFilter;
+import com.todolist.model.TodoSyncToken;
+import com.todolist.model.TodoTombstone;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * Query and update builders shared by the blocking and reactive repository implementations.
+ */
+final class TodoQueries {
+
+    // Set only by writes that change many todos at once, to a token unique to the write, so they can read back
+    // exactly the todos they changed; not mapped on Todo
+    static final String WRITE_STAMP = "writeStamp";
+
+    private TodoQueries() {}
+
+    static Query all(TodoFilter filter, int batchSize) {
+        return matching(filter).cursorBatchSize(batchSize);
+    }
+
+    static Query project(Query query, TodoFields fields) {
+        if (!fields.isAll()) {
+            query.fields().include(fields.names().toArray(String[]::new));
+        }
+        return query;
+    }
+
+    // Equality fields before the dueDate range, in the order of the completed_priority_dueDate index
+    static Query matching(TodoFilter filter) {
+        Query query = new Query();
+        if (filter.getCompleted() != null) {
+            query.addCriteria(Criteria.where("completed").is(filter.getCompleted()));
+        }
+        if (filter.getPriority() != null) {
+            query.addCriteria(Criteria.where("priority").is(filter.getPriority()));
+        }
+        if (filter.getDueFrom() != null || filter.getDueTo() != null) {
+            Criteria dueDate = Criteria.where("dueDate");
+            if (filter.getDueFrom() != null) {
+                dueDate.gte(filter.getDueFrom());
+            }
+            if (filter.getDueTo() != null) {
+                dueDate.lt(filter.getDueTo());
+            }
+            query.addCriteria(dueDate);
+        }
+        return query;
+    }
+
+    static Query keyset(TodoCursor cursor, int limit) {
+        String field = cursor.getSort();
+        Sort.Direction direction = cursor.getDirection();
+        Query query = new Query().limit(limit);
+
+        if ("id".equals(field)) {
+            query.with(Sort.by(direction, "id"));
+            if (!cursor.isFirst()) {
+                query.addCriteria(direction.isAscending()
+                        ? Criteria.where("id").gt(cursor.getLastId())
+                        : Criteria.where("id").lt(cursor.getLastId()));
+            }
+        } else {
+            query.with(Sort.by(direction, field, "id"));
+            if (!cursor.isFirst()) {
+                query.addCriteria(seekCriteria(field, direction, cursor.sortValue(), cursor.getLastId()));
+            }
+        }
+        return query;
+    }
+
+    // Range and sort both on the dueDate_id index
+    static Query dueBetween(Date from, Date to, int batchSize) {
+        return new Query(Criteria.where("dueDate").gte(from).lt(to).and("completed").is(false))
+                .with(Sort.by("dueDate", "id"))
+                .cursorBatchSize(batchSize);
+    }
+
+    // Oldest first on the lastModified_id index; any write moves a todo out of range
+    static Query archivable(Date completedBefore) {
+        return new Query(Criteria.where("lastModified").lt(completedBefore).and("completed").is(true))
+                .with(Sort.by("lastModified", "id"));
+    }
+
+    // The archive only holds completed todos
+    static boolean includesArchive(TodoFilter filter) {
+        return filter.isIncludeArchived() && !Boolean.FALSE.equals(filter.getCompleted());
+    }
+
+    // In id order, so each chunk carries on after the last one whatever was done to the filtered fields
+    static Query idsMatching(TodoFilter filter, String afterId, int limit) {
+        Query query = matching(filter).with(Sort.by("id")).limit(limit);
+        if (afterId != null) {
+            query.addCriteria(Criteria.where("id").gt(afterId));
+        }
+        query.fields().include("id");
+        return query;
+    }
+
+    static Query matchingAmong(Collection<String> ids, TodoFilter filter) {
+        return matching(filter).addCriteria(Criteria.where("id").in(ids));
+    }
+
+    static Query stampedAmong(Collection<String> ids, String stamp) {
+        return new Query(Criteria.where("id").in(ids).and(WRITE_STAMP).is(stamp));
+    }
+
+    static Query changedSince(TodoSyncToken token, int limit) {
+        Query query = new Query().with(Sort.by("lastModified", "id")).limit(limit);
+        if (!token.isFirstPage()) {
+            query.addCriteria(seekCriteria("lastModified", Sort.Direction.ASC, token.getTimeAsDate(), token.getLastId()));
+        } else if (token.getTime() != null) {
+            query.addCriteria(Criteria.where("lastModified").gte(token.getTimeAsDate()));
+        }
+        return query;
+    }
+
+    static Query deletedSince(TodoSyncToken token, int limit) {
+        Query query = new Query().with(Sort.by("deletedAt", "id")).limit(limit);
+        if (!token.isFirstPage()) {
+            query.addCriteria(seekCriteria("deletedAt", Sort.Direction.ASC, token.getTimeAsDate(), token.getLastId()));
+        } else {
+            query.addCriteria(Criteria.where("deletedAt").gte(token.getTimeAsDate()));
+        }
+        return query;
+    }
+
+    static Query deletedAmong(Collection<String> ids, Date since) {
+        return new Query(Criteria.where("id").in(ids).and("deletedAt").gte(since));
+    }
+
+    static Query byId(String id) {
+        return new Query(Criteria.where("id").is(id));
+    }
+
+    static Query byId(String id, Long expectedVersion) {
+        Criteria criteria = Criteria.where("id").is(id);
+        if (expectedVersion != null) {
+            criteria.and("version").is(expectedVersion);
+        }
+        return new Query(criteria);
+    }
+
+    static Query idsIn(Collection<String> ids) {
+        Query query = new Query(Criteria.where("id").in(ids));
+        query.fields().include("id");
+        return query;
+    }
+
+    static Update replacementOf(Todo todo) {
+        return new Update()
+                .set("title", todo.getTitle())
+                .set("description", todo.getDescription())
+                .set("completed", todo.isCompleted())
+                .set("dueDate", todo.getDueDate())
+                .set("priority", todo.getPriority())
+                .set("lastModified", new Date())
+                .inc("version", 1);
+    }
+
+    static Update patchOf(Map<String, Object> changes) {
+        Update update = new Update();
+        changes.forEach(update::set);
+        return update.set("lastModified", new Date()).inc("version", 1);
+    }
+
+    static Update stamped(Update update, String stamp) {
+        return update.set(WRITE_STAMP, stamp);
+    }
+
+    // Unsets the reason, so deleting a todo created again after it was archived is reported as a delete
+    static Update tombstone() {
+        return Update.update("deletedAt", new Date()).unset("reason");
+    }
+
+    static Update archivedTombstone() {
+        return Update.update("deletedAt", new Date()).set("reason", TodoTombstone.ARCHIVED);
+    }
+
+    // Mongo orders null/missing before every other value, and $gt/$lt never match across types,
+    // so the null group has to be entered and left explicitly
+    private static Criteria seekCriteria(String field, Sort.Direction direction, Object value, String lastId) {
+        if (direction.isAscending()) {
+            if (value == null) {
+                return new Criteria().orOperator(
+                        Criteria.where(field).is(null).and("id").gt(lastId),
+                        Criteria.where(field).ne(null));
+            }
+            return new Criteria().orOperator(
+                    Criteria.where(field).gt(value),
+                    Criteria.where(field).is(value).and("id").gt(lastId));
+        }
+        if (value == null) {
+            return Criteria.where(field).is(null).and("id").lt(lastId);
+        }
+        return new Criteria().orOperator(
+                Criteria.where(field).lt(value),
+                Criteria.where(field).is(value).and("id").lt(lastId),
+                Criteria.where(field).is(null));
+    }
+}
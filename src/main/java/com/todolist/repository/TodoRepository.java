@@ -3,6 +3,6 @@ package com.todolist.repository;
 import com.todolist.model.Todo;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
-public interface TodoRepository extends MongoRepository<Todo, String> {
+public interface TodoRepository extends MongoRepository<Todo, String>, TodoRepositoryCustom {
 
 }
\ No newline at end of file
@@ -0,0 +1,125 @@
+package com.todolist.repository;
+
+import com.todolist.model.Todo;
+import com.todolist.model.TodoCursor;
+import com.todolist.model.TodoFields;
+import com.todolist.model.TodoFilter;
+import com.todolist.model.TodoSyncToken;
+import com.todolist.model.TodoTally;
+import com.todolist.model.TodoTombstone;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Reads that take a {@link TodoFilter} leave out archived todos unless {@link TodoFilter#isIncludeArchived()}
+ * is set. Pages then list every matching live todo before the archived ones, each part in the requested order.
+ */
+public interface TodoRepositoryCustom {
+
+    Stream<Todo> streamAll(TodoFilter filter, int batchSize);
+
+    /**
+     * Reads only {@code fields} of each todo; the others are left unset.
+     */
+    Stream<Todo> streamAll(TodoFilter filter, TodoFields fields, int batchSize);
+
+    /**
+     * Open todos due in {@code [from, to)}, in {@code (dueDate, id)} order.
+     */
+    Stream<Todo> streamDueBetween(Date from, Date to, int batchSize);
+
+    List<Todo> findAll(TodoFilter filter);
+
+    List<Todo> findAll(TodoFilter filter, TodoFields fields);
+
+    Page<Todo> findAll(TodoFilter filter, Pageable pageable);
+
+    Page<Todo> findAll(TodoFilter filter, TodoFields fields, Pageable pageable);
+
+    long count(TodoFilter filter);
+
+    List<Todo> findAfter(TodoCursor cursor, int limit);
+
+    Optional<Todo> findArchivedById(String id);
+
+    /**
+     * Moves up to {@code limit} completed todos last modified before {@code completedBefore} to the archive,
+     * oldest first, and returns the ids of those moved. A todo written or deleted while its batch is being
+     * moved is left where the write put it.
+     */
+    List<String> archiveCompleted(Date completedBefore, int limit);
+
+    /**
+     * Overwrites the mutable fields of the todo in a single findAndModify, guarded by
+     * {@link Todo#getVersion()} when it is set. Returns {@code null} if nothing matched.
+     */
+    Todo replace(String id, Todo todo);
+
+    /**
+     * Replaces each todo as {@link #replace} does, as one unordered bulk write, and returns those it replaced
+     * as they are now.
+     */
+    List<Todo> replaceAll(List<Todo> todos);
+
+    /**
+     * Sets only the given fields, guarded by {@code expectedVersion} when it is not {@code null}.
+     * Returns {@code null} if nothing matched.
+     */
+    Todo patch(String id, Map<String, Object> changes, Long expectedVersion);
+
+    /**
+     * Deletes the todo and leaves a tombstone for delta sync. Returns the number of todos deleted.
+     */
+    long removeWithTombstone(String id);
+
+    /**
+     * Todos modified at or after the token's position, in {@code (lastModified, id)} order.
+     */
+    List<Todo> findChangedSince(TodoSyncToken token, int limit);
+
+    /**
+     * Tombstones left at or after the token's position, in {@code (deletedAt, id)} order.
+     */
+    List<TodoTombstone> findDeletedSince(TodoSyncToken token, int limit);
+
+    Set<String> findExistingIds(Collection<String> ids);
+
+    /**
+     * Ids of up to {@code limit} live todos matching the filter, in id order, after {@code afterId} when it
+     * is not {@code null}.
+     */
+    List<String> findIdsMatching(TodoFilter filter, String afterId, int limit);
+
+    /**
+     * Sets {@code changes} on those of {@code ids} that still match the filter, as one update, and returns
+     * the todos it changed as they are now.
+     */
+    List<Todo> updateMatching(Collection<String> ids, TodoFilter filter, Map<String, Object> changes);
+
+    /**
+     * Deletes those of {@code ids} that still match the filter, as one delete, leaving tombstones for delta
+     * sync. Returns the ids this call deleted, not those deleted meanwhile by someone else.
+     */
+    List<String> removeMatching(Collection<String> ids, TodoFilter filter);
+
+    /**
+     * Inserts the todos as one unordered bulk write and returns the error message of every insert that
+     * failed, keyed by its position in {@code todos}.
+     */
+    Map<Integer, String> insertAll(List<Todo> todos);
+
+    /**
+     * Counts todos grouped by priority, completion state and the calendar day in {@code zone} they are due.
+     */
+    List<TodoTally> tally(ZoneId zone);
+
+}
@@ -0,0 +1,314 @@
+package com.todolist.repository;
+
+import com.mongodb.bulk.BulkWriteError;
+import com.todolist.model.ArchivedTodo;
+import com.todolist.model.Todo;
+import com.todolist.model.TodoCursor;
+import com.todolist.model.TodoFields;
+import com.todolist.model.TodoFilter;
+import com.todolist.model.TodoSyncToken;
+import com.todolist.model.TodoTally;
+import com.todolist.model.TodoTombstone;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.DateOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+public class TodoRepositoryCustomImpl implements TodoRepositoryCustom {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public Stream<Todo> streamAll(TodoFilter filter, int batchSize) {
+        return streamAll(filter, TodoFields.all(), batchSize);
+    }
+
+    @Override
+    public Stream<Todo> streamAll(TodoFilter filter, TodoFields fields, int batchSize) {
+        Stream<Todo> live = mongoTemplate.stream(TodoQueries.project(TodoQueries.all(filter, batchSize), fields), Todo.class);
+        if (!TodoQueries.includesArchive(filter)) {
+            return live;
+        }
+        return Stream.concat(live, mongoTemplate.stream(TodoQueries.project(TodoQueries.all(filter, batchSize), fields), ArchivedTodo.class));
+    }
+
+    @Override
+    public Stream<Todo> streamDueBetween(Date from, Date to, int batchSize) {
+        return mongoTemplate.stream(TodoQueries.dueBetween(from, to, batchSize), Todo.class);
+    }
+
+    @Override
+    public List<Todo> findAll(TodoFilter filter) {
+        return findAll(filter, TodoFields.all());
+    }
+
+    @Override
+    public List<Todo> findAll(TodoFilter filter, TodoFields fields) {
+        List<Todo> todos = mongoTemplate.find(TodoQueries.project(TodoQueries.matching(filter), fields), Todo.class);
+        if (TodoQueries.includesArchive(filter)) {
+            todos.addAll(mongoTemplate.find(TodoQueries.project(TodoQueries.matching(filter), fields), ArchivedTodo.class));
+        }
+        return todos;
+    }
+
+    @Override
+    public Page<Todo> findAll(TodoFilter filter, Pageable pageable) {
+        return findAll(filter, TodoFields.all(), pageable);
+    }
+
+    @Override
+    public Page<Todo> findAll(TodoFilter filter, TodoFields fields, Pageable pageable) {
+        if (TodoQueries.includesArchive(filter) && pageable.isPaged()) {
+            return findLiveThenArchived(filter, fields, pageable);
+        }
+        if (TodoQueries.includesArchive(filter)) {
+            List<Todo> todos = findAll(filter, fields);
+            return new PageImpl<>(todos, pageable, todos.size());
+        }
+        List<Todo> content = mongoTemplate.find(TodoQueries.project(TodoQueries.matching(filter), fields).with(pageable), Todo.class);
+        return PageableExecutionUtils.getPage(content, pageable,
+                () -> mongoTemplate.count(TodoQueries.matching(filter), Todo.class));
+    }
+
+    @Override
+    public long count(TodoFilter filter) {
+        long live = mongoTemplate.count(TodoQueries.matching(filter), Todo.class);
+        return TodoQueries.includesArchive(filter) ? live + mongoTemplate.count(TodoQueries.matching(filter), ArchivedTodo.class) : live;
+    }
+
+    @Override
+    public List<Todo> findAfter(TodoCursor cursor, int limit) {
+        return mongoTemplate.find(TodoQueries.keyset(cursor, limit), Todo.class);
+    }
+
+    // The archive part starts where the live todos run out, so its offset is relative to the live count
+    private Page<Todo> findLiveThenArchived(TodoFilter filter, TodoFields fields, Pageable pageable) {
+        long live = mongoTemplate.count(TodoQueries.matching(filter), Todo.class);
+        long archived = mongoTemplate.count(TodoQueries.matching(filter), ArchivedTodo.class);
+        List<Todo> content = new ArrayList<>();
+        if (pageable.getOffset() < live) {
+            content.addAll(mongoTemplate.find(TodoQueries.project(TodoQueries.matching(filter), fields).with(pageable), Todo.class));
+        }
+        long archiveOffset = Math.max(0, pageable.getOffset() - live);
+        int remaining = pageable.getPageSize() - content.size();
+        if (remaining > 0 && archiveOffset < archived) {
+            content.addAll(mongoTemplate.find(TodoQueries.project(TodoQueries.matching(filter), fields)
+                    .with(pageable.getSort()).skip(archiveOffset).limit(remaining), ArchivedTodo.class));
+        }
+        return new PageImpl<>(content, pageable, live + archived);
+    }
+
+    @Override
+    public Optional<Todo> findArchivedById(String id) {
+        return Optional.ofNullable(mongoTemplate.findById(id, ArchivedTodo.class));
+    }
+
+    // Copies the batch before deleting it, so a failure in between leaves a todo in both collections
+    // until the next run rather than in neither. The tombstones marked archived tell delta sync.
+    @Override
+    public List<String> archiveCompleted(Date completedBefore, int limit) {
+        Date readAt = new Date();
+        List<Todo> due = mongoTemplate.find(TodoQueries.archivable(completedBefore).limit(limit), Todo.class);
+        if (due.isEmpty()) {
+            return List.of();
+        }
+        List<String> ids = new ArrayList<>();
+        BulkOperations copies = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ArchivedTodo.class);
+        for (Todo todo : due) {
+            copies.replaceOne(TodoQueries.byId(todo.getId()), new ArchivedTodo(todo, readAt), FindAndReplaceOptions.options().upsert());
+            ids.add(todo.getId());
+        }
+        copies.execute();
+
+        Query moved = TodoQueries.archivable(completedBefore).addCriteria(Criteria.where("id").in(ids));
+        long removed = mongoTemplate.remove(moved, Todo.class).getDeletedCount();
+        if (removed < ids.size()) {
+            // Written since the read, so still live, or deleted by someone else; either way the copy goes
+            Set<String> kept = findExistingIds(ids);
+            for (TodoTombstone tombstone : mongoTemplate.find(TodoQueries.deletedAmong(ids, readAt), TodoTombstone.class)) {
+                kept.add(tombstone.getId());
+            }
+            mongoTemplate.remove(new Query(Criteria.where("id").in(kept)), ArchivedTodo.class);
+            ids.removeAll(kept);
+        }
+        if (!ids.isEmpty()) {
+            BulkOperations tombstones = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, TodoTombstone.class);
+            for (String id : ids) {
+                tombstones.upsert(TodoQueries.byId(id), TodoQueries.archivedTombstone());
+            }
+            tombstones.execute();
+        }
+        return ids;
+    }
+
+    @Override
+    public Todo replace(String id, Todo todo) {
+        return mongoTemplate.findAndModify(TodoQueries.byId(id, todo.getVersion()), TodoQueries.replacementOf(todo),
+                FindAndModifyOptions.options().returnNew(true), Todo.class);
+    }
+
+    // Stamped as updateMatching does, since a bulk write reports only how many matched, not which
+    @Override
+    public List<Todo> replaceAll(List<Todo> todos) {
+        String stamp = new ObjectId().toHexString();
+        BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Todo.class);
+        List<String> ids = new ArrayList<>();
+        for (Todo todo : todos) {
+            bulkOps.updateOne(TodoQueries.byId(todo.getId(), todo.getVersion()), TodoQueries.stamped(TodoQueries.replacementOf(todo), stamp));
+            ids.add(todo.getId());
+        }
+        if (bulkOps.execute().getMatchedCount() == 0) {
+            return List.of();
+        }
+        return mongoTemplate.find(TodoQueries.stampedAmong(ids, stamp), Todo.class);
+    }
+
+    @Override
+    public Todo patch(String id, Map<String, Object> changes, Long expectedVersion) {
+        return mongoTemplate.findAndModify(TodoQueries.byId(id, expectedVersion), TodoQueries.patchOf(changes),
+                FindAndModifyOptions.options().returnNew(true), Todo.class);
+    }
+
+    @Override
+    public long removeWithTombstone(String id) {
+        long deleted = mongoTemplate.remove(TodoQueries.byId(id), Todo.class).getDeletedCount();
+        if (deleted > 0) {
+            mongoTemplate.upsert(TodoQueries.byId(id), TodoQueries.tombstone(), TodoTombstone.class);
+        }
+        return deleted;
+    }
+
+    @Override
+    public List<Todo> findChangedSince(TodoSyncToken token, int limit) {
+        return mongoTemplate.find(TodoQueries.changedSince(token, limit), Todo.class);
+    }
+
+    @Override
+    public List<TodoTombstone> findDeletedSince(TodoSyncToken token, int limit) {
+        return mongoTemplate.find(TodoQueries.deletedSince(token, limit), TodoTombstone.class);
+    }
+
+    @Override
+    public Set<String> findExistingIds(Collection<String> ids) {
+        Set<String> existing = new HashSet<>();
+        for (Todo todo : mongoTemplate.find(TodoQueries.idsIn(ids), Todo.class)) {
+            existing.add(todo.getId());
+        }
+        return existing;
+    }
+
+    @Override
+    public List<String> findIdsMatching(TodoFilter filter, String afterId, int limit) {
+        List<String> ids = new ArrayList<>();
+        for (Todo todo : mongoTemplate.find(TodoQueries.idsMatching(filter, afterId, limit), Todo.class)) {
+            ids.add(todo.getId());
+        }
+        return ids;
+    }
+
+    // Every todo the update changes gets the same stamp, unique to this call, which picks them out when they
+    // are read back
+    @Override
+    public List<Todo> updateMatching(Collection<String> ids, TodoFilter filter, Map<String, Object> changes) {
+        String stamp = new ObjectId().toHexString();
+        long modified = mongoTemplate.updateMulti(TodoQueries.matchingAmong(ids, filter),
+                TodoQueries.stamped(TodoQueries.patchOf(changes), stamp), Todo.class).getModifiedCount();
+        if (modified == 0) {
+            return List.of();
+        }
+        return mongoTemplate.find(TodoQueries.stampedAmong(ids, stamp), Todo.class);
+    }
+
+    // Reads the matching ids and deletes only those, as one delete. If it removed fewer, some were written or
+    // deleted in between: the ones still there stopped matching, and the ones tombstoned since the read were
+    // deleted by someone else
+    @Override
+    public List<String> removeMatching(Collection<String> ids, TodoFilter filter) {
+        Date readAt = new Date();
+        Query matching = TodoQueries.matchingAmong(ids, filter);
+        matching.fields().include("id");
+        List<String> removed = new ArrayList<>();
+        for (Todo todo : mongoTemplate.find(matching, Todo.class)) {
+            removed.add(todo.getId());
+        }
+        if (removed.isEmpty()) {
+            return removed;
+        }
+        long deleted = mongoTemplate.remove(TodoQueries.matchingAmong(removed, filter), Todo.class).getDeletedCount();
+        if (deleted < removed.size()) {
+            Set<String> kept = findExistingIds(removed);
+            for (TodoTombstone tombstone : mongoTemplate.find(TodoQueries.deletedAmong(removed, readAt), TodoTombstone.class)) {
+                kept.add(tombstone.getId());
+            }
+            removed.removeAll(kept);
+        }
+        if (!removed.isEmpty()) {
+            BulkOperations tombstones = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, TodoTombstone.class);
+            for (String id : removed) {
+                tombstones.upsert(TodoQueries.byId(id), TodoQueries.tombstone());
+            }
+            tombstones.execute();
+        }
+        return removed;
+    }
+
+    @Override
+    public Map<Integer, String> insertAll(List<Todo> todos) {
+        BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Todo.class);
+        bulkOps.insert(todos);
+        Map<Integer, String> errors = new HashMap<>();
+        try {
+            bulkOps.execute();
+        } catch (BulkOperationException e) {
+            for (BulkWriteError error : e.getErrors()) {
+                errors.put(error.getIndex(), error.getMessage());
+            }
+        }
+        return errors;
+    }
+
+    @Override
+    public List<TodoTally> tally(ZoneId zone) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.project("priority", "completed")
+                        .and(DateOperators.DateToString.dateOf("dueDate").toString("%Y-%m-%d")
+                                .withTimezone(DateOperators.Timezone.valueOf(zone.getId())))
+                        .as("dueDay"),
+                Aggregation.group("priority", "completed", "dueDay").count().as("count"));
+        List<TodoTally> tallies = new ArrayList<>();
+        for (Document row : mongoTemplate.aggregate(aggregation, Todo.class, Document.class)) {
+            Document group = row.get("_id", Document.class);
+            String dueDay = group.getString("dueDay");
+            tallies.add(new TodoTally(group.getString("priority"), Boolean.TRUE.equals(group.getBoolean("completed")),
+                    dueDay == null ? null : LocalDate.parse(dueDay), ((Number) row.get("count")).longValue()));
+        }
+        return tallies;
+    }
+
+}
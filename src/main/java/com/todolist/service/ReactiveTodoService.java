@@ -0,0 +1,182 @@
+package com.todolist.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.todolist.model.PartialTodo;
+import com.todolist.model.Todo;
+import com.todolist.model.TodoChanges;
+import com.todolist.model.TodoCursor;
+import com.todolist.model.TodoFields;
+import com.todolist.model.TodoFilter;
+import com.todolist.model.TodoSlice;
+import com.todolist.model.TodoStats;
+import com.todolist.model.TodoSyncToken;
+import com.todolist.model.TodoTombstone;
+import com.todolist.repository.ReactiveTodoRepository;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+@Service
+@Profile("reactive")
+public class ReactiveTodoService {
+
+    @Autowired
+    private ReactiveTodoRepository todoRepository;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TodoSearchIndex searchIndex;
+
+    @Autowired
+    private TodoStatistics statistics;
+
+    @Autowired
+    private TodoIngestQueue ingestQueue;
+
+    @Value("${todo.stream.batch-size:500}")
+    private int streamBatchSize = 500;
+
+    @Value("${todo.sync.tombstone-retention:30d}")
+    private Duration tombstoneRetention = Duration.ofDays(30);
+
+    @Value("${todo.sync.overlap:5s}")
+    private Duration syncOverlap = Duration.ofSeconds(5);
+
+    public Flux<Todo> getAllTodos(TodoFilter filter) {
+        return todoRepository.streamAll(filter, streamBatchSize);
+    }
+
+    public Mono<Page<Todo>> getAllTodos(TodoFilter filter, Pageable pageable) {
+        return todoRepository.findAll(filter, pageable).collectList()
+                .zipWith(todoRepository.count(filter))
+                .map(pageAndCount -> new PageImpl<>(pageAndCount.getT1(), pageable, pageAndCount.getT2()));
+    }
+
+    /**
+     * Todos with only the fields named in {@code fields}, which are all that is read from the database.
+     * Fails with {@link IllegalArgumentException} if {@code fields} names something that is not a todo field.
+     */
+    public Flux<PartialTodo> getAllTodos(TodoFilter filter, String fields) {
+        return Mono.fromCallable(() -> TodoFields.of(fields))
+                .flatMapMany(selected -> todoRepository.streamAll(filter, selected, streamBatchSize).map(selected::project));
+    }
+
+    public Mono<Page<PartialTodo>> getAllTodos(TodoFilter filter, String fields, Pageable pageable) {
+        return Mono.fromCallable(() -> TodoFields.of(fields))
+                .flatMap(selected -> todoRepository.findAll(filter, selected, pageable).map(selected::project).collectList()
+                        .zipWith(todoRepository.count(filter))
+                        .map(pageAndCount -> new PageImpl<>(pageAndCount.getT1(), pageable, pageAndCount.getT2())));
+    }
+
+    public Mono<TodoSlice> getTodosByCursor(String sort, String direction, int size, String token) {
+        return Mono.fromCallable(() -> TodoCursor.of(sort, direction, token))
+                .flatMap(cursor -> {
+                    int limit = TodoCursor.clampSize(size);
+                    return todoRepository.findAfter(cursor, limit + 1).collectList()
+                            .map(todos -> TodoSlice.of(todos, limit, cursor));
+                });
+    }
+
+    public Flux<Todo> searchTodos(String query, int limit) {
+        return Mono.fromCallable(() -> searchIndex.search(query, Math.min(limit, TodoService.MAX_SEARCH_RESULTS)))
+                .filter(ids -> !ids.isEmpty())
+                .flatMapMany(ids -> todoRepository.findAllById(ids).collectMap(Todo::getId)
+                        .flatMapIterable(todosById -> ids.stream().map(todosById::get).filter(Objects::nonNull).toList()));
+    }
+
+    public Mono<TodoChanges> getChanges(String token, int size) {
+        return Mono.defer(() -> {
+            long now = System.currentTimeMillis();
+            TodoSyncToken position = TodoSyncToken.of(token).startingPass(now - syncOverlap.toMillis());
+            if (position.isExpired(now - tombstoneRetention.toMillis())) {
+                return Mono.just(TodoChanges.reset());
+            }
+            int limit = TodoCursor.clampSize(size);
+            Mono<List<TodoTombstone>> tombstones = position.isFull()
+                    ? Mono.just(List.of())
+                    : todoRepository.findDeletedSince(position, limit + 1).collectList();
+            return todoRepository.findChangedSince(position, limit + 1).collectList()
+                    .zipWith(tombstones, (todos, deleted) -> TodoChanges.of(todos, deleted, limit, position));
+        });
+    }
+
+    public Mono<TodoStats> getStats() {
+        return Mono.fromCallable(statistics::snapshot);
+    }
+
+    public Mono<Todo> getTodoById(String id) {
+        return todoRepository.findById(id);
+    }
+
+    public Mono<Todo> getArchivedTodoById(String id) {
+        return todoRepository.findArchivedById(id);
+    }
+
+    public Mono<Todo> createTodo(Todo todo) {
+        todo.setCompleted(false);
+        todo.setVersion(null);
+        todo.setLastModified(new Date());
+        // Batches complete on the ingest writer, which should not also run every caller's downstream work
+        Mono<Todo> created = ingestQueue.isEnabled()
+                ? Mono.fromFuture(() -> ingestQueue.submit(todo)).publishOn(Schedulers.parallel())
+                : todoRepository.save(todo);
+        return created
+                .doOnNext(createdTodo -> eventPublisher.publishEvent(TodoChangedEvent.created(createdTodo)));
+    }
+
+    public Mono<Todo> updateTodo(String id, Todo todo) {
+        todo.setId(id);
+        return todoRepository.replace(id, todo)
+                .doOnNext(updatedTodo -> eventPublisher.publishEvent(TodoChangedEvent.updated(updatedTodo)))
+                .switchIfEmpty(Mono.defer(() -> todo.getVersion() != null ? failIfExists(id) : Mono.empty()));
+    }
+
+    public Mono<Todo> patchTodo(String id, Map<String, Object> changes) {
+        return Mono.fromCallable(() -> TodoPatch.parse(changes, objectMapper, validator))
+                .flatMap(patch -> todoRepository.patch(id, patch.fields(), patch.expectedVersion())
+                        .doOnNext(patchedTodo -> eventPublisher.publishEvent(TodoChangedEvent.updated(patchedTodo)))
+                        .switchIfEmpty(Mono.defer(() -> patch.expectedVersion() != null ? failIfExists(id) : Mono.empty())));
+    }
+
+    public Mono<Boolean> deleteTodo(String id) {
+        return todoRepository.removeWithTombstone(id)
+                .map(deleted -> deleted > 0)
+                .doOnNext(deleted -> {
+                    if (deleted) {
+                        eventPublisher.publishEvent(TodoChangedEvent.deleted(id));
+                    }
+                });
+    }
+
+    private Mono<Todo> failIfExists(String id) {
+        return todoRepository.existsById(id)
+                .flatMap(exists -> exists
+                        ? Mono.error(new OptimisticLockingFailureException("Task was modified concurrently, ID: " + id))
+                        : Mono.empty());
+    }
+
+}
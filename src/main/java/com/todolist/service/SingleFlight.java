@@ -0,0 +1,74 @@
+package com.todolist.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls with equal keys. The first caller runs the call, and callers that arrive with
+ * the same key while it is running wait for it and get its result or exception rather than running their
+ * own. Nothing is kept once the call returns, so a result is never older than the call that produced it.
+ * {@link #forget} lets a write make later callers start a fresh call instead of joining one that may have
+ * read around it.
+ *
+ * <p>Every caller gets the same result instance, which must therefore not be modified.
+ */
+final class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> calls = new ConcurrentHashMap<>();
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    V call(K key, Supplier<V> call) {
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> running = calls.putIfAbsent(key, mine);
+        if (running != null) {
+            return join(running);
+        }
+        V value;
+        try {
+            value = call.get();
+        } catch (RuntimeException | Error e) {
+            calls.remove(key, mine);
+            mine.completeExceptionally(e);
+            throw e;
+        }
+        calls.remove(key, mine);
+        mine.complete(value);
+        return value;
+    }
+
+    void forget(K key) {
+        calls.remove(key);
+    }
+
+    void forgetAll() {
+        calls.clear();
+    }
+
+    /**
+     * Callers currently waiting on another caller's call.
+     */
+    int waiting() {
+        return waiting.get();
+    }
+
+    private V join(CompletableFuture<V> running) {
+        waiting.incrementAndGet();
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+}
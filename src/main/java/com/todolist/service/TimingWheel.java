@@ -0,0 +1,147 @@
+package com.todolist.service;
+
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel (Varghese and Lauck). Each level has 64 slots, and a slot of one level spans a
+ * whole turn of the level below. A timer goes into the lowest level whose turn reaches its expiry and
+ * moves down a level each time the level below finishes a turn. That makes scheduling and cancelling
+ * O(1), and each tick costs O(1) plus the timers it moves or fires.
+ *
+ * <p>Timers fire on the first tick at or after their time, so never early and at most one tick late.
+ * Timers further out than the top level reaches wait in its last slot and are placed again on each turn.
+ * Not thread-safe.
+ */
+public final class TimingWheel<T> {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int MASK = SLOTS - 1;
+
+    private final long tickMillis;
+    private final int levels;
+    // Each slot is a circular list headed by a sentinel, so unlinking never needs to know the slot
+    private final Timer<T>[][] slots;
+    private long currentTick;
+    private int size;
+
+    /**
+     * @param reachMillis how far ahead timers will usually be set; decides the number of levels
+     */
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickMillis, long reachMillis, long nowMillis) {
+        this.tickMillis = tickMillis;
+        int levels = 1;
+        while (levels < 10 && reachMillis / tickMillis >= 1L << (SLOT_BITS * levels)) {
+            levels++;
+        }
+        this.levels = levels;
+        this.slots = new Timer[levels][SLOTS];
+        for (Timer<T>[] level : slots) {
+            for (int i = 0; i < SLOTS; i++) {
+                level[i] = new Timer<>(null, 0);
+                level[i].prev = level[i];
+                level[i].next = level[i];
+            }
+        }
+        this.currentTick = Math.floorDiv(nowMillis, tickMillis);
+    }
+
+    /**
+     * Schedules {@code value} to fire at {@code fireAtMillis}, or on the next tick if that has passed.
+     */
+    public Timer<T> schedule(long fireAtMillis, T value) {
+        long tick = Math.max(-Math.floorDiv(-fireAtMillis, tickMillis), currentTick + 1);
+        Timer<T> timer = new Timer<>(value, tick);
+        place(timer);
+        size++;
+        return timer;
+    }
+
+    /**
+     * Returns whether the timer was still pending.
+     */
+    public boolean cancel(Timer<T> timer) {
+        if (timer.next == null) {
+            return false;
+        }
+        unlink(timer);
+        size--;
+        return true;
+    }
+
+    /**
+     * Runs the clock up to {@code nowMillis}, handing every timer that falls due to {@code expired} in
+     * firing order. {@code expired} may schedule and cancel timers.
+     */
+    public void advanceTo(long nowMillis, Consumer<T> expired) {
+        long target = Math.floorDiv(nowMillis, tickMillis);
+        while (currentTick < target) {
+            currentTick++;
+            for (int level = 1; level < levels && (currentTick & ((1L << (SLOT_BITS * level)) - 1)) == 0; level++) {
+                // Timers move to a lower level, or to another slot if they are still out of reach
+                Timer<T> head = slots[level][(int) (currentTick >>> (SLOT_BITS * level)) & MASK];
+                while (head.next != head) {
+                    Timer<T> timer = head.next;
+                    unlink(timer);
+                    place(timer);
+                }
+            }
+            Timer<T> head = slots[0][(int) currentTick & MASK];
+            while (head.next != head) {
+                Timer<T> timer = head.next;
+                unlink(timer);
+                if (timer.tick > currentTick) {
+                    // Out of reach of a single-level wheel
+                    place(timer);
+                    continue;
+                }
+                size--;
+                expired.accept(timer.value);
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void place(Timer<T> timer) {
+        long delta = timer.tick - currentTick;
+        int level = 0;
+        while (level < levels - 1 && delta >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        long reach = 1L << (SLOT_BITS * levels);
+        long slotTick = delta < reach ? timer.tick : currentTick + reach - 1;
+        Timer<T> head = slots[level][(int) (slotTick >>> (SLOT_BITS * level)) & MASK];
+        timer.prev = head.prev;
+        timer.next = head;
+        head.prev.next = timer;
+        head.prev = timer;
+    }
+
+    private void unlink(Timer<T> timer) {
+        timer.prev.next = timer.next;
+        timer.next.prev = timer.prev;
+        timer.prev = null;
+        timer.next = null;
+    }
+
+    public static final class Timer<T> {
+
+        private final T value;
+        private final long tick;
+        private Timer<T> prev;
+        private Timer<T> next;
+
+        private Timer(T value, long tick) {
+            this.value = value;
+            this.tick = tick;
+        }
+
+        public T getValue() {
+            return value;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.todolist.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves todos that were completed and then left alone for {@code todo.archive.after} out of the live
+ * collection, every {@code todo.archive.interval}. A run moves batches of {@code todo.archive.batch-size}
+ * until one comes back short.
+ *
+ * <p>To leave Mongo to live traffic, the archiver is busy at most {@code todo.archive.max-duty} of the
+ * time: after each batch it pauses in proportion to how long the batch took, so batches are spaced
+ * further apart as Mongo slows down. It runs on its own thread rather than the shared scheduler, which
+ * a long run would otherwise hold up.
+ */
+@Component
+@Profile("!embedded")
+public class TodoArchiver {
+
+    private static final Logger log = LoggerFactory.getLogger(TodoArchiver.class);
+
+    @Autowired
+    private TodoService todoService;
+
+    @Value("${todo.archive.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${todo.archive.after:30d}")
+    private Duration after = Duration.ofDays(30);
+
+    @Value("${todo.archive.batch-size:500}")
+    private int batchSize = 500;
+
+    @Value("${todo.archive.interval:1h}")
+    private Duration interval = Duration.ofHours(1);
+
+    @Value("${todo.archive.initial-delay:1m}")
+    private Duration initialDelay = Duration.ofMinutes(1);
+
+    @Value("${todo.archive.max-duty:0.1}")
+    private double maxDuty = 0.1;
+
+    private volatile Thread worker;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        if (maxDuty <= 0 || maxDuty > 1) {
+            throw new IllegalArgumentException("todo.archive.max-duty must be in (0, 1]");
+        }
+        worker = new Thread(this::run, "todo-archiver");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    public void stop() {
+        Thread thread = worker;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    /**
+     * Archives everything that was due for it at {@code nowMillis} and returns how many todos were moved.
+     */
+    int archive(long nowMillis) throws InterruptedException {
+        Date completedBefore = new Date(nowMillis - after.toMillis());
+        int total = 0;
+        while (true) {
+            long start = System.nanoTime();
+            int archived = todoService.archiveCompleted(completedBefore, batchSize);
+            total += archived;
+            if (archived < batchSize) {
+                return total;
+            }
+            TimeUnit.NANOSECONDS.sleep(pauseAfter(System.nanoTime() - start));
+        }
+    }
+
+    // Busy for busyNanos out of every busyNanos / maxDuty
+    long pauseAfter(long busyNanos) {
+        return (long) (busyNanos * (1 / maxDuty - 1));
+    }
+
+    private void run() {
+        try {
+            Thread.sleep(initialDelay.toMillis());
+            while (true) {
+                try {
+                    int archived = archive(System.currentTimeMillis());
+                    if (archived > 0) {
+                        log.info("Archived {} completed todos", archived);
+                    }
+                } catch (DataAccessException e) {
+                    log.warn("Could not archive todos: {}", e.getMessage());
+                }
+                Thread.sleep(interval.toMillis());
+            }
+        } catch (InterruptedException e) {
+            // Shutting down
+        }
+    }
+}
@@ -0,0 +1,306 @@
+package com.todolist.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayDeque;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Fans todo changes out to event-stream subscribers.
+ *
+ * <p>Changes come from in-process {@link TodoChangedEvent}s until a Mongo change stream takes over
+ * through {@link #useExternalSource()}. Each change gets an id of the form {@code <epoch>-<sequence>}
+ * and its JSON is rendered once for all subscribers. The latest {@code todo.events.replay-size} changes
+ * are kept so a reconnecting client can resume after its {@code Last-Event-ID}; when that is no longer
+ * possible it gets a {@code reset} event and should reload.
+ *
+ * <p>Changes are fanned out in order on a single background thread. Every subscriber has a bounded
+ * queue, and a subscriber whose queue is full when a change arrives is evicted rather than allowed to
+ * hold the rest back; its client reconnects and resumes.
+ */
+@Component
+public class TodoChangeFeed {
+
+    public static final String RESET = "reset";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${todo.events.replay-size:10000}")
+    private int replaySize = 10000;
+
+    @Value("${todo.events.subscriber-buffer:256}")
+    private int subscriberBuffer = 256;
+
+    // Tells apart ids handed out before a restart, which cannot be resumed from
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private Entry[] recent;
+    private long nextSequence;
+    private volatile boolean externalSource;
+
+    // Fan-out runs on its own thread so a write does not wait for every subscriber to be offered the change
+    private Executor dispatcher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "todo-change-feed");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean dispatchScheduled = new AtomicBoolean();
+    // Guards the subscriber set against changes while a change is fanned out or a subscriber replays
+    private final Object fanOut = new Object();
+    private long dispatched;
+
+    @EventListener
+    public void onTodoChanged(TodoChangedEvent event) {
+        if (!externalSource) {
+            publish(event);
+        }
+    }
+
+    /**
+     * Stops publishing in-process events; changes now arrive through {@link #publish} from another source.
+     */
+    public void useExternalSource() {
+        externalSource = true;
+    }
+
+    public void publish(TodoChangedEvent event) {
+        String name = event.getType().name().toLowerCase(Locale.ROOT);
+        String data = json(event);
+        synchronized (this) {
+            if (recent == null) {
+                recent = new Entry[replaySize];
+            }
+            long sequence = nextSequence++;
+            recent[(int) (sequence % recent.length)] = new Entry(epoch + "-" + sequence, name, data);
+        }
+        if (dispatchScheduled.compareAndSet(false, true)) {
+            dispatcher.execute(this::dispatch);
+        }
+    }
+
+    /**
+     * Registers a subscriber, queueing the changes it missed after {@code lastEventId} if there is one.
+     * {@code onReady} runs whenever the subscription's queue stops being empty or it ends; it is called
+     * on the fan-out thread and must only hand the work off. It is not called for the replayed changes,
+     * so the caller should drain once after subscribing.
+     */
+    public Subscription subscribe(String lastEventId, Runnable onReady) {
+        Subscription subscription = new Subscription(subscriberBuffer, onReady);
+        synchronized (fanOut) {
+            if (lastEventId != null && !lastEventId.isBlank()) {
+                replayAfter(lastEventId, subscription);
+            }
+            subscriptions.add(subscription);
+        }
+        return subscription;
+    }
+
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    /**
+     * Gives idle subscribers something to write so dead connections are noticed and proxies keep live ones open.
+     */
+    @Scheduled(fixedDelayString = "${todo.events.heartbeat-interval:30s}")
+    public void heartbeat() {
+        for (Subscription subscription : subscriptions) {
+            subscription.offerIfIdle(Entry.HEARTBEAT);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (dispatcher instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    private void dispatch() {
+        dispatchScheduled.set(false);
+        synchronized (fanOut) {
+            while (true) {
+                Entry entry;
+                synchronized (this) {
+                    if (dispatched == nextSequence) {
+                        return;
+                    }
+                    if (nextSequence - dispatched > recent.length) {
+                        // Publishing outran the fan-out and overwrote undelivered changes; everyone reconnects
+                        dispatched = nextSequence;
+                        evictAll();
+                        return;
+                    }
+                    entry = recent[(int) (dispatched++ % recent.length)];
+                }
+                for (Subscription subscription : subscriptions) {
+                    if (!subscription.offer(entry)) {
+                        subscriptions.remove(subscription);
+                        subscription.end();
+                    }
+                }
+            }
+        }
+    }
+
+    private void evictAll() {
+        for (Subscription subscription : subscriptions) {
+            subscriptions.remove(subscription);
+            subscription.end();
+        }
+    }
+
+    // Replays what has been fanned out so far; anything later reaches the subscriber through the fan-out
+    private void replayAfter(String lastEventId, Subscription subscription) {
+        synchronized (this) {
+            long first = recent == null ? 0 : Math.max(nextSequence - recent.length, 0);
+            long after = sequenceOf(lastEventId);
+            if (after < first - 1 || after >= dispatched || dispatched - after - 1 > subscriberBuffer) {
+                subscription.queue.add(Entry.RESET);
+                return;
+            }
+            for (long sequence = after + 1; sequence < dispatched; sequence++) {
+                subscription.queue.add(recent[(int) (sequence % recent.length)]);
+            }
+        }
+    }
+
+    // -2 for ids that cannot be resumed from: malformed or from an earlier run
+    private long sequenceOf(String eventId) {
+        int dash = eventId.indexOf('-');
+        if (dash < 0 || !eventId.substring(0, dash).equals(epoch)) {
+            return -2;
+        }
+        try {
+            return Long.parseLong(eventId.substring(dash + 1));
+        } catch (NumberFormatException e) {
+            return -2;
+        }
+    }
+
+    private String json(TodoChangedEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize change to " + event.getId(), e);
+        }
+    }
+
+    /**
+     * One server-sent event. {@link #HEARTBEAT} has no id or data and is written as a comment.
+     */
+    public static final class Entry {
+
+        public static final Entry HEARTBEAT = new Entry(null, null, null);
+        static final Entry RESET = new Entry(null, TodoChangeFeed.RESET, "{}");
+
+        private final String id;
+        private final String name;
+        private final String data;
+
+        Entry(String id, String name, String data) {
+            this.id = id;
+            this.name = name;
+            this.data = data;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getData() {
+            return data;
+        }
+    }
+
+    public final class Subscription {
+
+        private final ArrayDeque<Entry> queue = new ArrayDeque<>();
+        private final int capacity;
+        private final Runnable onReady;
+        private boolean ended;
+
+        private Subscription(int capacity, Runnable onReady) {
+            this.capacity = capacity;
+            this.onReady = onReady;
+        }
+
+        /**
+         * Next queued entry, or {@code null} when the queue is empty.
+         */
+        public synchronized Entry poll() {
+            return queue.poll();
+        }
+
+        public synchronized boolean hasQueued() {
+            return !queue.isEmpty();
+        }
+
+        /**
+         * Whether the subscription was evicted or cancelled; entries queued before that can still be polled.
+         */
+        public synchronized boolean isEnded() {
+            return ended;
+        }
+
+        public void cancel() {
+            subscriptions.remove(this);
+            synchronized (this) {
+                ended = true;
+                queue.clear();
+            }
+        }
+
+        private boolean offer(Entry entry) {
+            synchronized (this) {
+                if (ended) {
+                    return true;
+                }
+                if (queue.size() >= capacity) {
+                    return false;
+                }
+                queue.add(entry);
+                if (queue.size() > 1) {
+                    return true;
+                }
+            }
+            onReady.run();
+            return true;
+        }
+
+        private void offerIfIdle(Entry entry) {
+            synchronized (this) {
+                if (ended || !queue.isEmpty()) {
+                    return;
+                }
+                queue.add(entry);
+            }
+            onReady.run();
+        }
+
+        private void end() {
+            synchronized (this) {
+                ended = true;
+            }
+            onReady.run();
+        }
+    }
+}
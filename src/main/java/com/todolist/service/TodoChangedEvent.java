@@ -0,0 +1,61 @@
+package com.todolist.service;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.todolist.model.Todo;
+
+/**
+ * Published by the todo services after a write has been applied. {@link #getTodo()} is the todo as
+ * written and is {@code null} for deletes and for todos moved to the archive.
+ */
+public class TodoChangedEvent {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED, ARCHIVED
+    }
+
+    private final Type type;
+    private final String id;
+    private final Todo todo;
+
+    private TodoChangedEvent(Type type, String id, Todo todo) {
+        this.type = type;
+        this.id = id;
+        this.todo = todo;
+    }
+
+    public static TodoChangedEvent created(Todo todo) {
+        return new TodoChangedEvent(Type.CREATED, todo.getId(), todo);
+    }
+
+    public static TodoChangedEvent updated(Todo todo) {
+        return new TodoChangedEvent(Type.UPDATED, todo.getId(), todo);
+    }
+
+    public static TodoChangedEvent deleted(String id) {
+        return new TodoChangedEvent(Type.DELETED, id, null);
+    }
+
+    public static TodoChangedEvent archived(String id) {
+        return new TodoChangedEvent(Type.ARCHIVED, id, null);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Todo getTodo() {
+        return todo;
+    }
+
+    /**
+     * Whether the todo has left the live collection, by a delete or by archiving.
+     */
+    @JsonIgnore
+    public boolean isRemoved() {
+        return type == Type.DELETED || type == Type.ARCHIVED;
+    }
+}
@@ -0,0 +1,212 @@
+package com.todolist.service;
+
+import com.todolist.model.Todo;
+import com.todolist.repository.TodoRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Group commit for creates. When {@code todo.ingest.enabled} is set, new todos are queued and a single
+ * writer thread inserts them in unordered bulk writes of up to {@code todo.ingest.batch-size}. The writer
+ * starts a batch as soon as a todo is waiting and keeps collecting for at most {@code todo.ingest.max-delay},
+ * so a longer delay trades latency for fewer, larger writes. Writes that arrive while a batch is in flight
+ * simply wait for the next one. A full queue rejects new todos instead of letting callers pile up.
+ */
+@Component
+public class TodoIngestQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(TodoIngestQueue.class);
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Value("${todo.ingest.enabled:false}")
+    private boolean enabled;
+
+    @Value("${todo.ingest.batch-size:500}")
+    private int batchSize = 500;
+
+    @Value("${todo.ingest.max-delay:2ms}")
+    private Duration maxDelay = Duration.ofMillis(2);
+
+    @Value("${todo.ingest.queue-capacity:10000}")
+    private int queueCapacity = 10000;
+
+    @Value("${todo.ingest.shutdown-timeout:10s}")
+    private Duration shutdownTimeout = Duration.ofSeconds(10);
+
+    @Value("${todo.ingest.insert-timeout:10s}")
+    private Duration insertTimeout = Duration.ofSeconds(10);
+
+    private BlockingQueue<Pending> queue;
+    private volatile boolean closed;
+    private Thread writer;
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        writer = new Thread(this::run, "todo-ingest-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queues a new todo for the next batch, assigning its id up front. The future completes with the todo
+     * once the batch is acknowledged, or with the error that failed it.
+     *
+     * @throws RejectedExecutionException if the queue is full or shutting down
+     */
+    public CompletableFuture<Todo> submit(Todo todo) {
+        if (closed) {
+            throw new RejectedExecutionException("Ingest queue is shutting down");
+        }
+        if (todo.getId() == null) {
+            todo.setId(new ObjectId().toHexString());
+        }
+        // What save() would have initialised for a new document
+        todo.setVersion(0L);
+        Pending pending = new Pending(todo);
+        if (!queue.offer(pending)) {
+            throw new RejectedExecutionException("Ingest queue is full");
+        }
+        // Shutdown may have started after the check above, and the writer and the final drain may both
+        // be done; if the todo is still queued nobody else will take it
+        if (closed && queue.remove(pending)) {
+            throw new RejectedExecutionException("Ingest queue is shutting down");
+        }
+        return pending.future;
+    }
+
+    /**
+     * {@link #submit(Todo)} and wait for the batch.
+     *
+     * @throws QueryTimeoutException if the batch is not acknowledged within {@code todo.ingest.insert-timeout};
+     *         the todo may still be written
+     */
+    public Todo insert(Todo todo) {
+        try {
+            return submit(todo).get(insertTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new QueryTimeoutException("Todo " + todo.getId() + " was not written within " + insertTimeout);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for the ingest queue", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        closed = true;
+        writer.join(shutdownTimeout.toMillis());
+        List<Pending> abandoned = new ArrayList<>();
+        queue.drainTo(abandoned);
+        for (Pending pending : abandoned) {
+            pending.future.completeExceptionally(new RejectedExecutionException("Ingest queue shut down before the todo was written"));
+        }
+    }
+
+    private void run() {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        while (true) {
+            try {
+                Pending first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    if (closed) {
+                        return;
+                    }
+                    continue;
+                }
+                batch.add(first);
+                fill(batch);
+            } catch (InterruptedException e) {
+                return;
+            }
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    private void fill(List<Pending> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + maxDelay.toNanos();
+        while (batch.size() < batchSize) {
+            if (queue.drainTo(batch, batchSize - batch.size()) > 0) {
+                continue;
+            }
+            long remaining = deadline - System.nanoTime();
+            Pending next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void write(List<Pending> batch) {
+        List<Todo> todos = new ArrayList<>(batch.size());
+        for (Pending pending : batch) {
+            todos.add(pending.todo);
+        }
+        Map<Integer, String> errors;
+        try {
+            errors = todoRepository.insertAll(todos);
+        } catch (RuntimeException e) {
+            log.warn("Could not write a batch of {} todos: {}", batch.size(), e.getMessage());
+            batch.forEach(pending -> pending.future.completeExceptionally(e));
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            Pending pending = batch.get(i);
+            String error = errors.get(i);
+            if (error == null) {
+                pending.future.complete(pending.todo);
+            } else {
+                pending.future.completeExceptionally(new DataIntegrityViolationException(error));
+            }
+        }
+    }
+
+    private static final class Pending {
+
+        private final Todo todo;
+        private final CompletableFuture<Todo> future = new CompletableFuture<>();
+
+        private Pending(Todo todo) {
+            this.todo = todo;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.todolist.service;
+
+import com.todolist.model.TodoFilter;
+import com.todolist.model.TodoJob;
+import com.todolist.model.TodoJobRequest;
+import com.todolist.repository.TodoRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs {@link TodoJob}s one at a time on a thread of their own. A job walks the todos matching its filter in
+ * id order, {@code todo.jobs.chunk-size} at a time, and changes each chunk with a single update or delete
+ * that repeats the filter, so todos that stopped matching in the meantime are left alone. Cancelling takes
+ * effect between chunks.
+ *
+ * <p>Jobs are kept in memory on the instance that took them, and are forgotten {@code todo.jobs.retention}
+ * after they finish.
+ */
+@Component
+public class TodoJobRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(TodoJobRunner.class);
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private TodoService todoService;
+
+    @Value("${todo.jobs.chunk-size:1000}")
+    private int chunkSize = 1000;
+
+    @Value("${todo.jobs.max-queued:100}")
+    private int maxQueued = 100;
+
+    @Value("${todo.jobs.retention:1h}")
+    private Duration retention = Duration.ofHours(1);
+
+    private final Map<String, TodoJob> jobs = new ConcurrentHashMap<>();
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void init() {
+        executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(maxQueued), runnable -> {
+            Thread thread = new Thread(runnable, "todo-jobs");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * @throws RejectedExecutionException if {@code todo.jobs.max-queued} jobs are already waiting
+     */
+    public TodoJob submit(TodoJobRequest request) {
+        forgetFinished(System.currentTimeMillis());
+        TodoJob job = new TodoJob(new ObjectId().toHexString(), request.getAction(), request.getFilter(),
+                request.getPriority(), new Date());
+        jobs.put(job.getId(), job);
+        try {
+            executor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            throw e;
+        }
+        return job;
+    }
+
+    public Optional<TodoJob> getJob(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    void run(TodoJob job) {
+        if (job.isCancelRequested()) {
+            job.finish(TodoJob.Status.CANCELLED, null);
+            return;
+        }
+        TodoFilter filter = job.getFilter();
+        try {
+            job.start(todoRepository.count(filter));
+            String afterId = null;
+            while (true) {
+                if (job.isCancelRequested()) {
+                    job.finish(TodoJob.Status.CANCELLED, null);
+                    return;
+                }
+                List<String> ids = todoRepository.findIdsMatching(filter, afterId, chunkSize);
+                if (!ids.isEmpty()) {
+                    job.progress(ids.size(), apply(job, ids));
+                }
+                if (ids.size() < chunkSize) {
+                    break;
+                }
+                afterId = ids.get(ids.size() - 1);
+            }
+            job.finish(TodoJob.Status.SUCCEEDED, null);
+        } catch (RuntimeException e) {
+            log.warn("Job {} failed: {}", job.getId(), e.getMessage());
+            job.finish(TodoJob.Status.FAILED, e.getMessage());
+        }
+    }
+
+    private int apply(TodoJob job, List<String> ids) {
+        return switch (job.getAction()) {
+            case COMPLETE -> todoService.updateMatching(ids, job.getFilter(), Map.of("completed", true));
+            case REPRIORITIZE -> todoService.updateMatching(ids, job.getFilter(), Map.of("priority", job.getPriority()));
+            case DELETE -> todoService.deleteMatching(ids, job.getFilter());
+        };
+    }
+
+    private void forgetFinished(long nowMillis) {
+        jobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt().getTime() < nowMillis - retention.toMillis());
+    }
+}
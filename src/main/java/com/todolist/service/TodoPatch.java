@@ -0,0 +1,78 @@
+package com.todolist.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.todolist.model.Todo;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * A validated PATCH body: the changed fields converted to their {@link Todo} types, plus the
+ * optional version the write is conditional on.
+ */
+final class TodoPatch {
+
+    private static final Map<String, Class<?>> PATCHABLE_FIELDS = Map.of(
+            "title", String.class,
+            "description", String.class,
+            "completed", Boolean.class,
+            "dueDate", Date.class,
+            "priority", String.class);
+
+    private final Map<String, Object> fields;
+    private final Long expectedVersion;
+
+    private TodoPatch(Map<String, Object> fields, Long expectedVersion) {
+        this.fields = fields;
+        this.expectedVersion = expectedVersion;
+    }
+
+    static TodoPatch parse(Map<String, Object> changes, ObjectMapper objectMapper, Validator validator) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        Long expectedVersion = null;
+        for (Map.Entry<String, Object> change : changes.entrySet()) {
+            String field = change.getKey();
+            if ("version".equals(field)) {
+                expectedVersion = objectMapper.convertValue(change.getValue(), Long.class);
+                continue;
+            }
+            Class<?> type = PATCHABLE_FIELDS.get(field);
+            if (type == null) {
+                throw new IllegalArgumentException("Field cannot be patched: " + field);
+            }
+            Object value = objectMapper.convertValue(change.getValue(), type);
+            if (value == null && type == Boolean.class) {
+                throw new IllegalArgumentException("Field cannot be null: " + field);
+            }
+            Set<ConstraintViolation<Todo>> violations = validator.validateValue(Todo.class, field, value);
+            if (!violations.isEmpty()) {
+                throw new IllegalArgumentException(describe(violations));
+            }
+            fields.put(field, value);
+        }
+        if (fields.isEmpty()) {
+            throw new IllegalArgumentException("No fields to patch");
+        }
+        return new TodoPatch(fields, expectedVersion);
+    }
+
+    static String describe(Set<ConstraintViolation<Todo>> violations) {
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    Map<String, Object> fields() {
+        return fields;
+    }
+
+    Long expectedVersion() {
+        return expectedVersion;
+    }
+}
@@ -0,0 +1,38 @@
+package com.todolist.service;
+
+import java.util.Date;
+
+/**
+ * Published by {@link TodoReminderScheduler} when an open todo reaches its due date ({@link Type#DUE}),
+ * and again if it is still open {@code todo.reminders.overdue-after} later ({@link Type#OVERDUE}).
+ * Reminders are delivered to {@code @EventListener} methods on the scheduler's thread, so listeners that
+ * do slow work should hand it off.
+ */
+public class TodoReminderEvent {
+
+    public enum Type {
+        DUE, OVERDUE
+    }
+
+    private final Type type;
+    private final String id;
+    private final Date dueDate;
+
+    public TodoReminderEvent(Type type, String id, Date dueDate) {
+        this.type = type;
+        this.id = id;
+        this.dueDate = dueDate;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Date getDueDate() {
+        return dueDate;
+    }
+}
@@ -0,0 +1,248 @@
+package com.todolist.service;
+
+import com.todolist.model.Todo;
+import com.todolist.repository.TodoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Publishes {@link TodoReminderEvent}s as open todos fall due, from a {@link TimingWheel} holding one timer
+ * per todo. Only todos due within {@code todo.reminders.horizon} get a timer. That window is filled at
+ * startup by a single range query over the dueDate index and topped up as time moves on, and
+ * {@link TodoChangedEvent}s reschedule or cancel the timer of the todo they touch.
+ *
+ * <p>{@code todo.reminders.max-pending} caps the timers a load will create; a load that reaches it stops
+ * there and the window ends at that todo's due date until timers have fired.
+ *
+ * <p>Reminders that fell due while the application was down are not sent, though a todo already due
+ * but not yet overdue at startup still gets its overdue reminder. Every instance sends reminders for
+ * every todo.
+ */
+@Component
+public class TodoReminderScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(TodoReminderScheduler.class);
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${todo.reminders.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${todo.reminders.tick:1s}")
+    private Duration tick = Duration.ofSeconds(1);
+
+    @Value("${todo.reminders.horizon:7d}")
+    private Duration horizon = Duration.ofDays(7);
+
+    @Value("${todo.reminders.overdue-after:1d}")
+    private Duration overdueAfter = Duration.ofDays(1);
+
+    @Value("${todo.reminders.max-pending:1000000}")
+    private int maxPending = 1_000_000;
+
+    @Value("${todo.stream.batch-size:500}")
+    private int batchSize = 500;
+
+    @Value("${todo.views.load-retry-delay:30s}")
+    private Duration retryDelay = Duration.ofSeconds(30);
+
+    private final Object lock = new Object();
+    private final Map<String, TimingWheel.Timer<TodoReminderEvent>> pending = new HashMap<>();
+    private TimingWheel<TodoReminderEvent> wheel;
+    // Time the wheel has been advanced to
+    private long now;
+    // Open todos due before this have their timer; later ones are picked up when the window moves on
+    private long loadedUntil;
+    // Ids written while a load is running; the load must not overwrite them with older reads
+    private Set<String> writtenDuringLoad;
+    private long nextLoadAttempt;
+    private volatile Thread ticker;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        init(System.currentTimeMillis());
+        ticker = new Thread(this::run, "todo-reminders");
+        ticker.setDaemon(true);
+        ticker.start();
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    public void stop() {
+        Thread thread = ticker;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    @EventListener
+    public void onTodoChanged(TodoChangedEvent event) {
+        synchronized (lock) {
+            if (wheel == null) {
+                return;
+            }
+            if (writtenDuringLoad != null) {
+                writtenDuringLoad.add(event.getId());
+            }
+            if (event.isRemoved()) {
+                cancel(event.getId());
+            } else {
+                schedule(event.getTodo());
+            }
+        }
+    }
+
+    void init(long nowMillis) {
+        synchronized (lock) {
+            wheel = new TimingWheel<>(tick.toMillis(), horizon.plus(overdueAfter).toMillis(), nowMillis);
+            now = nowMillis;
+            // Todos that are due but not yet overdue still need their overdue reminder
+            loadedUntil = nowMillis - overdueAfter.toMillis();
+        }
+    }
+
+    /**
+     * Fires the reminders that fell due up to {@code nowMillis}, then loads more of the window if it is
+     * running short.
+     */
+    void tick(long nowMillis) {
+        List<TodoReminderEvent> fired = new ArrayList<>();
+        boolean load;
+        synchronized (lock) {
+            now = nowMillis;
+            wheel.advanceTo(nowMillis, reminder -> fire(reminder, fired));
+            load = loadedUntil - nowMillis < horizon.toMillis() / 2 && pending.size() < maxPending
+                    && nowMillis >= nextLoadAttempt;
+        }
+        for (TodoReminderEvent reminder : fired) {
+            try {
+                eventPublisher.publishEvent(reminder);
+            } catch (RuntimeException e) {
+                log.warn("Reminder listener failed for todo {}: {}", reminder.getId(), e.getMessage());
+            }
+        }
+        if (load) {
+            load(nowMillis);
+        }
+    }
+
+    int pendingCount() {
+        synchronized (lock) {
+            return pending.size();
+        }
+    }
+
+    private void run() {
+        long tickMillis = tick.toMillis();
+        while (!Thread.currentThread().isInterrupted()) {
+            tick(System.currentTimeMillis());
+            try {
+                Thread.sleep(tickMillis - System.currentTimeMillis() % tickMillis);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private void load(long nowMillis) {
+        long from;
+        long until = nowMillis + horizon.toMillis();
+        synchronized (lock) {
+            from = loadedUntil;
+            loadedUntil = until;
+            writtenDuringLoad = new HashSet<>();
+        }
+        int loaded = 0;
+        try (Stream<Todo> todos = todoRepository.streamDueBetween(new Date(from), new Date(until), batchSize)) {
+            Iterator<Todo> iterator = todos.iterator();
+            while (iterator.hasNext()) {
+                Todo todo = iterator.next();
+                synchronized (lock) {
+                    if (pending.size() >= maxPending) {
+                        loadedUntil = todo.getDueDate().getTime();
+                        log.warn("Reminders past {} wait until fewer than {} are pending", todo.getDueDate(), maxPending);
+                        break;
+                    }
+                    if (!writtenDuringLoad.contains(todo.getId())) {
+                        schedule(todo);
+                        loaded++;
+                    }
+                }
+            }
+            log.debug("Loaded {} reminders due before {}", loaded, new Date(until));
+        } catch (DataAccessException e) {
+            synchronized (lock) {
+                loadedUntil = from;
+                nextLoadAttempt = nowMillis + retryDelay.toMillis();
+            }
+            log.warn("Could not load reminders, retrying in {}: {}", retryDelay, e.getMessage());
+        } finally {
+            synchronized (lock) {
+                writtenDuringLoad = null;
+            }
+        }
+    }
+
+    // Called with the lock held
+    private void schedule(Todo todo) {
+        cancel(todo.getId());
+        if (todo.isCompleted() || todo.getDueDate() == null) {
+            return;
+        }
+        long due = todo.getDueDate().getTime();
+        if (due >= loadedUntil) {
+            return;
+        }
+        if (due >= now) {
+            pending.put(todo.getId(), wheel.schedule(due,
+                    new TodoReminderEvent(TodoReminderEvent.Type.DUE, todo.getId(), todo.getDueDate())));
+        } else if (due + overdueAfter.toMillis() > now) {
+            pending.put(todo.getId(), wheel.schedule(due + overdueAfter.toMillis(),
+                    new TodoReminderEvent(TodoReminderEvent.Type.OVERDUE, todo.getId(), todo.getDueDate())));
+        }
+    }
+
+    // Called with the lock held
+    private void cancel(String id) {
+        TimingWheel.Timer<TodoReminderEvent> timer = pending.remove(id);
+        if (timer != null) {
+            wheel.cancel(timer);
+        }
+    }
+
+    // Called with the lock held, from the wheel
+    private void fire(TodoReminderEvent reminder, List<TodoReminderEvent> fired) {
+        fired.add(reminder);
+        if (reminder.getType() == TodoReminderEvent.Type.DUE) {
+            pending.put(reminder.getId(), wheel.schedule(reminder.getDueDate().getTime() + overdueAfter.toMillis(),
+                    new TodoReminderEvent(TodoReminderEvent.Type.OVERDUE, reminder.getId(), reminder.getDueDate())));
+        } else {
+            pending.remove(reminder.getId());
+        }
+    }
+}
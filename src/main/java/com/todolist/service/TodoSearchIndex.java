@@ -0,0 +1,333 @@
+package com.todolist.service;
+
+import com.todolist.model.Todo;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over todo titles and descriptions for search-as-you-type.
+ *
+ * <p>Each write gives the todo a new internal doc number and retires the old one, so posting lists
+ * only grow at the tail and stay sorted as plain {@code int[]}s. Retired numbers are skipped at query
+ * time and purged once they outnumber live ones. Full terms sit in a sorted dictionary for prefix
+ * ranges; prefixes of up to {@value #SHORT_PREFIX} characters get their own lists so one- and
+ * two-letter queries read a single list instead of unioning thousands of terms.
+ *
+ * <p>Every query term is a prefix and all of them must match. Results come newest write first.
+ */
+@Component
+public class TodoSearchIndex {
+
+    static final int SHORT_PREFIX = 2;
+    static final int MAX_TERM_LENGTH = 32;
+    static final int MAX_QUERY_TERMS = 8;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, Postings> terms = new TreeMap<>();
+    private final Map<String, Postings> prefixes = new HashMap<>();
+    private final Map<String, Integer> docsById = new HashMap<>();
+    private final BitSet live = new BitSet();
+    private String[] idsByDoc = new String[1024];
+    private int nextDoc;
+
+    // Ids written while the initial load is running; the load must not overwrite them with older reads
+    private Set<String> writtenDuringLoad = new HashSet<>();
+    private volatile boolean ready;
+
+    @EventListener
+    public void onTodoChanged(TodoChangedEvent event) {
+        if (event.isRemoved()) {
+            remove(event.getId());
+        } else {
+            put(event.getTodo());
+        }
+    }
+
+    public void put(Todo todo) {
+        index(todo, false);
+    }
+
+    /**
+     * Adds a todo read by the initial load unless it has been written since the load started.
+     */
+    public void load(Todo todo) {
+        index(todo, true);
+    }
+
+    public void remove(String id) {
+        lock.writeLock().lock();
+        try {
+            if (writtenDuringLoad != null) {
+                writtenDuringLoad.add(id);
+            }
+            retire(id);
+            compactIfSparse();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void finishLoad() {
+        lock.writeLock().lock();
+        try {
+            writtenDuringLoad = null;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docsById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the ids of up to {@code limit} todos whose title or description has a word starting with
+     * each term of {@code query}.
+     *
+     * @throws IllegalStateException if the initial load has not finished
+     */
+    public List<String> search(String query, int limit) {
+        if (!ready) {
+            throw new IllegalStateException("Search index is still loading");
+        }
+        List<String> queryTerms = new ArrayList<>(tokenize(query));
+        if (queryTerms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        if (queryTerms.size() > MAX_QUERY_TERMS) {
+            queryTerms = queryTerms.subList(0, MAX_QUERY_TERMS);
+        }
+
+        lock.readLock().lock();
+        try {
+            List<Postings> lists = new ArrayList<>(queryTerms.size());
+            for (String term : queryTerms) {
+                Postings postings = postingsFor(term);
+                if (postings == null) {
+                    return List.of();
+                }
+                lists.add(postings);
+            }
+            lists.sort(Comparator.comparingInt(postings -> postings.size));
+
+            // Walk the shortest list newest first and probe the others
+            Postings driver = lists.get(0);
+            List<String> ids = new ArrayList<>(Math.min(limit, driver.size));
+            for (int i = driver.size - 1; i >= 0 && ids.size() < limit; i--) {
+                int doc = driver.docs[i];
+                if (live.get(doc) && containedInAll(lists, doc)) {
+                    ids.add(idsByDoc[doc]);
+                }
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void index(Todo todo, boolean fromLoad) {
+        Set<String> docTerms = tokenize(todo.getTitle());
+        docTerms.addAll(tokenize(todo.getDescription()));
+        Set<String> docPrefixes = new HashSet<>();
+        for (String term : docTerms) {
+            for (int length = 1; length <= Math.min(SHORT_PREFIX, term.length()); length++) {
+                docPrefixes.add(term.substring(0, length));
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (writtenDuringLoad != null) {
+                if (fromLoad && writtenDuringLoad.contains(todo.getId())) {
+                    return;
+                }
+                if (!fromLoad) {
+                    writtenDuringLoad.add(todo.getId());
+                }
+            }
+            retire(todo.getId());
+            int doc = nextDoc++;
+            if (doc == idsByDoc.length) {
+                idsByDoc = Arrays.copyOf(idsByDoc, doc + (doc >> 1));
+            }
+            idsByDoc[doc] = todo.getId();
+            docsById.put(todo.getId(), doc);
+            live.set(doc);
+            for (String term : docTerms) {
+                terms.computeIfAbsent(term, key -> new Postings()).add(doc);
+            }
+            for (String prefix : docPrefixes) {
+                prefixes.computeIfAbsent(prefix, key -> new Postings()).add(doc);
+            }
+            compactIfSparse();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void retire(String id) {
+        Integer doc = docsById.remove(id);
+        if (doc != null) {
+            live.clear(doc);
+            idsByDoc[doc] = null;
+        }
+    }
+
+    private Postings postingsFor(String term) {
+        if (term.length() <= SHORT_PREFIX) {
+            return prefixes.get(term);
+        }
+        NavigableMap<String, Postings> matches = terms.subMap(term, true, term + Character.MAX_VALUE, false);
+        if (matches.size() <= 1) {
+            return matches.isEmpty() ? null : matches.firstEntry().getValue();
+        }
+        return union(matches.values());
+    }
+
+    // Linear in the total list length: set bits, then read them back in order
+    private Postings union(Collection<Postings> lists) {
+        BitSet docs = new BitSet(nextDoc);
+        for (Postings postings : lists) {
+            for (int i = 0; i < postings.size; i++) {
+                docs.set(postings.docs[i]);
+            }
+        }
+        Postings union = new Postings();
+        union.docs = new int[docs.cardinality()];
+        for (int doc = docs.nextSetBit(0); doc >= 0; doc = docs.nextSetBit(doc + 1)) {
+            union.docs[union.size++] = doc;
+        }
+        return union;
+    }
+
+    private static boolean containedInAll(List<Postings> lists, int doc) {
+        for (int i = 1; i < lists.size(); i++) {
+            Postings postings = lists.get(i);
+            if (Arrays.binarySearch(postings.docs, 0, postings.size, doc) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Renumbers live docs densely and drops retired ones once they make up more than half the numbers
+    private void compactIfSparse() {
+        int retired = nextDoc - docsById.size();
+        if (retired < 1024 || retired < docsById.size()) {
+            return;
+        }
+        int[] renumbered = new int[nextDoc];
+        String[] ids = new String[Math.max(1024, docsById.size() + (docsById.size() >> 1))];
+        int count = 0;
+        for (int doc = live.nextSetBit(0); doc >= 0; doc = live.nextSetBit(doc + 1)) {
+            renumbered[doc] = count;
+            ids[count] = idsByDoc[doc];
+            docsById.put(idsByDoc[doc], count);
+            count++;
+        }
+        compact(terms.values(), renumbered);
+        compact(prefixes.values(), renumbered);
+        idsByDoc = ids;
+        nextDoc = count;
+        live.clear();
+        live.set(0, count);
+    }
+
+    private void compact(Collection<Postings> lists, int[] renumbered) {
+        for (Iterator<Postings> iterator = lists.iterator(); iterator.hasNext(); ) {
+            Postings postings = iterator.next();
+            postings.retain(live, renumbered);
+            if (postings.size == 0) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Lower-cased, accent-folded words of {@code text}, each cut to {@value #MAX_TERM_LENGTH} characters.
+     */
+    static Set<String> tokenize(String text) {
+        Set<String> terms = new LinkedHashSet<>();
+        if (text == null) {
+            return terms;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                terms.add(normalize(text.substring(start, Math.min(i, start + MAX_TERM_LENGTH))));
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    private static String normalize(String word) {
+        for (int i = 0; i < word.length(); i++) {
+            if (word.charAt(i) > 0x7f) {
+                String folded = Normalizer.normalize(word, Normalizer.Form.NFD).replaceAll("\\p{M}+", "");
+                return folded.toLowerCase(Locale.ROOT);
+            }
+        }
+        return word.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Ascending doc numbers; appends are always larger than the current tail.
+     */
+    private static final class Postings {
+
+        private int[] docs = new int[2];
+        private int size;
+
+        void add(int doc) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size + (size >> 1) + 1);
+            }
+            docs[size++] = doc;
+        }
+
+        void retain(BitSet live, int[] renumbered) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                if (live.get(docs[i])) {
+                    docs[kept++] = renumbered[docs[i]];
+                }
+            }
+            size = kept;
+            if (docs.length > 2 * kept + 2) {
+                docs = Arrays.copyOf(docs, kept + 1);
+            }
+        }
+    }
+}
@@ -1,51 +1,478 @@
 package com.todolist.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.todolist.model.PartialTodo;
 import com.todolist.model.Todo;
+import com.todolist.model.TodoBulkOperation;
+import com.todolist.model.TodoBulkResult;
+import com.todolist.model.TodoChanges;
+import com.todolist.model.TodoCursor;
+import com.todolist.model.TodoFields;
+import com.todolist.model.TodoFilter;
+import com.todolist.model.TodoSlice;
+import com.todolist.model.TodoStats;
+import com.todolist.model.TodoSyncToken;
+import com.todolist.model.TodoTombstone;
 import com.todolist.repository.TodoRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PostConstruct;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
 
+// Every public method is timed as todo.service, tagged with its name. Methods returning a Stream are
+// timed until the stream is returned, not until it is consumed.
 @Service
+@Timed("todo.service")
 public class TodoService {
 
+    public static final String TODO_CACHE = "todos";
+    public static final int MAX_SEARCH_RESULTS = 100;
+
     @Autowired
     private TodoRepository todoRepository;
 
-    public List<Todo> getAllTodos() {
-        return todoRepository.findAll();
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TodoSearchIndex searchIndex;
+
+    @Autowired
+    private TodoStatistics statistics;
+
+    @Autowired
+    private TodoIngestQueue ingestQueue;
+
+    // Optional so the service also runs without caching
+    @Autowired(required = false)
+    private CacheManager cacheManager;
+
+    @Value("${todo.stream.batch-size:500}")
+    private int streamBatchSize = 500;
+
+    @Value("${todo.bulk.chunk-size:500}")
+    private int bulkChunkSize = 500;
+
+    @Value("${todo.bulk.max-operations:10000}")
+    private int bulkMaxOperations = 10000;
+
+    @Value("${todo.sync.tombstone-retention:30d}")
+    private Duration tombstoneRetention = Duration.ofDays(30);
+
+    @Value("${todo.sync.overlap:5s}")
+    private Duration syncOverlap = Duration.ofSeconds(5);
+
+    // Identical concurrent reads share one repository call; writes make later reads start a new one
+    private final SingleFlight<String, Optional<Todo>> todoReads = new SingleFlight<>();
+    private final SingleFlight<List<Object>, Page<?>> pageReads = new SingleFlight<>();
+
+    // Writes seen per stripe of ids, checked by loads that are about to be cached
+    private final AtomicLongArray writeStripes = new AtomicLongArray(64);
+    private Cache todoCache;
+
+    @PostConstruct
+    public void init() {
+        todoCache = cacheManager == null ? null : cacheManager.getCache(TODO_CACHE);
+    }
+
+    public List<Todo> getAllTodos(TodoFilter filter) {
+        return todoRepository.findAll(filter);
     }
 
-    public Page<Todo> getAllTodos(Pageable pageable) {
-        return todoRepository.findAll(pageable);
+    public Stream<Todo> streamAllTodos(TodoFilter filter) {
+        return todoRepository.streamAll(filter, streamBatchSize);
     }
 
+    @SuppressWarnings("unchecked")
+    public Page<Todo> getAllTodos(TodoFilter filter, Pageable pageable) {
+        return (Page<Todo>) pageReads.call(Arrays.asList(filter, null, pageable), () -> todoRepository.findAll(filter, pageable));
+    }
+
+    /**
+     * Todos with only the fields named in {@code fields}, which are all that is read from the database.
+     *
+     * @throws IllegalArgumentException if {@code fields} names something that is not a todo field
+     */
+    public List<PartialTodo> getAllTodos(TodoFilter filter, String fields) {
+        TodoFields selected = TodoFields.of(fields);
+        return todoRepository.findAll(filter, selected).stream().map(selected::project).toList();
+    }
+
+    public Stream<PartialTodo> streamAllTodos(TodoFilter filter, String fields) {
+        TodoFields selected = TodoFields.of(fields);
+        return todoRepository.streamAll(filter, selected, streamBatchSize).map(selected::project);
+    }
+
+    @SuppressWarnings("unchecked")
+    public Page<PartialTodo> getAllTodos(TodoFilter filter, String fields, Pageable pageable) {
+        TodoFields selected = TodoFields.of(fields);
+        return (Page<PartialTodo>) pageReads.call(Arrays.asList(filter, selected, pageable),
+                () -> todoRepository.findAll(filter, selected, pageable).map(selected::project));
+    }
+
+    public TodoSlice getTodosByCursor(String sort, String direction, int size, String token) {
+        TodoCursor cursor = TodoCursor.of(sort, direction, token);
+        int limit = TodoCursor.clampSize(size);
+        return TodoSlice.of(todoRepository.findAfter(cursor, limit + 1), limit, cursor);
+    }
+
+    /**
+     * Prefix search over titles and descriptions, newest write first.
+     *
+     * @throws IllegalStateException if the search index is still loading
+     */
+    public List<Todo> searchTodos(String query, int limit) {
+        List<String> ids = searchIndex.search(query, Math.min(limit, MAX_SEARCH_RESULTS));
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<String, Todo> todosById = new HashMap<>();
+        todoRepository.findAllById(ids).forEach(todo -> todosById.put(todo.getId(), todo));
+        return ids.stream().map(todosById::get).filter(Objects::nonNull).toList();
+    }
+
+    /**
+     * Todos changed and deleted since {@code token}, or every todo when there is no token.
+     *
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public TodoChanges getChanges(String token, int size) {
+        long now = System.currentTimeMillis();
+        TodoSyncToken position = TodoSyncToken.of(token).startingPass(now - syncOverlap.toMillis());
+        if (position.isExpired(now - tombstoneRetention.toMillis())) {
+            return TodoChanges.reset();
+        }
+        int limit = TodoCursor.clampSize(size);
+        List<TodoTombstone> tombstones = position.isFull() ? List.of() : todoRepository.findDeletedSince(position, limit + 1);
+        return TodoChanges.of(todoRepository.findChangedSince(position, limit + 1), tombstones, limit, position);
+    }
+
+    /**
+     * @throws IllegalStateException if the statistics are still loading
+     */
+    public TodoStats getStats() {
+        return statistics.snapshot();
+    }
+
+    // Misses are cached too; concurrent misses on one key share a single load through todoReads. A load
+    // that overlapped a write may have read the todo as it was before it. The write bumps the key's stripe
+    // once it has committed and evicts after that, so whichever of the load's check and the write's evict
+    // comes second removes what the load cached.
+    @SuppressWarnings("unchecked")
     public Optional<Todo> getTodoById(String id) {
-        return todoRepository.findById(id);
+        if (todoCache == null) {
+            return todoReads.call(id, () -> todoRepository.findById(id));
+        }
+        Cache.ValueWrapper cached = todoCache.get(id);
+        if (cached != null) {
+            return (Optional<Todo>) cached.get();
+        }
+        int stripe = stripe(id);
+        long writesBefore = writeStripes.get(stripe);
+        Optional<Todo> todo = todoReads.call(id, () -> todoRepository.findById(id));
+        todoCache.put(id, todo);
+        if (writeStripes.get(stripe) != writesBefore) {
+            todoCache.evict(id);
+        }
+        return todo;
+    }
+
+    // Not cached: archived todos are read rarely and never change
+    public Optional<Todo> getArchivedTodoById(String id) {
+        return todoRepository.findArchivedById(id);
     }
 
+    /**
+     * @throws java.util.concurrent.RejectedExecutionException if batched ingest is on and its queue is full
+     * @throws org.springframework.dao.QueryTimeoutException if batched ingest is on and the batch is not
+     *         acknowledged in time
+     */
+    @CacheEvict(cacheNames = TODO_CACHE, key = "#result.id")
     public Todo createTodo(Todo todo) {
         todo.setCompleted(false);
-        return todoRepository.save(todo);
+        todo.setVersion(null);
+        todo.setLastModified(new Date());
+        Todo createdTodo = ingestQueue.isEnabled() ? ingestQueue.insert(todo) : todoRepository.save(todo);
+        forgetReads(createdTodo.getId());
+        eventPublisher.publishEvent(TodoChangedEvent.created(createdTodo));
+        return createdTodo;
+    }
+
+    @CacheEvict(cacheNames = TODO_CACHE, key = "#id")
+    public Optional<Todo> updateTodo(String id, Todo todo) {
+        todo.setId(id);
+        Todo updatedTodo = todoRepository.replace(id, todo);
+        forgetReads(id);
+        if (updatedTodo == null) {
+            if (todo.getVersion() != null) {
+                failIfExists(id);
+            }
+            return Optional.empty();
+        }
+        eventPublisher.publishEvent(TodoChangedEvent.updated(updatedTodo));
+        return Optional.of(updatedTodo);
+    }
+
+    @CacheEvict(cacheNames = TODO_CACHE, key = "#id")
+    public Optional<Todo> patchTodo(String id, Map<String, Object> changes) {
+        TodoPatch patch = TodoPatch.parse(changes, objectMapper, validator);
+        Todo patchedTodo = todoRepository.patch(id, patch.fields(), patch.expectedVersion());
+        forgetReads(id);
+        if (patchedTodo == null) {
+            if (patch.expectedVersion() != null) {
+                failIfExists(id);
+            }
+            return Optional.empty();
+        }
+        eventPublisher.publishEvent(TodoChangedEvent.updated(patchedTodo));
+        return Optional.of(patchedTodo);
     }
 
+    // Forgets before bumping, so a load that sees the bump cannot join a call that started before it
+    private void forgetReads(String id) {
+        if (id != null) {
+            todoReads.forget(id);
+            writeStripes.incrementAndGet(stripe(id));
+        }
+        pageReads.forgetAll();
+    }
 
-    public Todo updateTodo(String id, Todo todo) {
-        Optional<Todo> existingTodo = todoRepository.findById(id);
-        if (existingTodo.isPresent()) {
-            todo.setId(id);
-            return todoRepository.save(todo);
-        } else {
-            throw new RuntimeException("Task not found with ID: " + id);
+    private void forgetAllReads() {
+        todoReads.forgetAll();
+        for (int i = 0; i < writeStripes.length(); i++) {
+            writeStripes.incrementAndGet(i);
         }
+        pageReads.forgetAll();
     }
 
-    public void deleteTodo(String id) {
-        todoRepository.deleteById(id);
+    private int stripe(String id) {
+        return (id.hashCode() & Integer.MAX_VALUE) % writeStripes.length();
+    }
+
+    // A conditional write that matched nothing is either a missing todo or a stale version
+    private void failIfExists(String id) {
+        if (todoRepository.existsById(id)) {
+            throw new OptimisticLockingFailureException("Task was modified concurrently, ID: " + id);
+        }
+    }
+
+    @CacheEvict(cacheNames = TODO_CACHE, key = "#id")
+    public boolean deleteTodo(String id) {
+        long removed = todoRepository.removeWithTombstone(id);
+        forgetReads(id);
+        if (removed == 0) {
+            return false;
+        }
+        eventPublisher.publishEvent(TodoChangedEvent.deleted(id));
+        return true;
+    }
+
+    @CacheEvict(cacheNames = TODO_CACHE, allEntries = true)
+    public List<TodoBulkResult> bulkWrite(List<TodoBulkOperation> operations) {
+        if (operations.size() > bulkMaxOperations) {
+            throw new IllegalArgumentException("Bulk request exceeds " + bulkMaxOperations + " operations");
+        }
+        TodoBulkResult[] results = new TodoBulkResult[operations.size()];
+        for (int start = 0; start < operations.size(); start += bulkChunkSize) {
+            writeChunk(operations, start, Math.min(start + bulkChunkSize, operations.size()), results);
+        }
+        return Arrays.asList(results);
+    }
+
+    // Each kind of write goes out as one bulk write per chunk: creates as an insert, updates as version-guarded
+    // replacements read back by stamp, deletes as one delete. Events carry the todos as stored.
+    private void writeChunk(List<TodoBulkOperation> operations, int start, int end, TodoBulkResult[] results) {
+        List<Todo> creates = new ArrayList<>();
+        List<Integer> createPositions = new ArrayList<>();
+        List<Todo> updates = new ArrayList<>();
+        List<Integer> updatePositions = new ArrayList<>();
+        List<String> deletes = new ArrayList<>();
+        List<Integer> deletePositions = new ArrayList<>();
+        for (int i = start; i < end; i++) {
+            TodoBulkOperation operation = operations.get(i);
+            TodoBulkResult rejection = reject(i, operation);
+            if (rejection != null) {
+                results[i] = rejection;
+            } else if (operation.getOp() == TodoBulkOperation.Type.CREATE) {
+                Todo todo = operation.getTodo();
+                todo.setCompleted(false);
+                // What save() would have initialised for a new document, as the ingest queue does
+                todo.setVersion(0L);
+                todo.setLastModified(new Date());
+                if (operation.getId() != null) {
+                    todo.setId(operation.getId());
+                } else if (todo.getId() == null) {
+                    todo.setId(new ObjectId().toHexString());
+                }
+                operation.setId(todo.getId());
+                creates.add(todo);
+                createPositions.add(i);
+            } else if (operation.getOp() == TodoBulkOperation.Type.UPDATE) {
+                Todo todo = operation.getTodo();
+                todo.setId(operation.getId());
+                updates.add(todo);
+                updatePositions.add(i);
+            } else {
+                deletes.add(operation.getId());
+                deletePositions.add(i);
+            }
+        }
+
+        if (!creates.isEmpty()) {
+            Map<Integer, String> errors = todoRepository.insertAll(creates);
+            for (int k = 0; k < creates.size(); k++) {
+                int index = createPositions.get(k);
+                Todo todo = creates.get(k);
+                String error = errors.get(k);
+                if (error != null) {
+                    results[index] = new TodoBulkResult(index, TodoBulkOperation.Type.CREATE, todo.getId(), HttpStatus.CONFLICT.value(), error);
+                } else {
+                    results[index] = new TodoBulkResult(index, TodoBulkOperation.Type.CREATE, todo.getId(), HttpStatus.OK.value(), null);
+                    eventPublisher.publishEvent(TodoChangedEvent.created(todo));
+                }
+            }
+        }
+        if (!updates.isEmpty()) {
+            writeUpdates(updates, updatePositions, results);
+        }
+        if (!deletes.isEmpty()) {
+            List<String> removed = new ArrayList<>(todoRepository.removeMatching(deletes, TodoFilter.none()));
+            for (int k = 0; k < deletes.size(); k++) {
+                int index = deletePositions.get(k);
+                String id = deletes.get(k);
+                // remove() so that only the first of two deletes of the same todo reports it
+                if (removed.remove(id)) {
+                    results[index] = new TodoBulkResult(index, TodoBulkOperation.Type.DELETE, id, HttpStatus.NO_CONTENT.value(), null);
+                    eventPublisher.publishEvent(TodoChangedEvent.deleted(id));
+                } else {
+                    results[index] = new TodoBulkResult(index, TodoBulkOperation.Type.DELETE, id, HttpStatus.NOT_FOUND.value(), "Task not found with ID: " + id);
+                }
+            }
+        }
+        forgetAllReads();
+    }
+
+    // An update that missed is a stale version if the todo exists, which is only looked up for those that missed
+    private void writeUpdates(List<Todo> updates, List<Integer> positions, TodoBulkResult[] results) {
+        Map<String, Todo> replaced = new HashMap<>();
+        for (Todo todo : todoRepository.replaceAll(updates)) {
+            replaced.put(todo.getId(), todo);
+        }
+        List<String> stale = new ArrayList<>();
+        for (Todo todo : updates) {
+            if (!replaced.containsKey(todo.getId()) && todo.getVersion() != null) {
+                stale.add(todo.getId());
+            }
+        }
+        Set<String> existing = stale.isEmpty() ? Set.of() : todoRepository.findExistingIds(stale);
+        for (int k = 0; k < updates.size(); k++) {
+            int index = positions.get(k);
+            String id = updates.get(k).getId();
+            Todo stored = replaced.get(id);
+            if (stored != null) {
+                results[index] = new TodoBulkResult(index, TodoBulkOperation.Type.UPDATE, id, HttpStatus.OK.value(), null);
+                eventPublisher.publishEvent(TodoChangedEvent.updated(stored));
+            } else if (existing.contains(id)) {
+                results[index] = new TodoBulkResult(index, TodoBulkOperation.Type.UPDATE, id, HttpStatus.CONFLICT.value(), "Task was modified concurrently, ID: " + id);
+            } else {
+                results[index] = new TodoBulkResult(index, TodoBulkOperation.Type.UPDATE, id, HttpStatus.NOT_FOUND.value(), "Task not found with ID: " + id);
+            }
+        }
+    }
+
+    /**
+     * Moves up to {@code limit} todos completed and unchanged since {@code completedBefore} to the archive.
+     * Returns how many were moved.
+     */
+    @CacheEvict(cacheNames = TODO_CACHE, allEntries = true, condition = "#result > 0")
+    public int archiveCompleted(Date completedBefore, int limit) {
+        List<String> ids = todoRepository.archiveCompleted(completedBefore, limit);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        forgetAllReads();
+        ids.forEach(id -> eventPublisher.publishEvent(TodoChangedEvent.archived(id)));
+        return ids.size();
+    }
+
+    /**
+     * Sets {@code changes} on those of {@code ids} that still match {@code filter} and returns how many changed.
+     */
+    @CacheEvict(cacheNames = TODO_CACHE, allEntries = true, condition = "#result > 0")
+    public int updateMatching(List<String> ids, TodoFilter filter, Map<String, Object> changes) {
+        List<Todo> updated = todoRepository.updateMatching(ids, filter, changes);
+        if (updated.isEmpty()) {
+            return 0;
+        }
+        forgetAllReads();
+        updated.forEach(todo -> eventPublisher.publishEvent(TodoChangedEvent.updated(todo)));
+        return updated.size();
+    }
+
+    /**
+     * Deletes those of {@code ids} that still match {@code filter} and returns how many were deleted.
+     */
+    @CacheEvict(cacheNames = TODO_CACHE, allEntries = true, condition = "#result > 0")
+    public int deleteMatching(List<String> ids, TodoFilter filter) {
+        List<String> deleted = todoRepository.removeMatching(ids, filter);
+        if (deleted.isEmpty()) {
+            return 0;
+        }
+        forgetAllReads();
+        deleted.forEach(id -> eventPublisher.publishEvent(TodoChangedEvent.deleted(id)));
+        return deleted.size();
+    }
+
+    private TodoBulkResult reject(int index, TodoBulkOperation operation) {
+        if (operation == null || operation.getOp() == null) {
+            return new TodoBulkResult(index, null, null, HttpStatus.BAD_REQUEST.value(), "Operation type is required");
+        }
+        TodoBulkOperation.Type op = operation.getOp();
+        String id = operation.getId();
+        if (op != TodoBulkOperation.Type.CREATE && id == null) {
+            return new TodoBulkResult(index, op, null, HttpStatus.BAD_REQUEST.value(), "Id is required");
+        }
+        if (op != TodoBulkOperation.Type.DELETE) {
+            if (operation.getTodo() == null) {
+                return new TodoBulkResult(index, op, id, HttpStatus.BAD_REQUEST.value(), "Todo is required");
+            }
+            Set<ConstraintViolation<Todo>> violations = validator.validate(operation.getTodo());
+            if (!violations.isEmpty()) {
+                return new TodoBulkResult(index, op, id, HttpStatus.BAD_REQUEST.value(), TodoPatch.describe(violations));
+            }
+        }
+        return null;
     }
 
 }
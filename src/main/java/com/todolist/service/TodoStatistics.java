@@ -0,0 +1,290 @@
+package com.todolist.service;
+
+import com.todolist.model.Todo;
+import com.todolist.model.TodoStats;
+import com.todolist.model.TodoTally;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Todo counts kept current from {@link TodoChangedEvent}s so {@link #snapshot()} never touches Mongo.
+ *
+ * <p>The last seen priority, completion state and due day of every todo are kept so an update can take
+ * back what the todo counted for before. Open todos are also counted per due day; the overdue total is
+ * the sum of the days before today, advanced lazily when the date changes.
+ *
+ * <p>The per-todo states take memory in proportion to the number of todos, a map entry of roughly 100
+ * bytes each, and twice that while a rebuild is running.
+ *
+ * <p>Writes made by other instances, or lost between a write and its event, make the counts drift.
+ * {@link #agrees} compares them with a fresh aggregation from Mongo; when they differ, a rebuild reads
+ * every todo again and replaces both the states and the counts, so the next write to a drifted todo takes
+ * back what it really counted for.
+ */
+@Component
+public class TodoStatistics {
+
+    static final String NO_PRIORITY = "none";
+
+    private static final Logger log = LoggerFactory.getLogger(TodoStatistics.class);
+
+    private final Clock clock;
+
+    private Map<String, State> states = new HashMap<>();
+    private Map<String, Long> byPriority = new HashMap<>();
+    private TreeMap<Long, Long> openByDueDay = new TreeMap<>();
+    private long total;
+    private long completed;
+    private long overdue;
+    // Open todos due before this epoch day are included in overdue
+    private long overdueBefore;
+    private long writes;
+
+    // Ids written while the initial load or a rebuild is reading; it must not overwrite them with older reads
+    private Set<String> writtenDuringScan = new HashSet<>();
+    // States read by the rebuild in progress, if any
+    private Map<String, State> rebuilt;
+    private volatile boolean ready;
+
+    public TodoStatistics() {
+        this(Clock.systemDefaultZone());
+    }
+
+    TodoStatistics(Clock clock) {
+        this.clock = clock;
+        this.overdueBefore = LocalDate.now(clock).toEpochDay();
+    }
+
+    @EventListener
+    public void onTodoChanged(TodoChangedEvent event) {
+        if (event.isRemoved()) {
+            remove(event.getId());
+        } else {
+            put(event.getTodo());
+        }
+    }
+
+    public synchronized void put(Todo todo) {
+        if (writtenDuringScan != null) {
+            writtenDuringScan.add(todo.getId());
+        }
+        apply(todo.getId(), stateOf(todo));
+    }
+
+    /**
+     * Counts a todo read by the initial load unless it has been written since the load started.
+     */
+    public synchronized void load(Todo todo) {
+        if (writtenDuringScan != null && writtenDuringScan.contains(todo.getId())) {
+            return;
+        }
+        apply(todo.getId(), stateOf(todo));
+    }
+
+    public synchronized void remove(String id) {
+        if (writtenDuringScan != null) {
+            writtenDuringScan.add(id);
+        }
+        apply(id, null);
+    }
+
+    public synchronized void finishLoad() {
+        writtenDuringScan = null;
+        ready = true;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public ZoneId getZone() {
+        return clock.getZone();
+    }
+
+    /**
+     * Number of writes applied so far, to tell whether any landed while a reconciliation was reading.
+     */
+    public synchronized long getWriteCount() {
+        return writes;
+    }
+
+    /**
+     * @throws IllegalStateException if the initial load has not finished
+     */
+    public synchronized TodoStats snapshot() {
+        if (!ready) {
+            throw new IllegalStateException("Statistics are still loading");
+        }
+        long today = LocalDate.now(clock).toEpochDay();
+        if (today != overdueBefore) {
+            moveOverdueBoundary(today);
+        }
+        return new TodoStats(total, completed, new TreeMap<>(byPriority), overdue, openByDueDay.getOrDefault(today, 0L));
+    }
+
+    /**
+     * Whether the counts are the ones {@code tallies} add up to.
+     */
+    public synchronized boolean agrees(List<TodoTally> tallies) {
+        Map<String, Long> freshByPriority = new HashMap<>();
+        TreeMap<Long, Long> freshOpenByDueDay = new TreeMap<>();
+        long freshTotal = 0;
+        long freshCompleted = 0;
+        for (TodoTally tally : tallies) {
+            String priority = tally.getPriority() == null ? NO_PRIORITY : tally.getPriority();
+            freshByPriority.merge(priority, tally.getCount(), Long::sum);
+            freshTotal += tally.getCount();
+            if (tally.isCompleted()) {
+                freshCompleted += tally.getCount();
+            } else if (tally.getDueDay() != null) {
+                freshOpenByDueDay.merge(tally.getDueDay().toEpochDay(), tally.getCount(), Long::sum);
+            }
+        }
+        return freshTotal == total && freshCompleted == completed && freshByPriority.equals(byPriority)
+                && freshOpenByDueDay.equals(openByDueDay);
+    }
+
+    /**
+     * Starts reading every todo again through {@link #rebuild}, to replace the states and counts when
+     * {@link #finishRebuild} is called.
+     *
+     * @throws IllegalStateException if the initial load or another rebuild has not finished
+     */
+    public synchronized void startRebuild() {
+        if (!ready || rebuilt != null) {
+            throw new IllegalStateException("Statistics are already being loaded");
+        }
+        rebuilt = new HashMap<>();
+        writtenDuringScan = new HashSet<>();
+    }
+
+    /**
+     * Records a todo read by the rebuild unless it has been written since the rebuild started.
+     */
+    public synchronized void rebuild(Todo todo) {
+        if (rebuilt != null && !writtenDuringScan.contains(todo.getId())) {
+            rebuilt.put(todo.getId(), stateOf(todo));
+        }
+    }
+
+    /**
+     * Replaces the states with those read by the rebuild, keeping the current state of every todo written
+     * while it ran, and recounts from them.
+     */
+    public synchronized void finishRebuild() {
+        if (rebuilt == null) {
+            return;
+        }
+        for (String id : writtenDuringScan) {
+            State current = states.get(id);
+            if (current == null) {
+                rebuilt.remove(id);
+            } else {
+                rebuilt.put(id, current);
+            }
+        }
+        long previousTotal = total;
+        long previousCompleted = completed;
+        states = rebuilt;
+        rebuilt = null;
+        writtenDuringScan = null;
+        byPriority = new HashMap<>();
+        openByDueDay = new TreeMap<>();
+        total = 0;
+        completed = 0;
+        overdue = 0;
+        for (State state : states.values()) {
+            count(state, 1);
+        }
+        log.info("Rebuilt drifted statistics: total {} -> {}, completed {} -> {}",
+                previousTotal, total, previousCompleted, completed);
+    }
+
+    /**
+     * Drops a rebuild that could not read every todo, leaving the states and counts as they were. Does
+     * nothing once the rebuild has finished.
+     */
+    public synchronized void abortRebuild() {
+        rebuilt = null;
+        writtenDuringScan = null;
+    }
+
+    private void apply(String id, State next) {
+        State previous = next == null ? states.remove(id) : states.put(id, next);
+        if (previous != null) {
+            count(previous, -1);
+        }
+        if (next != null) {
+            count(next, 1);
+        }
+        writes++;
+    }
+
+    private void count(State state, long delta) {
+        total += delta;
+        add(byPriority, state.priority, delta);
+        if (state.completed) {
+            completed += delta;
+        } else if (state.dueDay != State.NO_DUE_DAY) {
+            add(openByDueDay, state.dueDay, delta);
+            if (state.dueDay < overdueBefore) {
+                overdue += delta;
+            }
+        }
+    }
+
+    private void moveOverdueBoundary(long today) {
+        if (today > overdueBefore) {
+            overdue += sum(openByDueDay.subMap(overdueBefore, true, today, false));
+        } else {
+            overdue -= sum(openByDueDay.subMap(today, true, overdueBefore, false));
+        }
+        overdueBefore = today;
+    }
+
+    private State stateOf(Todo todo) {
+        long dueDay = todo.getDueDate() == null
+                ? State.NO_DUE_DAY
+                : todo.getDueDate().toInstant().atZone(clock.getZone()).toLocalDate().toEpochDay();
+        return new State(todo.getPriority() == null ? NO_PRIORITY : todo.getPriority(), todo.isCompleted(), dueDay);
+    }
+
+    private static <K> void add(Map<K, Long> counts, K key, long delta) {
+        counts.merge(key, delta, (a, b) -> a + b == 0 ? null : a + b);
+    }
+
+    private static long sum(Map<Long, Long> counts) {
+        long sum = 0;
+        for (long count : counts.values()) {
+            sum += count;
+        }
+        return sum;
+    }
+
+    private static final class State {
+
+        static final long NO_DUE_DAY = Long.MIN_VALUE;
+
+        final String priority;
+        final boolean completed;
+        final long dueDay;
+
+        State(String priority, boolean completed, long dueDay) {
+            this.priority = priority;
+            this.completed = completed;
+            this.dueDay = dueDay;
+        }
+    }
+}
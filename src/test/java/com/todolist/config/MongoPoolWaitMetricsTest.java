@@ -0,0 +1,39 @@
+package com.todolist.config;
+
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionId;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.ConnectionCheckOutFailedEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MongoPoolWaitMetricsTest {
+
+    private final ServerId serverId = new ServerId(new ClusterId(), new ServerAddress("db", 27017));
+
+    @Test
+    void testRecordsCheckoutWaitByOutcome() {
+        // Arrange
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        MongoPoolWaitMetrics metrics = new MongoPoolWaitMetrics(registry);
+
+        // Act
+        metrics.connectionCheckedOut(new ConnectionCheckedOutEvent(new ConnectionId(serverId), 1, 2_000_000));
+        metrics.connectionCheckOutFailed(new ConnectionCheckOutFailedEvent(serverId, 2,
+                ConnectionCheckOutFailedEvent.Reason.TIMEOUT, 500_000_000));
+
+        // Assert
+        Timer success = registry.get("todo.mongo.pool.wait").tags("server.address", "db:27017", "outcome", "success").timer();
+        Timer timeout = registry.get("todo.mongo.pool.wait").tag("outcome", "timeout").timer();
+        assertEquals(1, success.count());
+        assertEquals(2, success.totalTime(TimeUnit.MILLISECONDS), 0.001);
+        assertEquals(500, timeout.totalTime(TimeUnit.MILLISECONDS), 0.001);
+    }
+}
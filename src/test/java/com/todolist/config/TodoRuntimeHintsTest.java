@@ -0,0 +1,31 @@
+package com.todolist.config;
+
+import com.todolist.model.Todo;
+import com.todolist.model.TodoCursor;
+import com.todolist.model.TodoFilter;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TodoRuntimeHintsTest {
+
+    @Test
+    void testRegistersWhatValidationAndJacksonReflectOn() throws Exception {
+        // Arrange
+        RuntimeHints hints = new RuntimeHints();
+
+        // Act
+        new TodoRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        // Assert
+        assertTrue(RuntimeHintsPredicates.reflection().onField(Todo.class.getDeclaredField("title")).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onField(TodoFilter.class.getDeclaredField("dueFrom")).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(TodoFilter.class.getMethod("isDueRangeValid")).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(Todo.class.getMethod("setDueDate", Date.class)).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(TodoCursor.class).test(hints));
+    }
+}
@@ -0,0 +1,114 @@
+package com.todolist.controller;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveLimiterTest {
+
+    private static final long MS = 1_000_000;
+
+    @Test
+    void testRejectsOverTheLimitWithoutWaiting() throws Exception {
+        // Arrange
+        AdaptiveLimiter limiter = new AdaptiveLimiter(2, 1, 10, 5, 2.0, 0.5);
+
+        // Act
+        boolean first = limiter.acquire(0, TimeUnit.MILLISECONDS);
+        boolean second = limiter.acquire(0, TimeUnit.MILLISECONDS);
+        boolean third = limiter.acquire(0, TimeUnit.MILLISECONDS);
+
+        // Assert
+        assertTrue(first);
+        assertTrue(second);
+        assertFalse(third);
+        assertEquals(2, limiter.getInFlight());
+        assertEquals(1, limiter.getRejected());
+    }
+
+    @Test
+    void testWaitingCallerGetsTheReleasedSlot() throws Exception {
+        // Arrange
+        AdaptiveLimiter limiter = new AdaptiveLimiter(1, 1, 10, 5, 2.0, 0.5);
+        limiter.acquire(0, TimeUnit.MILLISECONDS);
+        CompletableFuture<Boolean> waiter = CompletableFuture.supplyAsync(() -> {
+            try {
+                return limiter.acquire(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        while (limiter.getQueued() == 0) {
+            Thread.sleep(1);
+        }
+
+        // Act
+        limiter.release(0, MS, true);
+
+        // Assert
+        assertTrue(waiter.get(5, TimeUnit.SECONDS));
+        assertEquals(1, limiter.getInFlight());
+        assertEquals(0, limiter.getQueued());
+    }
+
+    @Test
+    void testGivesUpAfterMaxWait() throws Exception {
+        // Arrange
+        AdaptiveLimiter limiter = new AdaptiveLimiter(1, 1, 10, 5, 2.0, 0.5);
+        limiter.acquire(0, TimeUnit.MILLISECONDS);
+
+        // Act
+        boolean admitted = limiter.acquire(20, TimeUnit.MILLISECONDS);
+
+        // Assert
+        assertFalse(admitted);
+        assertEquals(0, limiter.getQueued());
+        assertEquals(1, limiter.getRejected());
+    }
+
+    @Test
+    void testLimitGrowsWhileLatencyHoldsAndIsCutOncePerRoundTripWhenItRises() throws Exception {
+        // Arrange
+        AdaptiveLimiter limiter = new AdaptiveLimiter(4, 1, 100, 5, 2.0, 0.5);
+        long now = 0;
+        for (int i = 0; i < 200; i++) {
+            limiter.acquire(0, TimeUnit.MILLISECONDS);
+            limiter.acquire(0, TimeUnit.MILLISECONDS);
+            limiter.acquire(0, TimeUnit.MILLISECONDS);
+            limiter.release(now, now + MS, true);
+            limiter.release(now, now + MS, true);
+            limiter.release(now, now + MS, true);
+            now += MS;
+        }
+        int grown = limiter.getLimit();
+
+        // Act
+        for (int i = 0; i < 20; i++) {
+            limiter.acquire(0, TimeUnit.MILLISECONDS);
+            limiter.release(now, now + 20 * MS, true);
+        }
+        int cut = limiter.getLimit();
+
+        // Assert
+        assertTrue(grown > 4, "limit grew to " + grown);
+        assertEquals(grown / 2, cut, 1);
+    }
+
+    @Test
+    void testFailureCutsTheLimitButNotBelowTheMinimum() throws Exception {
+        // Arrange
+        AdaptiveLimiter limiter = new AdaptiveLimiter(4, 3, 10, 5, 2.0, 0.5);
+        limiter.acquire(0, TimeUnit.MILLISECONDS);
+        limiter.acquire(0, TimeUnit.MILLISECONDS);
+
+        // Act
+        limiter.release(0, MS, false);
+        limiter.release(2 * MS, 3 * MS, false);
+
+        // Assert
+        assertEquals(3, limiter.getLimit());
+    }
+}
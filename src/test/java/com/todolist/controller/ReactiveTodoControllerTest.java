@@ -0,0 +1,267 @@
+package com.todolist.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.todolist.config.CborConfig;
+import com.todolist.model.Todo;
+import com.todolist.model.TodoFields;
+import com.todolist.model.TodoFilter;
+import com.todolist.model.TodoJob;
+import com.todolist.model.TodoJobRequest;
+import com.todolist.service.ReactiveTodoService;
+import com.todolist.service.TodoChangeFeed;
+import com.todolist.service.TodoChangedEvent;
+import com.todolist.service.TodoJobRunner;
+import com.todolist.service.TodoService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@WebFluxTest(ReactiveTodoController.class)
+@ActiveProfiles("reactive")
+@Import(TodoChangeFeed.class)
+class ReactiveTodoControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockitoBean
+    private ReactiveTodoService todoService;
+
+    @MockitoBean
+    private TodoService blockingTodoService;
+
+    @MockitoBean
+    private TodoJobRunner jobRunner;
+
+    @Autowired
+    private TodoChangeFeed changeFeed;
+
+    @Test
+    void testGetAllTodosAsNdjson() {
+        // Arrange
+        Todo todo1 = new Todo("Task 1", "Description 1", new Date(), "High");
+        Todo todo2 = new Todo("Task 2", "Description 2", new Date(), "Medium");
+        when(todoService.getAllTodos(any(TodoFilter.class))).thenReturn(Flux.just(todo1, todo2));
+
+        // Act & Assert
+        webTestClient.get().uri("/api/v1/todos")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBodyList(Todo.class).hasSize(2);
+    }
+
+    @Test
+    void testGetAllTodosAsCbor() throws Exception {
+        // Arrange
+        Todo todo1 = new Todo("Task 1", "Description 1", new Date(1_700_000_000_000L), "High");
+        Todo todo2 = new Todo("Task 2", "Description 2", null, "Medium");
+        when(todoService.getAllTodos(any(TodoFilter.class))).thenReturn(Flux.just(todo1, todo2));
+
+        // Act
+        byte[] body = webTestClient.get().uri("/api/v1/todos")
+                .accept(MediaType.APPLICATION_CBOR)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_CBOR)
+                .expectBody(byte[].class).returnResult().getResponseBody();
+
+        // Assert
+        ObjectMapper cborObjectMapper = CborConfig.cborObjectMapper(Jackson2ObjectMapperBuilder.json());
+        List<?> todos = cborObjectMapper.readValue(body, List.class);
+        assertEquals(2, todos.size());
+        assertEquals("Task 1", ((Map<?, ?>) todos.get(0)).get("title"));
+        assertEquals(1_700_000_000_000L, ((Map<?, ?>) todos.get(0)).get("dueDate"));
+    }
+
+    @Test
+    void testGetAllTodosDefaultsToJson() {
+        // Arrange
+        when(todoService.getAllTodos(any(TodoFilter.class))).thenReturn(Flux.empty());
+
+        // Act & Assert
+        webTestClient.get().uri("/api/v1/todos")
+                .accept(MediaType.ALL)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON);
+    }
+
+    @Test
+    void testCreateTodoFromCbor() throws Exception {
+        // Arrange
+        ObjectMapper cborObjectMapper = CborConfig.cborObjectMapper(Jackson2ObjectMapperBuilder.json());
+        Todo todo = new Todo("New Task", "New Description", new Date(1_700_000_000_000L), "Low");
+        when(todoService.createTodo(any(Todo.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+        // Act & Assert
+        webTestClient.post().uri("/api/v1/todos")
+                .contentType(MediaType.APPLICATION_CBOR)
+                .accept(MediaType.APPLICATION_JSON)
+                .bodyValue(cborObjectMapper.writeValueAsBytes(todo))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.title").isEqualTo("New Task")
+                .jsonPath("$.dueDate").isEqualTo("2023-11-14T22:13:20.000+00:00");
+    }
+
+    @Test
+    void testStreamEvents() {
+        // Act
+        Flux<ServerSentEvent<String>> events = webTestClient.get().uri("/api/v1/todos/events")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .header("Last-Event-ID", "gone-42")
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(new ParameterizedTypeReference<ServerSentEvent<String>>() {})
+                .getResponseBody();
+
+        // Assert
+        StepVerifier.create(events)
+                .assertNext(event -> assertEquals(TodoChangeFeed.RESET, event.event()))
+                .then(() -> changeFeed.publish(TodoChangedEvent.deleted("1")))
+                .assertNext(event -> {
+                    assertEquals("deleted", event.event());
+                    assertTrue(event.data().contains("\"id\":\"1\""));
+                    assertNotNull(event.id());
+                })
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void testGetAllTodosPaged() {
+        // Arrange
+        Todo todo1 = new Todo("Task 1", "Description 1", new Date(), "High");
+        PageRequest pageable = PageRequest.of(0, 5);
+        when(todoService.getAllTodos(any(TodoFilter.class), eq(pageable))).thenReturn(Mono.just(new PageImpl<>(List.of(todo1), pageable, 1)));
+
+        // Act & Assert
+        webTestClient.get().uri("/api/v1/todos/paged?page=0&size=5")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.content[0].title").isEqualTo("Task 1");
+    }
+
+    @Test
+    void testGetAllTodosWithFields() {
+        // Arrange
+        Todo todo = new Todo("Task 1", "Description 1", new Date(), "High");
+        todo.setId("1");
+        when(todoService.getAllTodos(any(TodoFilter.class), eq("title")))
+                .thenReturn(Flux.just(TodoFields.of("title").project(todo)));
+
+        // Act & Assert
+        webTestClient.get().uri("/api/v1/todos?fields=title")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).isEqualTo("{\"id\":\"1\",\"title\":\"Task 1\"}\n");
+    }
+
+    @Test
+    void testGetAllTodosRejectsUnknownFields() {
+        // Arrange
+        when(todoService.getAllTodos(any(TodoFilter.class), eq("owner")))
+                .thenReturn(Flux.error(new IllegalArgumentException("Unknown todo field: 'owner'")));
+
+        // Act & Assert
+        webTestClient.get().uri("/api/v1/todos?fields=owner")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void testGetAllTodosRejectsInvertedDueRange() {
+        // Act & Assert
+        webTestClient.get().uri("/api/v1/todos?dueFrom=2026-10-19T00:00:00.000Z&dueTo=2026-10-12T00:00:00.000Z")
+                .exchange()
+                .expectStatus().isBadRequest();
+        verify(todoService, never()).getAllTodos(any(TodoFilter.class));
+    }
+
+    @Test
+    void testGetTodoByIdNotFound() {
+        // Arrange
+        when(todoService.getTodoById("1")).thenReturn(Mono.empty());
+
+        // Act & Assert
+        webTestClient.get().uri("/api/v1/todos/{id}", "1")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void testSubmitAndCancelJob() {
+        // Arrange
+        TodoJob job = new TodoJob("job1", TodoJob.Action.REPRIORITIZE, new TodoFilter(false, "Low", null, null), "High", new Date());
+        when(jobRunner.submit(any(TodoJobRequest.class))).thenReturn(job);
+        when(jobRunner.getJob("job1")).thenReturn(Optional.of(job));
+
+        // Act & Assert
+        webTestClient.post().uri("/api/v1/todos/jobs")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"action\": \"reprioritize\", \"filter\": {\"completed\": false, \"priority\": \"Low\"}, \"priority\": \"High\"}")
+                .exchange()
+                .expectStatus().isAccepted()
+                .expectHeader().location("/api/v1/todos/jobs/job1")
+                .expectBody().jsonPath("$.status").isEqualTo("queued");
+        webTestClient.delete().uri("/api/v1/todos/jobs/{id}", "job1").exchange().expectStatus().isAccepted();
+        webTestClient.get().uri("/api/v1/todos/jobs/{id}", "job1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.cancelRequested").isEqualTo(true);
+    }
+
+    @Test
+    void testUpdateTodoVersionConflict() {
+        // Arrange
+        when(todoService.updateTodo(eq("1"), any(Todo.class)))
+                .thenReturn(Mono.error(new OptimisticLockingFailureException("Task was modified concurrently, ID: 1")));
+
+        // Act & Assert
+        webTestClient.put().uri("/api/v1/todos/{id}", "1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"title\": \"Updated Task\", \"priority\": \"Medium\", \"version\": 3}")
+                .exchange()
+                .expectStatus().isEqualTo(409);
+    }
+
+    @Test
+    void testDeleteTodo() {
+        // Arrange
+        when(todoService.deleteTodo("1")).thenReturn(Mono.just(true));
+        when(todoService.deleteTodo("2")).thenReturn(Mono.just(false));
+
+        // Act & Assert
+        webTestClient.delete().uri("/api/v1/todos/{id}", "1").exchange().expectStatus().isNoContent();
+        webTestClient.delete().uri("/api/v1/todos/{id}", "2").exchange().expectStatus().isNotFound();
+    }
+}
@@ -0,0 +1,137 @@
+package com.todolist.controller;
+
+import com.todolist.controller.TodoAdmissionFilter.RequestClass;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TodoAdmissionFilterTest {
+
+    private TodoAdmissionFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new TodoAdmissionFilter();
+        ReflectionTestUtils.setField(filter, "initialLimit", 1);
+        ReflectionTestUtils.setField(filter, "minLimit", 1);
+        ReflectionTestUtils.setField(filter, "maxWait", Duration.ofMillis(20));
+        filter.init();
+    }
+
+    @Test
+    void testClassifiesRequests() {
+        assertEquals(RequestClass.GET, TodoAdmissionFilter.classify(new MockHttpServletRequest("GET", "/api/v1/todos/abc")));
+        assertEquals(RequestClass.LIST, TodoAdmissionFilter.classify(new MockHttpServletRequest("GET", "/api/v1/todos")));
+        assertEquals(RequestClass.LIST, TodoAdmissionFilter.classify(new MockHttpServletRequest("GET", "/api/v1/todos/paged")));
+        assertEquals(RequestClass.WRITE, TodoAdmissionFilter.classify(new MockHttpServletRequest("POST", "/api/v1/todos")));
+        assertEquals(RequestClass.WRITE, TodoAdmissionFilter.classify(new MockHttpServletRequest("DELETE", "/api/v1/todos/abc")));
+        assertNull(TodoAdmissionFilter.classify(new MockHttpServletRequest("GET", "/api/v1/todos/events")));
+        assertNull(TodoAdmissionFilter.classify(new MockHttpServletRequest("GET", "/api/v1/todosx")));
+        assertNull(TodoAdmissionFilter.classify(new MockHttpServletRequest("GET", "/actuator/prometheus")));
+    }
+
+    @Test
+    void testAdmitsAndReleases() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/todos/abc");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        filter.doFilter(request, response, new MockFilterChain());
+
+        // Assert
+        assertEquals(200, response.getStatus());
+        assertEquals(0, filter.limiter(RequestClass.GET).getInFlight());
+    }
+
+    @Test
+    void testRejectsWith503AndRetryAfterWhenTheLimitIsReached() throws Exception {
+        // Arrange
+        filter.limiter(RequestClass.WRITE).acquire(0, TimeUnit.MILLISECONDS);
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/todos");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        // Act
+        filter.doFilter(request, response, chain);
+
+        // Assert
+        assertEquals(503, response.getStatus());
+        assertEquals("1", response.getHeader("Retry-After"));
+        assertNull(chain.getRequest());
+        assertEquals(1, filter.limiter(RequestClass.WRITE).getRejected());
+    }
+
+    @Test
+    void testCollectionReadsAreTurnedAwayWhileSingleReadsAreQueued() throws Exception {
+        // Arrange
+        ReflectionTestUtils.setField(filter, "maxWait", Duration.ofSeconds(10));
+        AdaptiveLimiter reads = filter.limiter(RequestClass.GET);
+        reads.acquire(0, TimeUnit.MILLISECONDS);
+        CompletableFuture<Boolean> queuedRead = CompletableFuture.supplyAsync(() -> {
+            try {
+                return reads.acquire(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        while (reads.getQueued() == 0) {
+            Thread.sleep(1);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        // Act
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/todos"), response, chain);
+
+        // Assert
+        assertEquals(503, response.getStatus());
+        assertNull(chain.getRequest());
+        assertEquals(1, filter.limiter(RequestClass.LIST).getRejected());
+        reads.release(0, 1, true);
+        assertTrue(queuedRead.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testStreamedResponseKeepsItsSlotUntilComplete() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/todos");
+        request.setAsyncSupported(true);
+        FilterChain chain = (req, res) -> req.startAsync();
+
+        // Act
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        int duringStream = filter.limiter(RequestClass.LIST).getInFlight();
+        request.getAsyncContext().complete();
+
+        // Assert
+        assertEquals(1, duringStream);
+        assertEquals(0, filter.limiter(RequestClass.LIST).getInFlight());
+    }
+
+    @Test
+    void testExposesLimiterState() throws Exception {
+        // Arrange
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        filter.limiter(RequestClass.GET).acquire(0, TimeUnit.MILLISECONDS);
+
+        // Act
+        filter.bindTo(registry);
+
+        // Assert
+        assertEquals(1, registry.get("todo.admission.in.flight").tag("class", "get").gauge().value());
+        assertEquals(1, registry.get("todo.admission.limit").tag("class", "write").gauge().value());
+        assertEquals(0, registry.get("todo.admission.rejected").tag("class", "list").functionCounter().count());
+    }
+}
@@ -1,6 +1,7 @@
 package com.todolist.controller;
 
 import com.todolist.model.Todo;
+import com.todolist.service.TodoService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,7 +15,10 @@ import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -27,6 +31,9 @@ public class TodoControllerIntegrationTest {
     @Autowired
     private TestRestTemplate restTemplate;
 
+    @Autowired
+    private TodoService todoService;
+
     private String baseUrl;
 
     @BeforeEach
@@ -133,4 +140,33 @@ public class TodoControllerIntegrationTest {
 
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
     }
+
+    @Test
+    public void testChangesReportTodosArchivedSinceTheToken() {
+        Todo todo = new Todo("Archived Todo", "This todo gets archived", new Date(), "Low");
+        String todoId = restTemplate.postForEntity(baseUrl, todo, Todo.class).getBody().getId();
+        Todo completed = restTemplate.getForEntity(baseUrl + "/" + todoId, Todo.class).getBody();
+        completed.setCompleted(true);
+        restTemplate.put(baseUrl + "/" + todoId, completed);
+        String token = syncAll(null, new ArrayList<>());
+
+        todoService.archiveCompleted(new Date(System.currentTimeMillis() + 1000), 10_000);
+
+        List<String> archived = new ArrayList<>();
+        syncAll(token, archived);
+        assertTrue(archived.contains(todoId));
+    }
+
+    // Follows /changes until the last page, collecting the archived ids, and returns the token for next time
+    @SuppressWarnings("unchecked")
+    private String syncAll(String token, List<String> archived) {
+        Map<String, Object> page;
+        do {
+            String url = baseUrl + "/changes" + (token == null ? "" : "?since=" + token);
+            page = restTemplate.getForEntity(url, Map.class).getBody();
+            archived.addAll((List<String>) page.get("archived"));
+            token = (String) page.get("nextToken");
+        } while (Boolean.TRUE.equals(page.get("hasMore")));
+        return token;
+    }
 }
\ No newline at end of file
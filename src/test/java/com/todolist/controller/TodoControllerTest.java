@@ -1,25 +1,62 @@
 package com.todolist.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.todolist.config.CborConfig;
+import com.todolist.model.PartialTodo;
+import com.todolist.model.ArchivedTodo;
 import com.todolist.model.Todo;
+import com.todolist.model.TodoBulkOperation;
+import com.todolist.model.TodoBulkResult;
+import com.todolist.model.TodoChanges;
+import com.todolist.model.TodoFields;
+import com.todolist.model.TodoFilter;
+import com.todolist.model.TodoJob;
+import com.todolist.model.TodoJobRequest;
+import com.todolist.model.TodoSlice;
+import com.todolist.model.TodoStats;
+import com.todolist.service.TodoChangeFeed;
+import com.todolist.service.TodoJobRunner;
+import com.todolist.service.TodoChangedEvent;
 import com.todolist.service.TodoService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Stream;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -31,13 +68,29 @@ class TodoControllerTest {
     @Mock
     private TodoService todoService;
 
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Spy
+    private TodoChangeFeed changeFeed = new TodoChangeFeed();
+
+    @Mock
+    private TodoJobRunner jobRunner;
+
+    @Spy
+    private TaskExecutor taskExecutor = new SyncTaskExecutor();
+
     @InjectMocks
     private TodoController todoController;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        mockMvc = MockMvcBuilders.standaloneSetup(todoController).build();
+        ReflectionTestUtils.setField(changeFeed, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(changeFeed, "dispatcher", (Executor) Runnable::run);
+        mockMvc = MockMvcBuilders.standaloneSetup(todoController)
+                .setCustomArgumentResolvers(new PageableHandlerMethodArgumentResolver())
+                .build();
     }
 
     @Test
@@ -46,7 +99,7 @@ class TodoControllerTest {
         Todo todo1 = new Todo("Task 1", "Description 1", new Date(), "High");
         Todo todo2 = new Todo("Task 2", "Description 2", new Date(), "Medium");
         List<Todo> todos = Arrays.asList(todo1, todo2);
-        when(todoService.getAllTodos()).thenReturn(todos);
+        when(todoService.getAllTodos(any(TodoFilter.class))).thenReturn(todos);
 
         // Act & Assert
         mockMvc.perform(get("/api/v1/todos")
@@ -60,15 +113,281 @@ class TodoControllerTest {
                 .andExpect(jsonPath("$[1].priority").value("Medium"));
     }
 
+    @Test
+    void testGetAllTodosAsCbor() throws Exception {
+        // Arrange
+        ObjectMapper cborObjectMapper = CborConfig.cborObjectMapper(Jackson2ObjectMapperBuilder.json());
+        MockMvc cborMockMvc = MockMvcBuilders.standaloneSetup(todoController)
+                .setMessageConverters(new MappingJackson2HttpMessageConverter(), new MappingJackson2CborHttpMessageConverter(cborObjectMapper))
+                .build();
+        Todo todo = new Todo("Task 1", "Description 1", new Date(1_700_000_000_000L), "High");
+        todo.setId("1");
+        when(todoService.getAllTodos(any(TodoFilter.class), eq("title,dueDate")))
+                .thenReturn(List.of(TodoFields.of("title,dueDate").project(todo)));
+
+        // Act
+        byte[] body = cborMockMvc.perform(get("/api/v1/todos")
+                        .param("fields", "title,dueDate")
+                        .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Assert
+        List<?> todos = cborObjectMapper.readValue(body, List.class);
+        assertEquals(List.of(Map.of("id", "1", "title", "Task 1", "dueDate", 1_700_000_000_000L)), todos);
+    }
+
+    @Test
+    void testCreateTodoFromCbor() throws Exception {
+        // Arrange
+        ObjectMapper cborObjectMapper = CborConfig.cborObjectMapper(Jackson2ObjectMapperBuilder.json());
+        MockMvc cborMockMvc = MockMvcBuilders.standaloneSetup(todoController)
+                .setMessageConverters(new MappingJackson2HttpMessageConverter(), new MappingJackson2CborHttpMessageConverter(cborObjectMapper))
+                .build();
+        Todo todo = new Todo("New Task", "New Description", new Date(1_700_000_000_000L), "Low");
+        when(todoService.createTodo(any(Todo.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act & Assert
+        cborMockMvc.perform(post("/api/v1/todos")
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .content(cborObjectMapper.writeValueAsBytes(todo)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("New Task"))
+                .andExpect(jsonPath("$.dueDate").value(1_700_000_000_000L));
+    }
+
+    @Test
+    void testSearchTodos() throws Exception {
+        // Arrange
+        Todo todo = new Todo("Buy milk", null, null, "High");
+        when(todoService.searchTodos("bu mi", 5)).thenReturn(List.of(todo));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/todos/search")
+                        .param("q", "bu mi")
+                        .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].title").value("Buy milk"));
+    }
+
+    @Test
+    void testSearchTodosWhileIndexLoading() throws Exception {
+        // Arrange
+        when(todoService.searchTodos("buy", 10)).thenThrow(new IllegalStateException("Search index is still loading"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/todos/search").param("q", "buy"))
+                .andExpect(status().isServiceUnavailable());
+    }
+
+    @Test
+    void testStreamEvents() throws Exception {
+        // Arrange
+        Todo todo = new Todo("Buy milk", null, null, "High");
+        todo.setId("1");
+        MvcResult result = mockMvc.perform(get("/api/v1/todos/events").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Act
+        changeFeed.publish(TodoChangedEvent.created(todo));
+        changeFeed.publish(TodoChangedEvent.deleted("1"));
+
+        // Assert
+        String body = result.getResponse().getContentAsString();
+        assertTrue(body.contains("event:created"));
+        assertTrue(body.contains("\"title\":\"Buy milk\""));
+        assertTrue(body.contains("event:deleted"));
+        assertTrue(body.contains("id:"));
+    }
+
+    @Test
+    void testStreamEventsResetsUnknownLastEventId() throws Exception {
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/v1/todos/events")
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                        .header("Last-Event-ID", "gone-42"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        assertTrue(result.getResponse().getContentAsString().contains("event:reset"));
+    }
+
+    @Test
+    void testGetStats() throws Exception {
+        // Arrange
+        when(todoService.getStats()).thenReturn(new TodoStats(5, 2, Map.of("High", 4L, "none", 1L), 1, 2));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/todos/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(5))
+                .andExpect(jsonPath("$.open").value(3))
+                .andExpect(jsonPath("$.byPriority.High").value(4))
+                .andExpect(jsonPath("$.overdue").value(1))
+                .andExpect(jsonPath("$.dueToday").value(2));
+    }
+
+    @Test
+    void testGetStatsWhileLoading() throws Exception {
+        // Arrange
+        when(todoService.getStats()).thenThrow(new IllegalStateException("Statistics are still loading"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/todos/stats"))
+                .andExpect(status().isServiceUnavailable());
+    }
+
+    @Test
+    void testGetAllTodosWithFilter() throws Exception {
+        // Arrange
+        when(todoService.getAllTodos(any(TodoFilter.class))).thenReturn(List.of());
+        ArgumentCaptor<TodoFilter> filter = ArgumentCaptor.forClass(TodoFilter.class);
+
+        // Act
+        mockMvc.perform(get("/api/v1/todos")
+                        .param("completed", "false")
+                        .param("priority", "High")
+                        .param("dueFrom", "2026-10-12T00:00:00.000Z")
+                        .param("dueTo", "2026-10-19T00:00:00.000Z"))
+                .andExpect(status().isOk());
+
+        // Assert
+        verify(todoService).getAllTodos(filter.capture());
+        assertEquals(Boolean.FALSE, filter.getValue().getCompleted());
+        assertEquals("High", filter.getValue().getPriority());
+        assertEquals(Instant.parse("2026-10-12T00:00:00Z"), filter.getValue().getDueFrom().toInstant());
+        assertEquals(Instant.parse("2026-10-19T00:00:00Z"), filter.getValue().getDueTo().toInstant());
+    }
+
+    @Test
+    void testGetAllTodosRejectsInvertedDueRange() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/todos")
+                        .param("dueFrom", "2026-10-19T00:00:00.000Z")
+                        .param("dueTo", "2026-10-12T00:00:00.000Z"))
+                .andExpect(status().isBadRequest());
+        verify(todoService, never()).getAllTodos(any(TodoFilter.class));
+    }
+
+    @Test
+    void testStreamAllTodosAsNdjson() throws Exception {
+        // Arrange
+        Todo todo1 = new Todo("Task 1", "Description 1", null, "High");
+        Todo todo2 = new Todo("Task 2", "Description 2", null, "Medium");
+        when(todoService.streamAllTodos(any(TodoFilter.class))).thenReturn(Stream.of(todo1, todo2));
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/v1/todos")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(
+                        "{\"id\":null,\"title\":\"Task 1\",\"description\":\"Description 1\",\"completed\":false,\"dueDate\":null,\"priority\":\"High\",\"version\":null,\"lastModified\":null}\n"
+                                + "{\"id\":null,\"title\":\"Task 2\",\"description\":\"Description 2\",\"completed\":false,\"dueDate\":null,\"priority\":\"Medium\",\"version\":null,\"lastModified\":null}\n"));
+        verify(todoService, never()).getAllTodos(any(TodoFilter.class));
+    }
+
+    @Test
+    void testGetAllTodosWithFieldsWritesOnlyThoseFields() throws Exception {
+        // Arrange
+        Todo todo = new Todo("Task 1", "Description 1", null, "High");
+        todo.setId("1");
+        TodoFields fields = TodoFields.of("title,completed");
+        when(todoService.getAllTodos(any(TodoFilter.class), eq("title,completed"))).thenReturn(List.of(fields.project(todo)));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/todos")
+                        .param("fields", "title,completed")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().string("[{\"id\":\"1\",\"title\":\"Task 1\",\"completed\":false}]"));
+        verify(todoService, never()).getAllTodos(any(TodoFilter.class));
+    }
+
+    @Test
+    void testGetAllTodosRejectsUnknownFields() throws Exception {
+        // Arrange
+        when(todoService.getAllTodos(any(TodoFilter.class), eq("title,owner")))
+                .thenThrow(new IllegalArgumentException("Unknown todo field: 'owner'"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/todos")
+                        .param("fields", "title,owner")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Unknown todo field: 'owner'"));
+    }
+
+    @Test
+    void testStreamAllTodosWithFields() throws Exception {
+        // Arrange
+        Todo todo = new Todo("Task 1", "Description 1", null, "High");
+        todo.setId("1");
+        when(todoService.streamAllTodos(any(TodoFilter.class), eq("title")))
+                .thenReturn(Stream.of(TodoFields.of("title").project(todo)));
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/v1/todos")
+                        .param("fields", "title")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string("{\"id\":\"1\",\"title\":\"Task 1\"}\n"));
+    }
+
+    @Test
+    void testStreamAllTodosRejectsUnknownFieldsBeforeStreaming() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/todos")
+                        .param("fields", "owner")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isBadRequest());
+        verify(todoService, never()).streamAllTodos(any(TodoFilter.class), anyString());
+    }
+
+    @Test
+    void testGetAllTodosPagedWithFields() throws Exception {
+        // Arrange
+        Todo todo = new Todo("Task 1", "Description 1", new Date(), "High");
+        Pageable pageable = PageRequest.of(0, 10);
+        Page<PartialTodo> page = new PageImpl<>(List.of(TodoFields.of("title,dueDate").project(todo)), pageable, 1);
+        when(todoService.getAllTodos(any(TodoFilter.class), eq("title,dueDate"), eq(pageable))).thenReturn(page);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/todos/paged")
+                        .param("page", "0")
+                        .param("size", "10")
+                        .param("fields", "title,dueDate")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].title").value("Task 1"))
+                .andExpect(jsonPath("$.content[0].dueDate").exists())
+                .andExpect(jsonPath("$.content[0].description").doesNotExist())
+                .andExpect(jsonPath("$.totalElements").value(1));
+    }
+
     @Test
     void testGetAllTodosPaged() throws Exception {
         // Arrange
         Todo todo1 = new Todo("Task 1", "Description 1", new Date(), "High");
         Todo todo2 = new Todo("Task 2", "Description 2", new Date(), "Medium");
         List<Todo> todos = Arrays.asList(todo1, todo2);
-        Pageable pageable = PageRequest.of(0, 10);
+        Pageable pageable = PageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "dueDate"));
         Page<Todo> todoPage = new PageImpl<>(todos, pageable, todos.size());
-        when(todoService.getAllTodos(pageable)).thenReturn(todoPage);
+        when(todoService.getAllTodos(any(TodoFilter.class), eq(pageable))).thenReturn(todoPage);
 
         // Act & Assert
         mockMvc.perform(get("/api/v1/todos/paged")
@@ -85,6 +404,74 @@ class TodoControllerTest {
                 .andExpect(jsonPath("$.content[1].priority").value("Medium"));
     }
 
+    @Test
+    void testGetTodosByCursor() throws Exception {
+        // Arrange
+        Todo todo1 = new Todo("Task 1", "Description 1", new Date(), "High");
+        Todo todo2 = new Todo("Task 2", "Description 2", new Date(), "Medium");
+        TodoSlice slice = new TodoSlice(Arrays.asList(todo1, todo2), true, "next-token");
+        when(todoService.getTodosByCursor("dueDate", "desc", 2, null)).thenReturn(slice);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/todos/cursor")
+                        .param("sort", "dueDate")
+                        .param("direction", "desc")
+                        .param("size", "2")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].title").value("Task 1"))
+                .andExpect(jsonPath("$.content[1].title").value("Task 2"))
+                .andExpect(jsonPath("$.size").value(2))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.nextToken").value("next-token"))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+    }
+
+    @Test
+    void testGetTodosByCursorInvalidToken() throws Exception {
+        // Arrange
+        when(todoService.getTodosByCursor("id", "asc", 20, "garbage"))
+                .thenThrow(new IllegalArgumentException("Invalid cursor token"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/todos/cursor")
+                        .param("token", "garbage")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testGetChanges() throws Exception {
+        // Arrange
+        Todo todo = new Todo("Task 1", null, null, "High");
+        todo.setId("1");
+        TodoChanges changes = new TodoChanges(List.of(todo), List.of("2"), List.of("3"), false, "next-token", false);
+        when(todoService.getChanges("since-token", 500)).thenReturn(changes);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/todos/changes")
+                        .param("since", "since-token"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changed[0].id").value("1"))
+                .andExpect(jsonPath("$.deleted[0]").value("2"))
+                .andExpect(jsonPath("$.archived[0]").value("3"))
+                .andExpect(jsonPath("$.nextToken").value("next-token"));
+    }
+
+    @Test
+    void testGetChangesWithExpiredOrInvalidToken() throws Exception {
+        // Arrange
+        when(todoService.getChanges("expired", 500)).thenReturn(TodoChanges.reset());
+        when(todoService.getChanges("garbage", 500)).thenThrow(new IllegalArgumentException("Invalid sync token"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/todos/changes").param("since", "expired"))
+                .andExpect(status().isGone())
+                .andExpect(jsonPath("$.reset").value(true));
+        mockMvc.perform(get("/api/v1/todos/changes").param("since", "garbage"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void testGetTodoById() throws Exception {
         // Arrange
@@ -113,6 +500,42 @@ class TodoControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void testGetArchivedTodoById() throws Exception {
+        // Arrange
+        String id = "1";
+        ArchivedTodo todo = new ArchivedTodo(new Todo("Task 1", "Description 1", new Date(), "High"), new Date());
+        todo.setCompleted(true);
+        when(todoService.getTodoById(id)).thenReturn(Optional.empty());
+        when(todoService.getArchivedTodoById(id)).thenReturn(Optional.of(todo));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/todos/{id}", id))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/v1/todos/{id}", id)
+                        .param("includeArchived", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Task 1"))
+                .andExpect(jsonPath("$.archivedAt").exists());
+        verify(todoService, times(1)).getArchivedTodoById(id);
+    }
+
+    @Test
+    void testGetAllTodosIncludingArchived() throws Exception {
+        // Arrange
+        when(todoService.getAllTodos(any(TodoFilter.class))).thenReturn(List.of());
+        ArgumentCaptor<TodoFilter> filter = ArgumentCaptor.forClass(TodoFilter.class);
+
+        // Act
+        mockMvc.perform(get("/api/v1/todos")
+                        .param("includeArchived", "true"))
+                .andExpect(status().isOk());
+
+        // Assert
+        verify(todoService).getAllTodos(filter.capture());
+        assertTrue(filter.getValue().isIncludeArchived());
+    }
+
     @Test
     void testCreateTodo() throws Exception {
         // Arrange
@@ -129,13 +552,155 @@ class TodoControllerTest {
                 .andExpect(jsonPath("$.priority").value("Low"));
     }
 
+    @Test
+    void testCreateTodoWhenIngestQueueIsFull() throws Exception {
+        // Arrange
+        when(todoService.createTodo(any(Todo.class))).thenThrow(new RejectedExecutionException("Ingest queue is full"));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/todos")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\": \"New Task\"}"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+
+    @Test
+    void testCreateTodoWhenIngestBatchTimesOut() throws Exception {
+        // Arrange
+        when(todoService.createTodo(any(Todo.class))).thenThrow(new QueryTimeoutException("Todo 1 was not written within PT10S"));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/todos")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\": \"New Task\"}"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+
+    @Test
+    void testBulkWrite() throws Exception {
+        // Arrange
+        List<TodoBulkResult> results = Arrays.asList(
+                new TodoBulkResult(0, TodoBulkOperation.Type.CREATE, "10", 200, null),
+                new TodoBulkResult(1, TodoBulkOperation.Type.DELETE, "2", 404, "Task not found with ID: 2"));
+        when(todoService.bulkWrite(anyList())).thenReturn(results);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/todos/_bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"op\": \"create\", \"todo\": {\"title\": \"New Task\", \"priority\": \"Low\"}}, {\"op\": \"delete\", \"id\": \"2\"}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].op").value("create"))
+                .andExpect(jsonPath("$[0].status").value(200))
+                .andExpect(jsonPath("$[1].status").value(404))
+                .andExpect(jsonPath("$[1].error").value("Task not found with ID: 2"));
+    }
+
+    @Test
+    void testBulkWriteTooManyOperations() throws Exception {
+        // Arrange
+        when(todoService.bulkWrite(anyList())).thenThrow(new IllegalArgumentException("Bulk request exceeds 1 operations"));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/todos/_bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"op\": \"delete\", \"id\": \"1\"}, {\"op\": \"delete\", \"id\": \"2\"}]"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testSubmitJob() throws Exception {
+        // Arrange
+        ArgumentCaptor<TodoJobRequest> request = ArgumentCaptor.forClass(TodoJobRequest.class);
+        when(jobRunner.submit(any(TodoJobRequest.class))).thenAnswer(invocation -> {
+            TodoJobRequest submitted = invocation.getArgument(0);
+            return new TodoJob("job1", submitted.getAction(), submitted.getFilter(), submitted.getPriority(), new Date());
+        });
+
+        // Act
+        mockMvc.perform(post("/api/v1/todos/jobs")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"action\": \"complete\", \"filter\": {\"completed\": false, \"priority\": \"High\", \"dueTo\": \"2026-10-17T00:00:00Z\"}}"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string(HttpHeaders.LOCATION, "/api/v1/todos/jobs/job1"))
+                .andExpect(jsonPath("$.status").value("queued"))
+                .andExpect(jsonPath("$.action").value("complete"));
+
+        // Assert
+        verify(jobRunner).submit(request.capture());
+        assertEquals(TodoJob.Action.COMPLETE, request.getValue().getAction());
+        assertEquals("High", request.getValue().getFilter().getPriority());
+        assertEquals(Instant.parse("2026-10-17T00:00:00Z"), request.getValue().getFilter().getDueTo().toInstant());
+    }
+
+    @Test
+    void testSubmitJobRejectsIncompleteRequests() throws Exception {
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/todos/jobs")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"action\": \"reprioritize\", \"filter\": {\"priority\": \"Low\"}}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/v1/todos/jobs")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"action\": \"delete\"}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/v1/todos/jobs")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"action\": \"delete\", \"filter\": {\"completed\": true, \"includeArchived\": true}}"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(jobRunner);
+    }
+
+    @Test
+    void testSubmitJobWhenQueueIsFull() throws Exception {
+        // Arrange
+        when(jobRunner.submit(any(TodoJobRequest.class))).thenThrow(new RejectedExecutionException("Job queue is full"));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/todos/jobs")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"action\": \"delete\", \"filter\": {\"completed\": true}}"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+    }
+
+    @Test
+    void testGetAndCancelJob() throws Exception {
+        // Arrange
+        TodoJob running = new TodoJob("job1", TodoJob.Action.DELETE, new TodoFilter(true, null, null, null), null, new Date());
+        running.start(2500);
+        running.progress(1000, 990);
+        TodoJob finished = new TodoJob("job2", TodoJob.Action.DELETE, new TodoFilter(true, null, null, null), null, new Date());
+        finished.finish(TodoJob.Status.SUCCEEDED, null);
+        when(jobRunner.getJob("job1")).thenReturn(Optional.of(running));
+        when(jobRunner.getJob("job2")).thenReturn(Optional.of(finished));
+        when(jobRunner.getJob("missing")).thenReturn(Optional.empty());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/todos/jobs/{id}", "job1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("running"))
+                .andExpect(jsonPath("$.total").value(2500))
+                .andExpect(jsonPath("$.processed").value(1000))
+                .andExpect(jsonPath("$.affected").value(990));
+        mockMvc.perform(get("/api/v1/todos/jobs/{id}", "missing"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(delete("/api/v1/todos/jobs/{id}", "job1"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.cancelRequested").value(true));
+        mockMvc.perform(delete("/api/v1/todos/jobs/{id}", "job2"))
+                .andExpect(status().isConflict());
+        mockMvc.perform(delete("/api/v1/todos/jobs/{id}", "missing"))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     void testUpdateTodo() throws Exception {
         // Arrange
         String id = "1";
         Todo todo = new Todo("Updated Task", "Updated Description", new Date(), "Medium");
-        when(todoService.getTodoById(id)).thenReturn(Optional.of(todo));
-        when(todoService.updateTodo(eq(id), any(Todo.class))).thenReturn(todo);
+        when(todoService.updateTodo(eq(id), any(Todo.class))).thenReturn(Optional.of(todo));
 
         // Act & Assert
         mockMvc.perform(put("/api/v1/todos/{id}", id)
@@ -145,13 +710,14 @@ class TodoControllerTest {
                 .andExpect(jsonPath("$.title").value("Updated Task"))
                 .andExpect(jsonPath("$.description").value("Updated Description"))
                 .andExpect(jsonPath("$.priority").value("Medium"));
+        verify(todoService, never()).getTodoById(id);
     }
 
     @Test
     void testUpdateTodoNotFound() throws Exception {
         // Arrange
         String id = "1";
-        when(todoService.getTodoById(id)).thenReturn(Optional.empty());
+        when(todoService.updateTodo(eq(id), any(Todo.class))).thenReturn(Optional.empty());
 
         // Act & Assert
         mockMvc.perform(put("/api/v1/todos/{id}", id)
@@ -160,23 +726,83 @@ class TodoControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void testUpdateTodoVersionConflict() throws Exception {
+        // Arrange
+        String id = "1";
+        when(todoService.updateTodo(eq(id), any(Todo.class)))
+                .thenThrow(new OptimisticLockingFailureException("Task was modified concurrently, ID: 1"));
+
+        // Act & Assert
+        mockMvc.perform(put("/api/v1/todos/{id}", id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\": \"Updated Task\", \"priority\": \"Medium\", \"version\": 3}"))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void testPatchTodo() throws Exception {
+        // Arrange
+        String id = "1";
+        Todo todo = new Todo("Task 1", "Description 1", new Date(), "High");
+        todo.setCompleted(true);
+        when(todoService.patchTodo(id, Map.of("completed", true))).thenReturn(Optional.of(todo));
+
+        // Act & Assert
+        mockMvc.perform(patch("/api/v1/todos/{id}", id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"completed\": true}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Task 1"))
+                .andExpect(jsonPath("$.completed").value(true));
+    }
+
+    @Test
+    void testPatchTodoInvalidField() throws Exception {
+        // Arrange
+        String id = "1";
+        when(todoService.patchTodo(id, Map.of("id", "2")))
+                .thenThrow(new IllegalArgumentException("Field cannot be patched: id"));
+
+        // Act & Assert
+        mockMvc.perform(patch("/api/v1/todos/{id}", id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\": \"2\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Field cannot be patched: id"));
+    }
+
+    @Test
+    void testPatchTodoNotFound() throws Exception {
+        // Arrange
+        String id = "1";
+        when(todoService.patchTodo(eq(id), anyMap())).thenReturn(Optional.empty());
+
+        // Act & Assert
+        mockMvc.perform(patch("/api/v1/todos/{id}", id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"priority\": \"Low\"}"))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     void testDeleteTodo() throws Exception {
         // Arrange
         String id = "1";
-        when(todoService.getTodoById(id)).thenReturn(Optional.of(new Todo("Task 1", "Description 1", new Date(), "High")));
+        when(todoService.deleteTodo(id)).thenReturn(true);
 
         // Act & Assert
         mockMvc.perform(delete("/api/v1/todos/{id}", id)
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isNoContent());
+        verify(todoService, never()).getTodoById(id);
     }
 
     @Test
     void testDeleteTodoNotFound() throws Exception {
         // Arrange
         String id = "1";
-        when(todoService.getTodoById(id)).thenReturn(Optional.empty());
+        when(todoService.deleteTodo(id)).thenReturn(false);
 
         // Act & Assert
         mockMvc.perform(delete("/api/v1/todos/{id}", id)
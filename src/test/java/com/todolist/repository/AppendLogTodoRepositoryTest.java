@@ -0,0 +1,305 @@
+package com.todolist.repository;
+
+import com.todolist.model.Todo;
+import com.todolist.model.TodoFilter;
+import com.todolist.model.TodoSyncToken;
+import com.todolist.model.TodoTombstone;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AppendLogTodoRepositoryTest {
+
+    @TempDir
+    Path directory;
+
+    private AppendLogTodoRepository repository;
+
+    private Path log() {
+        return directory.resolve("todos.log");
+    }
+
+    private AppendLogTodoRepository open(Duration tombstoneRetention) throws IOException {
+        repository = AppendLogTodoRepository.open(log(), tombstoneRetention, 0.5, false);
+        return repository;
+    }
+
+    private AppendLogTodoRepository reopen() throws IOException {
+        repository.close();
+        return open(Duration.ofDays(30));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (repository != null) {
+            repository.close();
+        }
+    }
+
+    private static Todo todo(String id, String title) {
+        Todo todo = new Todo(title, "Details for " + title, new Date(1_700_000_000_000L), "High");
+        todo.setId(id);
+        todo.setLastModified(new Date(1_700_000_100_000L));
+        return todo;
+    }
+
+    @Test
+    void testWritesSurviveReopening() throws IOException {
+        // Arrange
+        open(Duration.ofDays(30));
+        repository.insert(todo("a", "First"));
+        repository.insert(todo("b", "Second"));
+        Todo updated = repository.findById("a").orElseThrow();
+        updated.setCompleted(true);
+        repository.save(updated);
+        repository.deleteById("b");
+
+        // Act
+        reopen();
+
+        // Assert
+        assertEquals(1, repository.count());
+        Todo stored = repository.findById("a").orElseThrow();
+        assertEquals("First", stored.getTitle());
+        assertEquals("Details for First", stored.getDescription());
+        assertEquals("High", stored.getPriority());
+        assertEquals(new Date(1_700_000_000_000L), stored.getDueDate());
+        assertEquals(new Date(1_700_000_100_000L), stored.getLastModified());
+        assertTrue(stored.isCompleted());
+        assertEquals(1L, stored.getVersion());
+        assertTrue(repository.findById("b").isEmpty());
+    }
+
+    @Test
+    void testNullFieldsRoundTrip() throws IOException {
+        // Arrange
+        open(Duration.ofDays(30));
+        Todo todo = new Todo("Bare", null, null, null);
+        todo.setId("a");
+
+        // Act
+        repository.insert(todo);
+        reopen();
+
+        // Assert
+        Todo stored = repository.findById("a").orElseThrow();
+        assertEquals("Bare", stored.getTitle());
+        assertNull(stored.getDescription());
+        assertNull(stored.getDueDate());
+        assertNull(stored.getPriority());
+        assertNull(stored.getLastModified());
+    }
+
+    @Test
+    void testQueryByExample() throws IOException {
+        // Arrange
+        open(Duration.ofDays(30));
+        repository.insert(todo("a", "Buy milk"));
+        repository.insert(todo("b", "Buy bread"));
+        Todo done = todo("c", "Sell car");
+        done.setCompleted(true);
+        repository.insert(done);
+        Todo probe = new Todo();
+        probe.setTitle("buy");
+        ExampleMatcher startsWith = ExampleMatcher.matching()
+                .withIgnorePaths("completed")
+                .withStringMatcher(ExampleMatcher.StringMatcher.STARTING)
+                .withIgnoreCase();
+        Todo open = new Todo();
+        open.setPriority("High");
+
+        // Act
+        List<Todo> buying = repository.findAll(Example.of(probe, startsWith), Sort.by(Sort.Direction.DESC, "title"));
+        long openCount = repository.count(Example.of(open));
+        Page<Todo> firstPage = repository.findAll(Example.of(open), PageRequest.of(0, 1));
+        Todo first = repository.findBy(Example.of(open), query -> query.sortBy(Sort.by("title")).firstValue());
+
+        // Assert
+        assertEquals(List.of("a", "b"), buying.stream().map(Todo::getId).collect(Collectors.toList()));
+        assertEquals(2, openCount);
+        assertEquals(2, firstPage.getTotalElements());
+        assertEquals("Buy bread", first.getTitle());
+        assertTrue(repository.exists(Example.of(done, ExampleMatcher.matching().withIgnorePaths("version", "lastModified"))));
+        assertThrows(IncorrectResultSizeDataAccessException.class, () -> repository.findOne(Example.of(open)));
+    }
+
+    @Test
+    void testRemoveMatchingReportsOnlyWhatItRemoved() throws IOException {
+        // Arrange
+        open(Duration.ofDays(30));
+        repository.insert(todo("a", "Open"));
+        repository.insert(todo("b", "Gone"));
+        Todo done = todo("c", "Done");
+        done.setCompleted(true);
+        repository.insert(done);
+        repository.removeWithTombstone("b");
+
+        // Act
+        List<String> removed = repository.removeMatching(List.of("a", "b", "c"), new TodoFilter(false, null, null, null));
+
+        // Assert
+        assertEquals(List.of("a"), removed);
+        assertFalse(repository.existsById("a"));
+        assertTrue(repository.existsById("c"));
+    }
+
+    @Test
+    void testSaveKeepsTheUsualConflictRules() throws IOException {
+        // Arrange
+        open(Duration.ofDays(30));
+        repository.insert(todo("a", "First"));
+        Todo stale = repository.findById("a").orElseThrow();
+        repository.save(repository.findById("a").orElseThrow());
+
+        // Act & Assert
+        assertThrows(DuplicateKeyException.class, () -> repository.insert(todo("a", "Again")));
+        assertThrows(OptimisticLockingFailureException.class, () -> repository.save(stale));
+    }
+
+    @Test
+    void testTornRecordAtTheEndIsDiscardedOnRecovery() throws IOException {
+        // Arrange
+        open(Duration.ofDays(30));
+        repository.insert(todo("a", "First"));
+        long intact = repository.getLogBytes();
+        repository.insert(todo("b", "Second"));
+        repository.close();
+        try (RandomAccessFile file = new RandomAccessFile(log().toFile(), "rw")) {
+            // Flip a byte in the last record's body, as a write cut short would leave it
+            file.seek(intact + 12);
+            file.write(file.read() ^ 0xff);
+        }
+
+        // Act
+        open(Duration.ofDays(30));
+
+        // Assert
+        assertEquals(List.of("a"), repository.findAll().stream().map(Todo::getId).collect(Collectors.toList()));
+        assertEquals(intact, repository.getLogBytes());
+        repository.insert(todo("c", "Third"));
+        reopen();
+        assertEquals(List.of("a", "c"), repository.findAll().stream().map(Todo::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    void testRejectsFilesThatAreNotTodoLogs() throws IOException {
+        // Arrange
+        Files.write(log(), "not a todo log".getBytes());
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> open(Duration.ofDays(30)));
+    }
+
+    @Test
+    void testCompactionDropsDeadRecordsAndKeepsLiveOnes() throws IOException {
+        // Arrange
+        open(Duration.ofDays(30));
+        for (int i = 0; i < 100; i++) {
+            repository.insert(todo(String.format("%03d", i), "Todo " + i));
+        }
+        for (int i = 0; i < 100; i++) {
+            Todo todo = repository.findById(String.format("%03d", i)).orElseThrow();
+            todo.setTitle("Renamed " + i);
+            repository.save(todo);
+        }
+        for (int i = 50; i < 100; i++) {
+            repository.removeWithTombstone(String.format("%03d", i));
+        }
+        long before = repository.getLogBytes();
+
+        // Act
+        repository.compact();
+
+        // Assert
+        assertTrue(repository.getLogBytes() < before / 2);
+        assertEquals(0, repository.getGarbageBytes());
+        assertEquals("Renamed 7", repository.findById("007").orElseThrow().getTitle());
+        reopen();
+        assertEquals(50, repository.count());
+        assertEquals("Renamed 49", repository.findById("049").orElseThrow().getTitle());
+        assertEquals(50, repository.findDeletedSince(TodoSyncToken.since(0), 100).size());
+        assertFalse(Files.exists(directory.resolve("todos.log.compacting")));
+    }
+
+    @Test
+    void testCompactionDropsExpiredTombstones() throws IOException {
+        // Arrange
+        open(Duration.ZERO);
+        repository.insert(todo("a", "First"));
+        repository.insert(todo("b", "Second"));
+        repository.removeWithTombstone("b");
+
+        // Act
+        repository.compact();
+
+        // Assert
+        assertTrue(repository.findDeletedSince(TodoSyncToken.since(0), 10).isEmpty());
+        assertEquals(1, repository.count());
+    }
+
+    @Test
+    void testTombstonesSurviveReopening() throws IOException {
+        // Arrange
+        open(Duration.ofDays(30));
+        repository.insert(todo("a", "First"));
+        repository.insert(todo("b", "Second"));
+        repository.removeWithTombstone("a");
+        repository.deleteById("b");
+
+        // Act
+        reopen();
+
+        // Assert
+        Map<String, Date> deleted = repository.findDeletedSince(TodoSyncToken.since(0), 10).stream()
+                .collect(Collectors.toMap(TodoTombstone::getId, TodoTombstone::getDeletedAt));
+        assertEquals(List.of("a"), List.copyOf(deleted.keySet()));
+        assertEquals(0, repository.count());
+    }
+
+    @Test
+    void testLogGrowsPastItsInitialMapping() throws IOException {
+        // Arrange
+        open(Duration.ofDays(30));
+        String title = "x".repeat(1000);
+
+        // Act
+        for (int i = 0; i < 3000; i++) {
+            repository.insert(todo(String.format("%04d", i), title + i));
+        }
+        reopen();
+
+        // Assert
+        assertEquals(3000, repository.count());
+        assertEquals(title + 2999, repository.findById("2999").orElseThrow().getTitle());
+    }
+
+    @Test
+    void testWritesAfterCloseAreRejected() throws IOException {
+        // Arrange
+        open(Duration.ofDays(30));
+        repository.close();
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> repository.insert(todo("a", "First")));
+    }
+}
@@ -0,0 +1,101 @@
+package com.todolist.repository;
+
+import com.todolist.model.Todo;
+import com.todolist.model.TodoFilter;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Explains the filter queries against a live Mongo and fails if any of them falls back to a collection scan.
+ */
+@SpringBootTest
+public class TodoQueryPlanIntegrationTest {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MongoMappingContext mappingContext;
+
+    private final Date weekStart = Date.from(Instant.parse("2026-10-12T00:00:00Z"));
+    private final Date weekEnd = Date.from(Instant.parse("2026-10-12T00:00:00Z").plus(7, ChronoUnit.DAYS));
+
+    @BeforeEach
+    public void setUp() {
+        IndexOperations indexOps = mongoTemplate.indexOps(Todo.class);
+        new MongoPersistentEntityIndexResolver(mappingContext).resolveIndexFor(Todo.class).forEach(indexOps::ensureIndex);
+    }
+
+    @Test
+    public void testOpenTodosDueThisWeekByPriorityUseIndex() {
+        assertIndexScan(TodoQueries.matching(new TodoFilter(false, "High", weekStart, weekEnd)));
+    }
+
+    @Test
+    public void testOpenTodosDueThisWeekUseIndex() {
+        assertIndexScan(TodoQueries.matching(new TodoFilter(false, null, weekStart, weekEnd)));
+    }
+
+    @Test
+    public void testCompletedTodosUseIndex() {
+        assertIndexScan(TodoQueries.matching(new TodoFilter(true, null, null, null)));
+    }
+
+    @Test
+    public void testPriorityPageUsesIndex() {
+        assertIndexScan(TodoQueries.matching(new TodoFilter(null, "High", null, null))
+                .with(PageRequest.of(0, 20, Sort.by("dueDate"))));
+    }
+
+    @Test
+    public void testDueRangeUsesIndex() {
+        assertIndexScan(TodoQueries.matching(new TodoFilter(null, null, weekStart, weekEnd)));
+    }
+
+    @Test
+    public void testRemindersWindowUsesIndex() {
+        assertIndexScan(TodoQueries.dueBetween(weekStart, weekEnd, 500));
+    }
+
+    private void assertIndexScan(Query query) {
+        Document explain = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Todo.class))
+                .find(query.getQueryObject())
+                .sort(query.getSortObject())
+                .explain();
+        List<String> stages = new ArrayList<>();
+        collectStages(explain.get("queryPlanner", Document.class).get("winningPlan"), stages);
+
+        assertFalse(stages.contains("COLLSCAN"), "Collection scan for " + query + ": " + stages);
+        assertTrue(stages.contains("IXSCAN"), "No index scan for " + query + ": " + stages);
+    }
+
+    // Walks the plan tree; the nesting differs between the classic and slot-based engines
+    private static void collectStages(Object node, List<String> stages) {
+        if (node instanceof Document document) {
+            if (document.get("stage") instanceof String stage) {
+                stages.add(stage);
+            }
+            document.values().forEach(value -> collectStages(value, stages));
+        } else if (node instanceof List<?> list) {
+            list.forEach(value -> collectStages(value, stages));
+        }
+    }
+}
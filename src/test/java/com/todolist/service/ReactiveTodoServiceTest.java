@@ -0,0 +1,200 @@
+package com.todolist.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.todolist.model.Todo;
+import com.todolist.model.TodoCursor;
+import com.todolist.model.TodoFilter;
+import com.todolist.repository.ReactiveTodoRepository;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.Mockito.*;
+
+class ReactiveTodoServiceTest {
+
+    @Mock
+    private ReactiveTodoRepository todoRepository;
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TodoSearchIndex searchIndex;
+
+    @Mock
+    private TodoStatistics statistics;
+
+    @Mock
+    private TodoIngestQueue ingestQueue;
+
+    @InjectMocks
+    private ReactiveTodoService todoService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void testGetAllTodosStreamsFromCursor() {
+        // Arrange
+        Todo todo1 = new Todo("Task 1", "Description 1", new Date(), "High");
+        Todo todo2 = new Todo("Task 2", "Description 2", new Date(), "Medium");
+        TodoFilter filter = TodoFilter.none();
+        when(todoRepository.streamAll(filter, 500)).thenReturn(Flux.just(todo1, todo2));
+
+        // Act & Assert
+        StepVerifier.create(todoService.getAllTodos(filter), 1)
+                .expectNext(todo1)
+                .thenRequest(1)
+                .expectNext(todo2)
+                .verifyComplete();
+    }
+
+    @Test
+    void testGetAllTodosPaged() {
+        // Arrange
+        Todo todo1 = new Todo("Task 1", "Description 1", new Date(), "High");
+        Pageable pageable = PageRequest.of(1, 1);
+        TodoFilter filter = new TodoFilter(false, "High", null, null);
+        when(todoRepository.findAll(filter, pageable)).thenReturn(Flux.just(todo1));
+        when(todoRepository.count(filter)).thenReturn(Mono.just(5L));
+
+        // Act & Assert
+        StepVerifier.create(todoService.getAllTodos(filter, pageable))
+                .expectNextMatches(page -> page.getTotalElements() == 5 && page.getContent().size() == 1)
+                .verifyComplete();
+    }
+
+    @Test
+    void testGetTodosByCursor() {
+        // Arrange
+        Todo todo1 = new Todo("Task 1", "Description 1", new Date(), "High");
+        todo1.setId("a");
+        Todo todo2 = new Todo("Task 2", "Description 2", new Date(), "Medium");
+        todo2.setId("b");
+        when(todoRepository.findAfter(any(TodoCursor.class), eq(2))).thenReturn(Flux.just(todo1, todo2));
+
+        // Act & Assert
+        StepVerifier.create(todoService.getTodosByCursor("id", "asc", 1, null))
+                .expectNextMatches(slice -> slice.getSize() == 1 && slice.isHasNext()
+                        && "a".equals(TodoCursor.decode(slice.getNextToken()).getLastId()))
+                .verifyComplete();
+        StepVerifier.create(todoService.getTodosByCursor("title", "asc", 1, null))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+    }
+
+    @Test
+    void testUpdateTodoStaleVersion() {
+        // Arrange
+        Todo todo = new Todo("Updated Task", "Updated Description", new Date(), "Medium");
+        todo.setVersion(2L);
+        when(todoRepository.replace("1", todo)).thenReturn(Mono.empty());
+        when(todoRepository.existsById("1")).thenReturn(Mono.just(true));
+
+        // Act & Assert
+        StepVerifier.create(todoService.updateTodo("1", todo))
+                .expectError(OptimisticLockingFailureException.class)
+                .verify();
+    }
+
+    @Test
+    void testUpdateTodoNotFound() {
+        // Arrange
+        Todo todo = new Todo("Updated Task", "Updated Description", new Date(), "Medium");
+        when(todoRepository.replace("1", todo)).thenReturn(Mono.empty());
+
+        // Act & Assert
+        StepVerifier.create(todoService.updateTodo("1", todo)).verifyComplete();
+        verify(todoRepository, never()).existsById("1");
+    }
+
+    @Test
+    void testPatchTodo() {
+        // Arrange
+        Todo todo = new Todo("Task 1", "Description 1", new Date(), "Low");
+        when(todoRepository.patch("1", Map.of("priority", "Low"), null)).thenReturn(Mono.just(todo));
+
+        // Act & Assert
+        StepVerifier.create(todoService.patchTodo("1", Map.of("priority", "Low")))
+                .expectNext(todo)
+                .verifyComplete();
+        StepVerifier.create(todoService.patchTodo("1", Map.of("id", "2")))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+    }
+
+    @Test
+    void testDeleteTodo() {
+        // Arrange
+        when(todoRepository.removeWithTombstone("1")).thenReturn(Mono.just(1L));
+        when(todoRepository.removeWithTombstone("2")).thenReturn(Mono.just(0L));
+
+        // Act & Assert
+        StepVerifier.create(todoService.deleteTodo("1")).expectNext(true).verifyComplete();
+        StepVerifier.create(todoService.deleteTodo("2")).expectNext(false).verifyComplete();
+        verify(eventPublisher, times(1)).publishEvent(any(TodoChangedEvent.class));
+    }
+
+    @Test
+    void testSearchTodosKeepsIndexOrder() {
+        // Arrange
+        Todo todo1 = new Todo("Buy milk", null, null, "High");
+        todo1.setId("a");
+        Todo todo2 = new Todo("Buy bread", null, null, "Low");
+        todo2.setId("b");
+        when(searchIndex.search("buy", 10)).thenReturn(List.of("b", "a"));
+        when(todoRepository.findAllById(List.of("b", "a"))).thenReturn(Flux.just(todo1, todo2));
+
+        // Act & Assert
+        StepVerifier.create(todoService.searchTodos("buy", 10))
+                .expectNext(todo2, todo1)
+                .verifyComplete();
+    }
+
+    @Test
+    void testGetStatsWhileLoading() {
+        // Arrange
+        when(statistics.snapshot()).thenThrow(new IllegalStateException("Statistics are still loading"));
+
+        // Act & Assert
+        StepVerifier.create(todoService.getStats())
+                .expectError(IllegalStateException.class)
+                .verify();
+    }
+
+    @Test
+    void testSearchTodosWhileIndexLoading() {
+        // Arrange
+        when(searchIndex.search("buy", 10)).thenThrow(new IllegalStateException("Search index is still loading"));
+
+        // Act & Assert
+        StepVerifier.create(todoService.searchTodos("buy", 10))
+                .expectError(IllegalStateException.class)
+                .verify();
+    }
+}
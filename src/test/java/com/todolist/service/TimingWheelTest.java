@@ -0,0 +1,115 @@
+package com.todolist.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTest {
+
+    private static final long START = 1_792_000_000_000L;
+
+    @Test
+    void testTimersFireOnTheFirstTickAtOrAfterTheirTime() {
+        // Arrange
+        TimingWheel<Long> wheel = new TimingWheel<>(1000, 10 * 86_400_000L, START);
+        Random random = new Random(42);
+        Map<Long, Long> fireAt = new HashMap<>();
+        for (long i = 0; i < 5000; i++) {
+            long at = START + (long) (random.nextDouble() * 10 * 86_400_000L);
+            fireAt.put(i, at);
+            wheel.schedule(at, i);
+        }
+        List<long[]> fired = new ArrayList<>();
+
+        // Act
+        for (long now = START; now <= START + 10 * 86_400_000L + 1000; now += 1000) {
+            long time = now;
+            wheel.advanceTo(now, id -> fired.add(new long[]{id, time}));
+        }
+
+        // Assert
+        assertEquals(5000, fired.size());
+        assertEquals(0, wheel.size());
+        for (long[] firing : fired) {
+            long at = fireAt.get(firing[0]);
+            assertTrue(firing[1] >= at && firing[1] < at + 1000, "Timer " + firing[0] + " fired at " + firing[1] + " for " + at);
+        }
+    }
+
+    @Test
+    void testCancelledTimersDoNotFire() {
+        // Arrange
+        TimingWheel<String> wheel = new TimingWheel<>(1000, 86_400_000L, START);
+        TimingWheel.Timer<String> kept = wheel.schedule(START + 5000, "kept");
+        TimingWheel.Timer<String> cancelled = wheel.schedule(START + 5000, "cancelled");
+        TimingWheel.Timer<String> far = wheel.schedule(START + 3_600_000, "far");
+        List<String> fired = new ArrayList<>();
+
+        // Act
+        assertTrue(wheel.cancel(cancelled));
+        assertTrue(wheel.cancel(far));
+        wheel.advanceTo(START + 7_200_000, fired::add);
+
+        // Assert
+        assertEquals(List.of("kept"), fired);
+        assertFalse(wheel.cancel(kept));
+        assertFalse(wheel.cancel(cancelled));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void testPastTimersFireOnTheNextTick() {
+        // Arrange
+        TimingWheel<String> wheel = new TimingWheel<>(1000, 60_000, START);
+        wheel.schedule(START - 60_000, "late");
+        List<String> fired = new ArrayList<>();
+
+        // Act & Assert
+        wheel.advanceTo(START + 999, fired::add);
+        assertEquals(List.of(), fired);
+        wheel.advanceTo(START + 1000, fired::add);
+        assertEquals(List.of("late"), fired);
+    }
+
+    @Test
+    void testTimersBeyondTheReachStillFireOnTime() {
+        // Arrange
+        TimingWheel<String> wheel = new TimingWheel<>(1000, 10_000, START);
+        wheel.schedule(START + 500_000, "beyond");
+        List<String> fired = new ArrayList<>();
+
+        // Act & Assert
+        wheel.advanceTo(START + 499_999, fired::add);
+        assertEquals(List.of(), fired);
+        wheel.advanceTo(START + 500_000, fired::add);
+        assertEquals(List.of("beyond"), fired);
+    }
+
+    @Test
+    void testExpiredCallbackCanScheduleTimers() {
+        // Arrange
+        TimingWheel<Integer> wheel = new TimingWheel<>(1000, 60_000, START);
+        wheel.schedule(START + 1000, 1);
+        List<Integer> fired = new ArrayList<>();
+
+        // Act
+        for (long now = START; now <= START + 10_000; now += 1000) {
+            long time = now;
+            wheel.advanceTo(now, value -> {
+                fired.add(value);
+                if (value < 3) {
+                    wheel.schedule(time + 2000, value + 1);
+                }
+            });
+        }
+
+        // Assert
+        assertEquals(List.of(1, 2, 3), fired);
+    }
+}
@@ -0,0 +1,71 @@
+package com.todolist.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TodoArchiverTest {
+
+    @Mock
+    private TodoService todoService;
+
+    @InjectMocks
+    private TodoArchiver archiver;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(archiver, "after", Duration.ofDays(30));
+        ReflectionTestUtils.setField(archiver, "batchSize", 100);
+        ReflectionTestUtils.setField(archiver, "maxDuty", 1.0);
+    }
+
+    @Test
+    void testArchivesBatchesUntilOneComesBackShort() throws Exception {
+        // Arrange
+        long now = 1_800_000_000_000L;
+        when(todoService.archiveCompleted(any(Date.class), eq(100))).thenReturn(100, 100, 42);
+
+        // Act
+        int archived = archiver.archive(now);
+
+        // Assert
+        assertEquals(242, archived);
+        ArgumentCaptor<Date> cutoff = ArgumentCaptor.forClass(Date.class);
+        verify(todoService, times(3)).archiveCompleted(cutoff.capture(), eq(100));
+        assertTrue(cutoff.getAllValues().stream().allMatch(date -> date.getTime() == now - Duration.ofDays(30).toMillis()));
+    }
+
+    @Test
+    void testStopsOnFailure() {
+        // Arrange
+        when(todoService.archiveCompleted(any(Date.class), anyInt()))
+                .thenReturn(100)
+                .thenThrow(new DataAccessResourceFailureException("Mongo is down"));
+
+        // Act & Assert
+        assertThrows(DataAccessResourceFailureException.class, () -> archiver.archive(System.currentTimeMillis()));
+        verify(todoService, times(2)).archiveCompleted(any(Date.class), anyInt());
+    }
+
+    @Test
+    void testPausesInProportionToTheBatch() {
+        // Arrange
+        ReflectionTestUtils.setField(archiver, "maxDuty", 0.25);
+
+        // Act & Assert
+        assertEquals(300, archiver.pauseAfter(100));
+        assertEquals(3000, archiver.pauseAfter(1000));
+    }
+}
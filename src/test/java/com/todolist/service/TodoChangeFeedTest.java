@@ -0,0 +1,154 @@
+package com.todolist.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.todolist.model.Todo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TodoChangeFeedTest {
+
+    private TodoChangeFeed feed;
+
+    @BeforeEach
+    void setUp() {
+        feed = new TodoChangeFeed();
+        ReflectionTestUtils.setField(feed, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(feed, "replaySize", 4);
+        ReflectionTestUtils.setField(feed, "subscriberBuffer", 3);
+        ReflectionTestUtils.setField(feed, "dispatcher", (Executor) Runnable::run);
+    }
+
+    private static Todo todo(String id) {
+        Todo todo = new Todo("Task " + id, null, null, "High");
+        todo.setId(id);
+        return todo;
+    }
+
+    private static List<TodoChangeFeed.Entry> drain(TodoChangeFeed.Subscription subscription) {
+        List<TodoChangeFeed.Entry> entries = new ArrayList<>();
+        for (TodoChangeFeed.Entry entry = subscription.poll(); entry != null; entry = subscription.poll()) {
+            entries.add(entry);
+        }
+        return entries;
+    }
+
+    private static List<String> names(TodoChangeFeed.Subscription subscription) {
+        return drain(subscription).stream().map(TodoChangeFeed.Entry::getName).toList();
+    }
+
+    @Test
+    void testSubscriberReceivesChangesAndIsSignalledOncePerBatch() {
+        // Arrange
+        AtomicInteger signals = new AtomicInteger();
+        TodoChangeFeed.Subscription subscription = feed.subscribe(null, signals::incrementAndGet);
+
+        // Act
+        feed.onTodoChanged(TodoChangedEvent.created(todo("1")));
+        feed.onTodoChanged(TodoChangedEvent.deleted("2"));
+        List<TodoChangeFeed.Entry> entries = drain(subscription);
+
+        // Assert
+        assertEquals(1, signals.get());
+        assertEquals(List.of("created", "deleted"), entries.stream().map(TodoChangeFeed.Entry::getName).toList());
+        assertTrue(entries.get(0).getData().contains("\"title\":\"Task 1\""));
+        assertTrue(entries.get(1).getData().contains("\"id\":\"2\""));
+    }
+
+    @Test
+    void testResumesAfterLastEventId() {
+        // Arrange
+        TodoChangeFeed.Subscription first = feed.subscribe(null, () -> {});
+        feed.publish(TodoChangedEvent.created(todo("1")));
+        String lastSeen = drain(first).get(0).getId();
+        first.cancel();
+        feed.publish(TodoChangedEvent.created(todo("2")));
+        feed.publish(TodoChangedEvent.created(todo("3")));
+
+        // Act
+        TodoChangeFeed.Subscription resumed = feed.subscribe(lastSeen, () -> {});
+        List<TodoChangeFeed.Entry> entries = drain(resumed);
+
+        // Assert
+        assertEquals(2, entries.size());
+        assertTrue(entries.get(0).getData().contains("Task 2"));
+        assertTrue(entries.get(1).getData().contains("Task 3"));
+        assertEquals(1, feed.getSubscriberCount());
+    }
+
+    @Test
+    void testResetWhenLastEventIdCannotBeResumed() {
+        // Arrange
+        TodoChangeFeed.Subscription first = feed.subscribe(null, () -> {});
+        feed.publish(TodoChangedEvent.created(todo("1")));
+        String overwritten = drain(first).get(0).getId();
+        for (int i = 0; i < 5; i++) {
+            feed.publish(TodoChangedEvent.created(todo("x" + i)));
+        }
+
+        // Act & Assert
+        assertEquals(List.of(TodoChangeFeed.RESET), names(feed.subscribe(overwritten, () -> {})));
+        assertEquals(List.of(TodoChangeFeed.RESET), names(feed.subscribe("0-0", () -> {})));
+        assertEquals(List.of(TodoChangeFeed.RESET), names(feed.subscribe("not-an-id", () -> {})));
+    }
+
+    @Test
+    void testSlowSubscriberIsEvicted() {
+        // Arrange
+        AtomicInteger signals = new AtomicInteger();
+        TodoChangeFeed.Subscription slow = feed.subscribe(null, signals::incrementAndGet);
+        TodoChangeFeed.Subscription fast = feed.subscribe(null, () -> {});
+
+        // Act
+        for (int i = 0; i < 4; i++) {
+            feed.publish(TodoChangedEvent.created(todo(String.valueOf(i))));
+            drain(fast);
+        }
+
+        // Assert
+        assertTrue(slow.isEnded());
+        assertEquals(2, signals.get());
+        assertEquals(3, drain(slow).size());
+        assertFalse(fast.isEnded());
+        assertEquals(1, feed.getSubscriberCount());
+    }
+
+    @Test
+    void testHeartbeatOnlyReachesIdleSubscribers() {
+        // Arrange
+        TodoChangeFeed.Subscription idle = feed.subscribe(null, () -> {});
+        TodoChangeFeed.Subscription busy = feed.subscribe(null, () -> {});
+        feed.publish(TodoChangedEvent.created(todo("1")));
+        drain(idle);
+
+        // Act
+        feed.heartbeat();
+
+        // Assert
+        assertEquals(List.of(TodoChangeFeed.Entry.HEARTBEAT), drain(idle));
+        assertEquals(List.of("created"), names(busy));
+    }
+
+    @Test
+    void testInProcessEventsIgnoredOnceExternalSourceTakesOver() {
+        // Arrange
+        TodoChangeFeed.Subscription subscription = feed.subscribe(null, () -> {});
+        feed.useExternalSource();
+
+        // Act
+        feed.onTodoChanged(TodoChangedEvent.created(todo("1")));
+        feed.publish(TodoChangedEvent.created(todo("2")));
+
+        // Assert
+        List<TodoChangeFeed.Entry> entries = drain(subscription);
+        assertEquals(1, entries.size());
+        assertTrue(entries.get(0).getData().contains("Task 2"));
+    }
+}
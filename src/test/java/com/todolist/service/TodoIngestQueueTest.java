@@ -0,0 +1,167 @@
+package com.todolist.service;
+
+import com.todolist.model.Todo;
+import com.todolist.repository.TodoRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class TodoIngestQueueTest {
+
+    @Mock
+    private TodoRepository todoRepository;
+
+    private TodoIngestQueue ingestQueue;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ingestQueue = new TodoIngestQueue();
+        ReflectionTestUtils.setField(ingestQueue, "todoRepository", todoRepository);
+        ReflectionTestUtils.setField(ingestQueue, "enabled", true);
+        ReflectionTestUtils.setField(ingestQueue, "batchSize", 3);
+        ReflectionTestUtils.setField(ingestQueue, "maxDelay", Duration.ofMillis(200));
+        ReflectionTestUtils.setField(ingestQueue, "queueCapacity", 2);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        ingestQueue.shutdown();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArgumentCaptor<List<Todo>> todos() {
+        return ArgumentCaptor.forClass(List.class);
+    }
+
+    @Test
+    void testQueuedTodosAreWrittenInOneBatch() throws Exception {
+        // Arrange
+        when(todoRepository.insertAll(anyList())).thenReturn(Map.of(1, "E11000 duplicate key"));
+        ingestQueue.start();
+
+        // Act
+        CompletableFuture<Todo> first = ingestQueue.submit(new Todo("Task 1", null, null, "High"));
+        CompletableFuture<Todo> second = ingestQueue.submit(new Todo("Task 2", null, null, "High"));
+
+        // Assert
+        Todo written = first.get(5, TimeUnit.SECONDS);
+        assertNotNull(written.getId());
+        assertEquals(0L, written.getVersion());
+        Exception failure = assertThrows(Exception.class, () -> second.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(DataIntegrityViolationException.class, failure.getCause());
+        ArgumentCaptor<List<Todo>> batch = todos();
+        verify(todoRepository, times(1)).insertAll(batch.capture());
+        assertEquals(2, batch.getValue().size());
+        assertSame(written, batch.getValue().get(0));
+    }
+
+    @Test
+    void testFullQueueRejectsWhileABatchIsInFlight() throws Exception {
+        // Arrange
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(todoRepository.insertAll(anyList())).thenAnswer(invocation -> {
+            writing.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return Map.of();
+        });
+        ReflectionTestUtils.setField(ingestQueue, "maxDelay", Duration.ZERO);
+        ingestQueue.start();
+        CompletableFuture<Todo> inFlight = ingestQueue.submit(new Todo("Task 1", null, null, "High"));
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+
+        // Act
+        CompletableFuture<Todo> queued = ingestQueue.submit(new Todo("Task 2", null, null, "High"));
+        ingestQueue.submit(new Todo("Task 3", null, null, "High"));
+
+        // Assert
+        assertThrows(RejectedExecutionException.class, () -> ingestQueue.submit(new Todo("Task 4", null, null, "High")));
+        release.countDown();
+        assertNotNull(inFlight.get(5, TimeUnit.SECONDS));
+        assertNotNull(queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testWriteFailureFailsTheWholeBatch() {
+        // Arrange
+        when(todoRepository.insertAll(anyList())).thenThrow(new DataIntegrityViolationException("unreachable"));
+        ingestQueue.start();
+
+        // Act & Assert
+        RuntimeException failure = assertThrows(RuntimeException.class,
+                () -> ingestQueue.insert(new Todo("Task 1", null, null, "High")));
+        assertEquals("unreachable", failure.getMessage());
+    }
+
+    @Test
+    void testShutdownFlushesQueuedTodos() throws Exception {
+        // Arrange
+        when(todoRepository.insertAll(anyList())).thenReturn(Map.of());
+        ingestQueue.start();
+        CompletableFuture<Todo> pending = ingestQueue.submit(new Todo("Task 1", null, null, "High"));
+
+        // Act
+        ingestQueue.shutdown();
+
+        // Assert
+        assertTrue(pending.isDone());
+        assertNotNull(pending.get());
+        assertThrows(RejectedExecutionException.class, () -> ingestQueue.submit(new Todo("Task 2", null, null, "High")));
+    }
+
+    @Test
+    void testInsertGivesUpAfterTheTimeout() {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        when(todoRepository.insertAll(anyList())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return Map.of();
+        });
+        ReflectionTestUtils.setField(ingestQueue, "insertTimeout", Duration.ofMillis(100));
+        ingestQueue.start();
+
+        // Act & Assert
+        try {
+            assertThrows(QueryTimeoutException.class, () -> ingestQueue.insert(new Todo("Task 1", null, null, "High")));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void testSubmitRacingShutdownIsRejected() {
+        // Arrange
+        // Shutdown starts between the closed check and the offer, after the final drain
+        ReflectionTestUtils.setField(ingestQueue, "queue", new ArrayBlockingQueue<Object>(2) {
+            @Override
+            public boolean offer(Object pending) {
+                ReflectionTestUtils.setField(ingestQueue, "closed", true);
+                return super.offer(pending);
+            }
+        });
+
+        // Act & Assert
+        assertThrows(RejectedExecutionException.class, () -> ingestQueue.submit(new Todo("Task 1", null, null, "High")));
+        assertEquals(0, ((ArrayBlockingQueue<?>) ReflectionTestUtils.getField(ingestQueue, "queue")).size());
+    }
+}
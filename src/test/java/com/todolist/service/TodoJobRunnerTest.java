@@ -0,0 +1,112 @@
+package com.todolist.service;
+
+import com.todolist.model.TodoFilter;
+import com.todolist.model.TodoJob;
+import com.todolist.repository.TodoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TodoJobRunnerTest {
+
+    private static final TodoFilter OPEN = new TodoFilter(false, null, null, null);
+
+    @Mock
+    private TodoRepository todoRepository;
+
+    @Mock
+    private TodoService todoService;
+
+    @InjectMocks
+    private TodoJobRunner runner;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(runner, "chunkSize", 2);
+    }
+
+    @Test
+    void testCompletesMatchingTodosChunkByChunk() {
+        // Arrange
+        TodoJob job = new TodoJob("job1", TodoJob.Action.COMPLETE, OPEN, null, new Date());
+        when(todoRepository.count(OPEN)).thenReturn(3L);
+        when(todoRepository.findIdsMatching(OPEN, null, 2)).thenReturn(List.of("a", "b"));
+        when(todoRepository.findIdsMatching(OPEN, "b", 2)).thenReturn(List.of("c"));
+        when(todoService.updateMatching(List.of("a", "b"), OPEN, Map.of("completed", true))).thenReturn(1);
+        when(todoService.updateMatching(List.of("c"), OPEN, Map.of("completed", true))).thenReturn(1);
+
+        // Act
+        runner.run(job);
+
+        // Assert
+        assertEquals(TodoJob.Status.SUCCEEDED, job.getStatus());
+        assertEquals(3L, job.getTotal());
+        assertEquals(3, job.getProcessed());
+        assertEquals(2, job.getAffected());
+        assertNotNull(job.getFinishedAt());
+    }
+
+    @Test
+    void testStopsBetweenChunksWhenCancelled() {
+        // Arrange
+        TodoJob job = new TodoJob("job1", TodoJob.Action.DELETE, OPEN, null, new Date());
+        when(todoRepository.count(OPEN)).thenReturn(4L);
+        when(todoRepository.findIdsMatching(OPEN, null, 2)).thenReturn(List.of("a", "b"));
+        when(todoService.deleteMatching(List.of("a", "b"), OPEN)).thenAnswer(invocation -> {
+            job.cancel();
+            return 2;
+        });
+
+        // Act
+        runner.run(job);
+
+        // Assert
+        assertEquals(TodoJob.Status.CANCELLED, job.getStatus());
+        assertEquals(2, job.getAffected());
+        verify(todoRepository, never()).findIdsMatching(OPEN, "b", 2);
+    }
+
+    @Test
+    void testRecordsTheFailure() {
+        // Arrange
+        TodoJob job = new TodoJob("job1", TodoJob.Action.REPRIORITIZE, OPEN, "High", new Date());
+        when(todoRepository.count(OPEN)).thenReturn(2L);
+        when(todoRepository.findIdsMatching(OPEN, null, 2)).thenReturn(List.of("a", "b"));
+        when(todoService.updateMatching(List.of("a", "b"), OPEN, Map.of("priority", "High")))
+                .thenThrow(new DataAccessResourceFailureException("Mongo is down"));
+
+        // Act
+        runner.run(job);
+
+        // Assert
+        assertEquals(TodoJob.Status.FAILED, job.getStatus());
+        assertEquals("Mongo is down", job.getError());
+    }
+
+    @Test
+    void testQueuedJobCancelledBeforeStartingDoesNothing() {
+        // Arrange
+        TodoJob job = new TodoJob("job1", TodoJob.Action.COMPLETE, OPEN, null, new Date());
+        assertTrue(job.cancel());
+
+        // Act
+        runner.run(job);
+
+        // Assert
+        assertEquals(TodoJob.Status.CANCELLED, job.getStatus());
+        assertFalse(job.cancel());
+        verifyNoInteractions(todoRepository, todoService);
+    }
+}
@@ -0,0 +1,177 @@
+package com.todolist.service;
+
+import com.todolist.model.Todo;
+import com.todolist.repository.TodoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class TodoReminderSchedulerTest {
+
+    private static final long START = 1_792_000_000_000L;
+    private static final long HOUR = 3_600_000L;
+
+    @Mock
+    private TodoRepository todoRepository;
+
+    private final List<TodoReminderEvent> reminders = new ArrayList<>();
+    private TodoReminderScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        scheduler = new TodoReminderScheduler();
+        ReflectionTestUtils.setField(scheduler, "todoRepository", todoRepository);
+        ReflectionTestUtils.setField(scheduler, "eventPublisher", (ApplicationEventPublisher) event -> reminders.add((TodoReminderEvent) event));
+        ReflectionTestUtils.setField(scheduler, "horizon", Duration.ofHours(24));
+        ReflectionTestUtils.setField(scheduler, "overdueAfter", Duration.ofHours(2));
+        when(todoRepository.streamDueBetween(any(), any(), anyInt())).thenAnswer(invocation -> Stream.empty());
+    }
+
+    private static Todo todo(String id, long due) {
+        Todo todo = new Todo("Task " + id, null, new Date(due), "High");
+        todo.setId(id);
+        return todo;
+    }
+
+    private List<String> fired() {
+        List<String> fired = reminders.stream().map(reminder -> reminder.getType() + " " + reminder.getId()).collect(Collectors.toList());
+        reminders.clear();
+        return fired;
+    }
+
+    @Test
+    void testStartupLoadsTheWindowWithOneRangeQuery() {
+        // Arrange
+        when(todoRepository.streamDueBetween(new Date(START - 2 * HOUR), new Date(START + 24 * HOUR), 500))
+                .thenReturn(Stream.of(todo("late", START - HOUR), todo("soon", START + HOUR)));
+        scheduler.init(START);
+
+        // Act
+        scheduler.tick(START);
+
+        // Assert
+        assertEquals(2, scheduler.pendingCount());
+        scheduler.tick(START + HOUR);
+        assertEquals(List.of("OVERDUE late", "DUE soon"), fired());
+        scheduler.tick(START + 3 * HOUR);
+        assertEquals(List.of("OVERDUE soon"), fired());
+        assertEquals(0, scheduler.pendingCount());
+    }
+
+    @Test
+    void testWritesRescheduleAndCancelReminders() {
+        // Arrange
+        scheduler.init(START);
+        scheduler.tick(START);
+        Todo moved = todo("moved", START + HOUR);
+        Todo completed = todo("completed", START + HOUR);
+        scheduler.onTodoChanged(TodoChangedEvent.created(moved));
+        scheduler.onTodoChanged(TodoChangedEvent.created(completed));
+        scheduler.onTodoChanged(TodoChangedEvent.created(todo("deleted", START + HOUR)));
+
+        // Act
+        moved.setDueDate(new Date(START + 5 * HOUR));
+        scheduler.onTodoChanged(TodoChangedEvent.updated(moved));
+        completed.setCompleted(true);
+        scheduler.onTodoChanged(TodoChangedEvent.updated(completed));
+        scheduler.onTodoChanged(TodoChangedEvent.deleted("deleted"));
+
+        // Assert
+        scheduler.tick(START + 4 * HOUR);
+        assertEquals(List.of(), fired());
+        scheduler.tick(START + 5 * HOUR);
+        assertEquals(List.of("DUE moved"), fired());
+    }
+
+    @Test
+    void testTodosBeyondTheWindowWaitForItToMoveOn() {
+        // Arrange
+        scheduler.init(START);
+        scheduler.tick(START);
+
+        // Act
+        scheduler.onTodoChanged(TodoChangedEvent.created(todo("later", START + 30 * HOUR)));
+
+        // Assert
+        assertEquals(0, scheduler.pendingCount());
+        scheduler.tick(START + 11 * HOUR);
+        verify(todoRepository, times(1)).streamDueBetween(any(), any(), anyInt());
+        scheduler.tick(START + 13 * HOUR);
+        verify(todoRepository).streamDueBetween(new Date(START + 24 * HOUR), new Date(START + 37 * HOUR), 500);
+    }
+
+    @Test
+    void testLoadStopsAtMaxPendingAndShortensTheWindow() {
+        // Arrange
+        ReflectionTestUtils.setField(scheduler, "maxPending", 2);
+        when(todoRepository.streamDueBetween(eq(new Date(START - 2 * HOUR)), any(), anyInt()))
+                .thenReturn(Stream.of(todo("a", START + HOUR), todo("b", START + 2 * HOUR), todo("c", START + 3 * HOUR)));
+        scheduler.init(START);
+
+        // Act
+        scheduler.tick(START);
+        scheduler.onTodoChanged(TodoChangedEvent.created(todo("d", START + 4 * HOUR)));
+
+        // Assert
+        assertEquals(2, scheduler.pendingCount());
+        scheduler.tick(START + 4 * HOUR);
+        assertEquals(List.of("DUE a", "DUE b", "OVERDUE a", "OVERDUE b"), fired());
+        verify(todoRepository).streamDueBetween(eq(new Date(START + 3 * HOUR)), any(), anyInt());
+    }
+
+    @Test
+    void testWritesDuringTheLoadWinOverItsReads() {
+        // Arrange
+        Todo stale = todo("a", START + HOUR);
+        when(todoRepository.streamDueBetween(any(), any(), anyInt())).thenAnswer(invocation -> Stream.of(stale).peek(todo -> {
+            Todo written = todo("a", START + 2 * HOUR);
+            scheduler.onTodoChanged(TodoChangedEvent.updated(written));
+        }));
+        scheduler.init(START);
+
+        // Act
+        scheduler.tick(START);
+
+        // Assert
+        scheduler.tick(START + HOUR);
+        assertEquals(List.of(), fired());
+        scheduler.tick(START + 2 * HOUR);
+        assertEquals(List.of("DUE a"), fired());
+    }
+
+    @Test
+    void testFailedLoadIsRetriedAfterTheDelay() {
+        // Arrange
+        when(todoRepository.streamDueBetween(any(), any(), anyInt()))
+                .thenThrow(new DataAccessResourceFailureException("Mongo is down"))
+                .thenReturn(Stream.of(todo("a", START + HOUR)));
+        scheduler.init(START);
+
+        // Act
+        scheduler.tick(START);
+        scheduler.tick(START + 1000);
+        scheduler.tick(START + 30_000);
+
+        // Assert
+        verify(todoRepository, times(2)).streamDueBetween(eq(new Date(START - 2 * HOUR)), any(), anyInt());
+        assertEquals(1, scheduler.pendingCount());
+    }
+}
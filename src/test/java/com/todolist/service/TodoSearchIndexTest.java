@@ -0,0 +1,130 @@
+package com.todolist.service;
+
+import com.todolist.model.Todo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TodoSearchIndexTest {
+
+    private TodoSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TodoSearchIndex();
+        index.finishLoad();
+    }
+
+    private static Todo todo(String id, String title, String description) {
+        Todo todo = new Todo(title, description, null, "High");
+        todo.setId(id);
+        return todo;
+    }
+
+    @Test
+    void testSearchMatchesWordPrefixesInTitleAndDescription() {
+        // Arrange
+        index.put(todo("1", "Buy milk", "From the corner shop"));
+        index.put(todo("2", "Call plumber", "Kitchen sink is leaking"));
+
+        // Act & Assert
+        assertEquals(List.of("1"), index.search("mi", 10));
+        assertEquals(List.of("1"), index.search("corn", 10));
+        assertEquals(List.of("2"), index.search("LEAK", 10));
+        assertEquals(List.of(), index.search("ilk", 10));
+    }
+
+    @Test
+    void testSearchRequiresEveryTerm() {
+        // Arrange
+        index.put(todo("1", "Buy milk", null));
+        index.put(todo("2", "Buy bread", null));
+
+        // Act & Assert
+        assertEquals(List.of("2"), index.search("buy br", 10));
+        assertEquals(List.of(), index.search("buy eggs", 10));
+    }
+
+    @Test
+    void testSearchReturnsNewestWriteFirstUpToLimit() {
+        // Arrange
+        index.put(todo("1", "Task one", null));
+        index.put(todo("2", "Task two", null));
+        index.put(todo("3", "Task three", null));
+        index.put(todo("1", "Task one again", null));
+
+        // Act & Assert
+        assertEquals(List.of("1", "3"), index.search("task", 2));
+    }
+
+    @Test
+    void testUpdateReplacesTermsAndRemoveDropsTodo() {
+        // Arrange
+        index.put(todo("1", "Buy milk", null));
+        index.put(todo("1", "Buy coffee", null));
+        index.put(todo("2", "Walk dog", null));
+        index.remove("2");
+
+        // Act & Assert
+        assertEquals(List.of(), index.search("milk", 10));
+        assertEquals(List.of("1"), index.search("coffee", 10));
+        assertEquals(List.of(), index.search("walk", 10));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void testSearchFoldsCaseAndAccents() {
+        // Arrange
+        index.put(todo("1", "Réserver le Café", null));
+
+        // Act & Assert
+        assertEquals(List.of("1"), index.search("reserver cafe", 10));
+        assertEquals(List.of("1"), index.search("CAFÉ", 10));
+    }
+
+    @Test
+    void testSearchStaysCorrectAcrossCompaction() {
+        // Arrange
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 1000; i++) {
+                index.put(todo(String.valueOf(i), "Item " + i + " round" + round, null));
+            }
+        }
+
+        // Act
+        List<String> ids = index.search("round4 999", 10);
+
+        // Assert
+        assertEquals(List.of("999"), ids);
+        assertEquals(List.of(), index.search("round3", 10));
+        assertEquals(1000, index.size());
+    }
+
+    @Test
+    void testLoadDoesNotOverwriteWritesMadeDuringLoad() {
+        // Arrange
+        TodoSearchIndex loading = new TodoSearchIndex();
+        loading.put(todo("1", "Fresh title", null));
+        loading.remove("2");
+
+        // Act
+        loading.load(todo("1", "Stale title", null));
+        loading.load(todo("2", "Deleted todo", null));
+        loading.load(todo("3", "Untouched todo", null));
+        loading.finishLoad();
+
+        // Assert
+        assertEquals(List.of("1"), loading.search("fresh", 10));
+        assertEquals(List.of(), loading.search("stale", 10));
+        assertEquals(List.of(), loading.search("deleted", 10));
+        assertEquals(List.of("3"), loading.search("untouched", 10));
+    }
+
+    @Test
+    void testSearchBeforeLoadFinishes() {
+        assertThrows(IllegalStateException.class, () -> new TodoSearchIndex().search("buy", 10));
+    }
+}
@@ -0,0 +1,216 @@
+package com.todolist.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.todolist.model.Todo;
+import com.todolist.repository.TodoRepository;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@SpringJUnitConfig(TodoServiceCacheTest.Config.class)
+class TodoServiceCacheTest {
+
+    // Referenced from @SpringJUnitConfig rather than annotated, so scanning com.todolist skips it
+    @EnableCaching
+    static class Config {
+
+        @Bean
+        TodoService todoService() {
+            return new TodoService();
+        }
+
+        @Bean
+        TodoSearchIndex todoSearchIndex() {
+            return new TodoSearchIndex();
+        }
+
+        @Bean
+        TodoStatistics todoStatistics() {
+            return new TodoStatistics();
+        }
+
+        @Bean
+        TodoIngestQueue todoIngestQueue() {
+            return new TodoIngestQueue();
+        }
+
+        @Bean
+        CacheManager cacheManager() {
+            CaffeineCacheManager cacheManager = new CaffeineCacheManager(TodoService.TODO_CACHE);
+            cacheManager.setCaffeine(Caffeine.newBuilder().maximumSize(100).recordStats());
+            return cacheManager;
+        }
+
+        @Bean
+        Validator validator() {
+            return Validation.buildDefaultValidatorFactory().getValidator();
+        }
+
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper();
+        }
+
+        // Converts duration properties such as "30d" the way Spring Boot does
+        @Bean
+        static ConversionService conversionService() {
+            return ApplicationConversionService.getSharedInstance();
+        }
+    }
+
+    @MockitoBean
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private TodoService todoService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache(TodoService.TODO_CACHE).clear();
+    }
+
+    @Test
+    void testGetTodoByIdIsCached() {
+        // Arrange
+        Todo todo = new Todo("Task 1", "Description 1", new Date(), "High");
+        when(todoRepository.findById("1")).thenReturn(Optional.of(todo));
+
+        // Act
+        todoService.getTodoById("1");
+        Optional<Todo> result = todoService.getTodoById("1");
+
+        // Assert
+        assertTrue(result.isPresent());
+        assertEquals("Task 1", result.get().getTitle());
+        verify(todoRepository, times(1)).findById("1");
+    }
+
+    @Test
+    void testMissIsCached() {
+        // Arrange
+        when(todoRepository.findById("missing")).thenReturn(Optional.empty());
+
+        // Act
+        todoService.getTodoById("missing");
+        Optional<Todo> result = todoService.getTodoById("missing");
+
+        // Assert
+        assertTrue(result.isEmpty());
+        verify(todoRepository, times(1)).findById("missing");
+    }
+
+    @Test
+    void testWritesInvalidate() {
+        // Arrange
+        Todo todo = new Todo("Task 1", "Description 1", new Date(), "High");
+        todo.setId("1");
+        when(todoRepository.findById("1")).thenReturn(Optional.empty(), Optional.of(todo));
+        when(todoRepository.save(todo)).thenReturn(todo);
+        when(todoRepository.replace("1", todo)).thenReturn(todo);
+        when(todoRepository.removeWithTombstone("1")).thenReturn(1L);
+
+        // Act & Assert
+        assertTrue(todoService.getTodoById("1").isEmpty());
+        todoService.createTodo(todo);
+        assertTrue(todoService.getTodoById("1").isPresent());
+        todoService.updateTodo("1", todo);
+        todoService.getTodoById("1");
+        todoService.deleteTodo("1");
+        todoService.getTodoById("1");
+        verify(todoRepository, times(4)).findById("1");
+    }
+
+    @Test
+    void testLoadOverlappingAWriteIsNotKept() throws Exception {
+        // Arrange
+        Todo before = new Todo("Task 1", "Description 1", new Date(), "High");
+        Todo after = new Todo("Task 1", "Done", new Date(), "High");
+        after.setId("1");
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch written = new CountDownLatch(1);
+        when(todoRepository.findById("1")).thenAnswer(invocation -> {
+            loading.countDown();
+            written.await(5, TimeUnit.SECONDS);
+            return Optional.of(before);
+        }).thenReturn(Optional.of(after));
+        when(todoRepository.replace("1", after)).thenReturn(after);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        // Act
+        Future<Optional<Todo>> stale = executor.submit(() -> todoService.getTodoById("1"));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        todoService.updateTodo("1", after);
+        written.countDown();
+        assertSame(before, stale.get(5, TimeUnit.SECONDS).orElseThrow());
+        executor.shutdown();
+
+        // Assert
+        assertSame(after, todoService.getTodoById("1").orElseThrow());
+        verify(todoRepository, times(2)).findById("1");
+    }
+
+    @Test
+    void testArchivingInvalidatesOnlyWhenSomethingMoved() {
+        // Arrange
+        Todo todo = new Todo("Task 1", "Description 1", new Date(), "High");
+        when(todoRepository.findById("1")).thenReturn(Optional.of(todo), Optional.empty());
+        when(todoRepository.archiveCompleted(any(Date.class), anyInt())).thenReturn(List.of(), List.of("1"));
+
+        // Act & Assert
+        todoService.getTodoById("1");
+        todoService.archiveCompleted(new Date(), 500);
+        assertTrue(todoService.getTodoById("1").isPresent());
+        todoService.archiveCompleted(new Date(), 500);
+        assertTrue(todoService.getTodoById("1").isEmpty());
+        verify(todoRepository, times(2)).findById("1");
+    }
+
+    @Test
+    void testConcurrentMissesShareOneLoad() throws Exception {
+        // Arrange
+        CountDownLatch loading = new CountDownLatch(1);
+        when(todoRepository.findById("hot")).thenAnswer(invocation -> {
+            loading.await(5, TimeUnit.SECONDS);
+            return Optional.of(new Todo("Hot Task", "Hot Description", new Date(), "High"));
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // Act
+        for (int i = 0; i < 8; i++) {
+            executor.submit(() -> todoService.getTodoById("hot"));
+        }
+        Thread.sleep(200);
+        loading.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+        // Assert
+        verify(todoRepository, times(1)).findById("hot");
+    }
+}
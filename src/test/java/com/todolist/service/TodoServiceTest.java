@@ -1,21 +1,53 @@
 package com.todolist.service;
 
+import com.todolist.model.PartialTodo;
 import com.todolist.model.Todo;
+import com.todolist.model.TodoBulkOperation;
+import com.todolist.model.TodoBulkResult;
+import com.todolist.model.TodoChanges;
+import com.todolist.model.TodoCursor;
+import com.todolist.model.TodoFields;
+import com.todolist.model.TodoFilter;
+import com.todolist.model.TodoSlice;
+import com.todolist.model.TodoStats;
+import com.todolist.model.TodoSyncToken;
+import com.todolist.model.TodoTombstone;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.todolist.repository.TodoRepository;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -25,6 +57,24 @@ class TodoServiceTest {
     @Mock
     private TodoRepository todoRepository;
 
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TodoSearchIndex searchIndex;
+
+    @Mock
+    private TodoStatistics statistics;
+
+    @Mock
+    private TodoIngestQueue ingestQueue;
+
     @InjectMocks
     private TodoService todoService;
 
@@ -39,17 +89,39 @@ class TodoServiceTest {
         Todo todo1 = new Todo("Task 1", "Description 1", new Date(), "High");
         Todo todo2 = new Todo("Task 2", "Description 2", new Date(), "Medium");
         List<Todo> todos = Arrays.asList(todo1, todo2);
-        when(todoRepository.findAll()).thenReturn(todos);
+        TodoFilter filter = TodoFilter.none();
+        when(todoRepository.findAll(filter)).thenReturn(todos);
 
         // Act
-        List<Todo> result = todoService.getAllTodos();
+        List<Todo> result = todoService.getAllTodos(filter);
 
         // Assert
         assertEquals(2, result.size());
         assertEquals("Task 1", result.get(0).getTitle());
         assertEquals("Description 1", result.get(0).getDescription());
         assertEquals("High", result.get(0).getPriority());
-        verify(todoRepository, times(1)).findAll();
+        verify(todoRepository, times(1)).findAll(filter);
+    }
+
+    @Test
+    void testStreamAllTodos() {
+        // Arrange
+        Todo todo1 = new Todo("Task 1", "Description 1", new Date(), "High");
+        Todo todo2 = new Todo("Task 2", "Description 2", new Date(), "Medium");
+        TodoFilter filter = new TodoFilter(false, null, null, null);
+        when(todoRepository.streamAll(filter, 500)).thenReturn(Stream.of(todo1, todo2));
+
+        // Act
+        List<Todo> result;
+        try (Stream<Todo> stream = todoService.streamAllTodos(filter)) {
+            result = stream.collect(Collectors.toList());
+        }
+
+        // Assert
+        assertEquals(2, result.size());
+        assertEquals("Task 1", result.get(0).getTitle());
+        verify(todoRepository, times(1)).streamAll(filter, 500);
+        verify(todoRepository, never()).findAll(filter);
     }
 
     @Test
@@ -60,17 +132,193 @@ class TodoServiceTest {
         List<Todo> todos = Arrays.asList(todo1, todo2);
         Pageable pageable = PageRequest.of(0, 10);
         Page<Todo> todoPage = new PageImpl<>(todos, pageable, todos.size());
-        when(todoRepository.findAll(pageable)).thenReturn(todoPage);
+        TodoFilter filter = new TodoFilter(false, "High", new Date(0L), new Date());
+        when(todoRepository.findAll(filter, pageable)).thenReturn(todoPage);
 
         // Act
-        Page<Todo> result = todoService.getAllTodos(pageable);
+        Page<Todo> result = todoService.getAllTodos(filter, pageable);
 
         // Assert
         assertEquals(2, result.getContent().size());
         assertEquals("Task 1", result.getContent().get(0).getTitle());
         assertEquals("Description 1", result.getContent().get(0).getDescription());
         assertEquals("High", result.getContent().get(0).getPriority());
-        verify(todoRepository, times(1)).findAll(pageable);
+        verify(todoRepository, times(1)).findAll(filter, pageable);
+    }
+
+    @Test
+    void testGetAllTodosWithFieldsAsksTheRepositoryForThoseFields() {
+        // Arrange
+        Todo todo = new Todo("Task 1", "Description 1", new Date(), "High");
+        TodoFilter filter = TodoFilter.none();
+        ArgumentCaptor<TodoFields> fields = ArgumentCaptor.forClass(TodoFields.class);
+        when(todoRepository.findAll(eq(filter), fields.capture())).thenReturn(List.of(todo));
+
+        // Act
+        List<PartialTodo> result = todoService.getAllTodos(filter, "completed, title");
+
+        // Assert
+        assertEquals(1, result.size());
+        assertSame(todo, result.get(0).getTodo());
+        assertEquals(List.of("id", "title", "completed"), fields.getValue().names());
+    }
+
+    @Test
+    void testGetAllTodosRejectsUnknownFields() {
+        // Act & Assert
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> todoService.getAllTodos(TodoFilter.none(), "title,owner"));
+        assertEquals("Unknown todo field: 'owner'", e.getMessage());
+        verify(todoRepository, never()).findAll(any(TodoFilter.class), any(TodoFields.class));
+    }
+
+    @Test
+    void testGetTodosByCursorFirstPage() {
+        // Arrange
+        Todo todo1 = new Todo("Task 1", "Description 1", new Date(1000L), "High");
+        todo1.setId("a");
+        Todo todo2 = new Todo("Task 2", "Description 2", new Date(2000L), "Medium");
+        todo2.setId("b");
+        Todo todo3 = new Todo("Task 3", "Description 3", new Date(3000L), "Low");
+        todo3.setId("c");
+        when(todoRepository.findAfter(any(TodoCursor.class), eq(3))).thenReturn(Arrays.asList(todo1, todo2, todo3));
+
+        // Act
+        TodoSlice result = todoService.getTodosByCursor("dueDate", "asc", 2, null);
+
+        // Assert
+        assertEquals(2, result.getSize());
+        assertTrue(result.isHasNext());
+        TodoCursor next = TodoCursor.decode(result.getNextToken());
+        assertEquals("dueDate", next.getSort());
+        assertEquals(Sort.Direction.ASC, next.getDirection());
+        assertEquals(new Date(2000L), next.sortValue());
+        assertEquals("b", next.getLastId());
+        verify(todoRepository, never()).count();
+    }
+
+    @Test
+    void testGetTodosByCursorLastPage() {
+        // Arrange
+        Todo todo1 = new Todo("Task 1", "Description 1", new Date(), "High");
+        todo1.setId("a");
+        String token = TodoCursor.first("priority", Sort.Direction.DESC).after(todo1).encode();
+        when(todoRepository.findAfter(any(TodoCursor.class), eq(21))).thenReturn(List.of(todo1));
+
+        // Act
+        TodoSlice result = todoService.getTodosByCursor("id", "asc", 20, token);
+
+        // Assert
+        ArgumentCaptor<TodoCursor> captor = ArgumentCaptor.forClass(TodoCursor.class);
+        verify(todoRepository).findAfter(captor.capture(), eq(21));
+        assertEquals("priority", captor.getValue().getSort());
+        assertEquals(Sort.Direction.DESC, captor.getValue().getDirection());
+        assertEquals("High", captor.getValue().sortValue());
+        assertEquals(1, result.getSize());
+        assertFalse(result.isHasNext());
+        assertNull(result.getNextToken());
+    }
+
+    @Test
+    void testGetTodosByCursorRejectsBadInput() {
+        assertThrows(IllegalArgumentException.class, () -> todoService.getTodosByCursor("title", "asc", 20, null));
+        assertThrows(IllegalArgumentException.class, () -> todoService.getTodosByCursor("id", "sideways", 20, null));
+        assertThrows(IllegalArgumentException.class, () -> todoService.getTodosByCursor("id", "asc", 20, "not-a-token"));
+    }
+
+    private static Todo modifiedAt(String id, long time) {
+        Todo todo = new Todo("Task " + id, null, null, "High");
+        todo.setId(id);
+        todo.setLastModified(new Date(time));
+        return todo;
+    }
+
+    @Test
+    void testGetChangesFullSyncSkipsTombstones() {
+        // Arrange
+        when(todoRepository.findChangedSince(any(TodoSyncToken.class), eq(3)))
+                .thenReturn(List.of(modifiedAt("a", 1000L), modifiedAt("b", 2000L), modifiedAt("c", 3000L)));
+
+        // Act
+        TodoChanges changes = todoService.getChanges(null, 2);
+
+        // Assert
+        assertEquals(List.of("a", "b"), changes.getChanged().stream().map(Todo::getId).toList());
+        assertTrue(changes.isHasMore());
+        TodoSyncToken next = TodoSyncToken.decode(changes.getNextToken());
+        assertTrue(next.isFull());
+        assertEquals(2000L, next.getTime());
+        assertEquals("b", next.getLastId());
+        assertNotNull(next.getResumeFrom());
+        verify(todoRepository, never()).findDeletedSince(any(), anyInt());
+    }
+
+    @Test
+    void testGetChangesMergesDeletesInOrder() {
+        // Arrange
+        long since = System.currentTimeMillis() - 60_000;
+        when(todoRepository.findChangedSince(any(TodoSyncToken.class), eq(3)))
+                .thenReturn(List.of(modifiedAt("a", since + 1), modifiedAt("b", since + 3)));
+        when(todoRepository.findDeletedSince(any(TodoSyncToken.class), eq(3)))
+                .thenReturn(List.of(new TodoTombstone("x", new Date(since + 2))));
+
+        // Act
+        TodoChanges changes = todoService.getChanges(TodoSyncToken.since(since).encode(), 2);
+
+        // Assert
+        assertEquals(List.of("a"), changes.getChanged().stream().map(Todo::getId).toList());
+        assertEquals(List.of("x"), changes.getDeleted());
+        assertTrue(changes.isHasMore());
+        TodoSyncToken next = TodoSyncToken.decode(changes.getNextToken());
+        assertFalse(next.isFull());
+        assertEquals(since + 2, next.getTime());
+        assertEquals("x", next.getLastId());
+    }
+
+    @Test
+    void testGetChangesReportsArchivedTodosApartFromDeletes() {
+        // Arrange
+        long since = System.currentTimeMillis() - 60_000;
+        when(todoRepository.findChangedSince(any(TodoSyncToken.class), eq(501))).thenReturn(List.of());
+        when(todoRepository.findDeletedSince(any(TodoSyncToken.class), eq(501))).thenReturn(List.of(
+                new TodoTombstone("x", new Date(since + 1)),
+                new TodoTombstone("y", new Date(since + 2), TodoTombstone.ARCHIVED)));
+
+        // Act
+        TodoChanges changes = todoService.getChanges(TodoSyncToken.since(since).encode(), 500);
+
+        // Assert
+        assertEquals(List.of("x"), changes.getDeleted());
+        assertEquals(List.of("y"), changes.getArchived());
+    }
+
+    @Test
+    void testGetChangesLastPageResumesBeforeThePassStarted() {
+        // Arrange
+        long before = System.currentTimeMillis();
+        when(todoRepository.findChangedSince(any(TodoSyncToken.class), eq(501))).thenReturn(List.of(modifiedAt("a", before)));
+        when(todoRepository.findDeletedSince(any(TodoSyncToken.class), eq(501))).thenReturn(List.of());
+
+        // Act
+        TodoChanges changes = todoService.getChanges(TodoSyncToken.since(before - 60_000).encode(), 500);
+
+        // Assert
+        assertFalse(changes.isHasMore());
+        TodoSyncToken next = TodoSyncToken.decode(changes.getNextToken());
+        assertFalse(next.isFull());
+        assertTrue(next.isFirstPage());
+        assertTrue(next.getTime() >= before - 5_000 && next.getTime() < before, "resumes 5s before the pass");
+    }
+
+    @Test
+    void testGetChangesResetsTokensOlderThanTombstones() {
+        // Arrange
+        String expired = TodoSyncToken.since(System.currentTimeMillis() - 31L * 24 * 60 * 60 * 1000).encode();
+
+        // Act & Assert
+        assertTrue(todoService.getChanges(expired, 500).isReset());
+        assertThrows(IllegalArgumentException.class, () -> todoService.getChanges("not-a-token", 500));
+        verifyNoInteractions(todoRepository);
     }
 
     @Test
@@ -106,42 +354,478 @@ class TodoServiceTest {
         assertEquals("New Description", result.getDescription());
         assertEquals("Low", result.getPriority());
         verify(todoRepository, times(1)).save(todo);
+        assertNotNull(todo.getLastModified());
+        ArgumentCaptor<TodoChangedEvent> event = ArgumentCaptor.forClass(TodoChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(TodoChangedEvent.Type.CREATED, event.getValue().getType());
+        assertSame(todo, event.getValue().getTodo());
+    }
+
+    @Test
+    void testCreateTodoThroughIngestQueue() {
+        // Arrange
+        Todo todo = new Todo("New Task", null, null, "Low");
+        when(ingestQueue.isEnabled()).thenReturn(true);
+        when(ingestQueue.insert(todo)).thenReturn(todo);
+
+        // Act
+        Todo result = todoService.createTodo(todo);
+
+        // Assert
+        assertSame(todo, result);
+        verify(todoRepository, never()).save(any());
+        verify(eventPublisher).publishEvent(any(TodoChangedEvent.class));
+    }
+
+    @Test
+    void testCreateTodoIgnoresClientVersion() {
+        // Arrange
+        Todo todo = new Todo("New Task", "New Description", new Date(), "Low");
+        todo.setVersion(7L);
+        when(todoRepository.save(todo)).thenReturn(todo);
+
+        // Act
+        todoService.createTodo(todo);
+
+        // Assert
+        assertNull(todo.getVersion());
     }
 
     @Test
     void testDeleteTodo() {
         // Arrange
         String id = "1";
-        doNothing().when(todoRepository).deleteById(id);
+        when(todoRepository.removeWithTombstone(id)).thenReturn(1L);
+
+        // Act
+        boolean deleted = todoService.deleteTodo(id);
+
+        // Assert
+        assertTrue(deleted);
+        verify(todoRepository, times(1)).removeWithTombstone(id);
+        verify(todoRepository, never()).findById(id);
+        ArgumentCaptor<TodoChangedEvent> event = ArgumentCaptor.forClass(TodoChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(TodoChangedEvent.Type.DELETED, event.getValue().getType());
+        assertEquals(id, event.getValue().getId());
+    }
+
+    @Test
+    void testDeleteTodoNotFound() {
+        // Arrange
+        String id = "1";
+        when(todoRepository.removeWithTombstone(id)).thenReturn(0L);
+
+        // Act & Assert
+        assertFalse(todoService.deleteTodo(id));
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void testSearchTodosKeepsIndexOrder() {
+        // Arrange
+        Todo todo1 = new Todo("Buy milk", null, null, "High");
+        todo1.setId("a");
+        Todo todo2 = new Todo("Buy bread", null, null, "Low");
+        todo2.setId("b");
+        when(searchIndex.search("buy", 10)).thenReturn(List.of("b", "gone", "a"));
+        when(todoRepository.findAllById(List.of("b", "gone", "a"))).thenReturn(List.of(todo1, todo2));
+
+        // Act
+        List<Todo> result = todoService.searchTodos("buy", 10);
+
+        // Assert
+        assertEquals(List.of(todo2, todo1), result);
+    }
+
+    @Test
+    void testSearchTodosCapsLimit() {
+        // Arrange
+        when(searchIndex.search("buy", TodoService.MAX_SEARCH_RESULTS)).thenReturn(List.of());
+
+        // Act
+        List<Todo> result = todoService.searchTodos("buy", 10_000);
+
+        // Assert
+        assertTrue(result.isEmpty());
+        verify(todoRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void testGetStats() {
+        // Arrange
+        TodoStats stats = new TodoStats(3, 1, Map.of("High", 3L), 1, 0);
+        when(statistics.snapshot()).thenReturn(stats);
 
         // Act
-        todoService.deleteTodo(id);
+        TodoStats result = todoService.getStats();
 
         // Assert
-        verify(todoRepository, times(1)).deleteById(id);
+        assertSame(stats, result);
+        verifyNoInteractions(todoRepository);
     }
+
     @Test
     void testUpdateTodo() {
         // Arrange
         String id = "1";
-        Todo existingTodo = new Todo("Task 1", "Description 1", new Date(), "High");
-        existingTodo.setId(id);
+        Todo updatedTodo = new Todo("Updated Task", "Updated Description", new Date(), "Medium");
+        when(todoRepository.replace(id, updatedTodo)).thenReturn(updatedTodo);
+
+        // Act
+        Optional<Todo> result = todoService.updateTodo(id, updatedTodo);
 
+        // Assert
+        assertTrue(result.isPresent());
+        assertEquals(id, result.get().getId());
+        assertEquals("Updated Task", result.get().getTitle());
+        assertEquals("Updated Description", result.get().getDescription());
+        assertEquals("Medium", result.get().getPriority());
+        verify(todoRepository, times(1)).replace(id, updatedTodo);
+        verify(todoRepository, never()).findById(id);
+        verify(todoRepository, never()).save(any(Todo.class));
+    }
+
+    @Test
+    void testUpdateTodoNotFound() {
+        // Arrange
+        String id = "1";
         Todo updatedTodo = new Todo("Updated Task", "Updated Description", new Date(), "Medium");
-        updatedTodo.setId(id);
+        when(todoRepository.replace(id, updatedTodo)).thenReturn(null);
 
-        when(todoRepository.findById(id)).thenReturn(Optional.of(existingTodo));
-        when(todoRepository.save(updatedTodo)).thenReturn(updatedTodo);
+        // Act & Assert
+        assertTrue(todoService.updateTodo(id, updatedTodo).isEmpty());
+        verify(todoRepository, never()).existsById(id);
+    }
+
+    @Test
+    void testUpdateTodoStaleVersion() {
+        // Arrange
+        String id = "1";
+        Todo updatedTodo = new Todo("Updated Task", "Updated Description", new Date(), "Medium");
+        updatedTodo.setVersion(2L);
+        when(todoRepository.replace(id, updatedTodo)).thenReturn(null);
+        when(todoRepository.existsById(id)).thenReturn(true);
+
+        // Act & Assert
+        assertThrows(OptimisticLockingFailureException.class, () -> todoService.updateTodo(id, updatedTodo));
+    }
+
+    @Test
+    void testPatchTodoSetsOnlyChangedFields() {
+        // Arrange
+        String id = "1";
+        Todo patchedTodo = new Todo("Task 1", "Description 1", new Date(), "Low");
+        Map<String, Object> changes = new LinkedHashMap<>();
+        changes.put("priority", "Low");
+        changes.put("dueDate", "2023-12-31T23:59:59Z");
+        changes.put("version", 4);
+        when(todoRepository.patch(eq(id), anyMap(), eq(4L))).thenReturn(patchedTodo);
 
         // Act
-        Todo result = todoService.updateTodo(id, updatedTodo);
+        Optional<Todo> result = todoService.patchTodo(id, changes);
 
         // Assert
-        assertNotNull(result);
-        assertEquals("Updated Task", result.getTitle());
-        assertEquals("Updated Description", result.getDescription());
-        assertEquals("Medium", result.getPriority());
-        verify(todoRepository, times(1)).findById(id);
-        verify(todoRepository, times(1)).save(updatedTodo);
+        assertTrue(result.isPresent());
+        ArgumentCaptor<Map<String, Object>> captor = ArgumentCaptor.forClass(Map.class);
+        verify(todoRepository).patch(eq(id), captor.capture(), eq(4L));
+        assertEquals(Set.of("priority", "dueDate"), captor.getValue().keySet());
+        assertEquals(new Date(1704067199000L), captor.getValue().get("dueDate"));
+    }
+
+    @Test
+    void testPatchTodoRejectsInvalidChanges() {
+        assertThrows(IllegalArgumentException.class, () -> todoService.patchTodo("1", Map.of("id", "2")));
+        assertThrows(IllegalArgumentException.class, () -> todoService.patchTodo("1", Map.of("title", " ")));
+        assertThrows(IllegalArgumentException.class, () -> todoService.patchTodo("1", Map.of("completed", "maybe")));
+        assertThrows(IllegalArgumentException.class, () -> todoService.patchTodo("1", Map.of()));
+        verify(todoRepository, never()).patch(anyString(), anyMap(), any());
+    }
+
+    @Test
+    void testBulkWriteReportsPerItemStatus() {
+        // Arrange
+        ReflectionTestUtils.setField(todoService, "bulkChunkSize", 3);
+        List<TodoBulkOperation> operations = Arrays.asList(
+                new TodoBulkOperation(TodoBulkOperation.Type.CREATE, null, new Todo("New Task", "New Description", new Date(), "Low")),
+                new TodoBulkOperation(TodoBulkOperation.Type.CREATE, null, new Todo("", "Blank title", new Date(), "Low")),
+                new TodoBulkOperation(TodoBulkOperation.Type.UPDATE, "1", new Todo("Updated Task", "Updated Description", new Date(), "High")),
+                new TodoBulkOperation(TodoBulkOperation.Type.UPDATE, "missing", new Todo("Updated Task", "Updated Description", new Date(), "High")),
+                new TodoBulkOperation(TodoBulkOperation.Type.DELETE, "2", null),
+                new TodoBulkOperation(TodoBulkOperation.Type.CREATE, "dup", new Todo("Dup Task", "Dup Description", new Date(), "Low")));
+        Todo stored = new Todo("Updated Task", "Updated Description", new Date(), "High");
+        stored.setId("1");
+        stored.setVersion(4L);
+        when(todoRepository.replaceAll(anyList())).thenReturn(List.of(stored));
+        when(todoRepository.removeMatching(List.of("2"), TodoFilter.none())).thenReturn(List.of("2"));
+        when(todoRepository.insertAll(anyList())).thenReturn(Map.of()).thenReturn(Map.of(0, "E11000 duplicate key error"));
+
+        // Act
+        List<TodoBulkResult> results = todoService.bulkWrite(operations);
+
+        // Assert
+        assertEquals(6, results.size());
+        assertEquals(200, results.get(0).getStatus());
+        assertNotNull(results.get(0).getId());
+        assertEquals(400, results.get(1).getStatus());
+        assertEquals("title: Title cannot be blank", results.get(1).getError());
+        assertEquals(200, results.get(2).getStatus());
+        assertEquals(404, results.get(3).getStatus());
+        assertEquals(204, results.get(4).getStatus());
+        assertEquals(409, results.get(5).getStatus());
+        assertEquals("dup", results.get(5).getId());
+        verify(todoRepository, times(2)).insertAll(anyList());
+        verify(todoRepository, never()).save(any(Todo.class));
+        ArgumentCaptor<TodoChangedEvent> events = ArgumentCaptor.forClass(TodoChangedEvent.class);
+        verify(eventPublisher, times(3)).publishEvent(events.capture());
+        assertSame(stored, events.getAllValues().get(1).getTodo());
+    }
+
+    @Test
+    void testBulkWriteReportsWritesThatMissed() {
+        // Arrange
+        Todo stale = new Todo("Updated Task", "Updated Description", new Date(), "High");
+        stale.setVersion(2L);
+        List<TodoBulkOperation> operations = Arrays.asList(
+                new TodoBulkOperation(TodoBulkOperation.Type.UPDATE, "1", stale),
+                new TodoBulkOperation(TodoBulkOperation.Type.DELETE, "gone", null));
+        when(todoRepository.replaceAll(anyList())).thenReturn(List.of());
+        when(todoRepository.findExistingIds(List.of("1"))).thenReturn(Set.of("1"));
+        when(todoRepository.removeMatching(List.of("gone"), TodoFilter.none())).thenReturn(List.of());
+
+        // Act
+        List<TodoBulkResult> results = todoService.bulkWrite(operations);
+
+        // Assert
+        assertEquals(409, results.get(0).getStatus());
+        assertEquals(404, results.get(1).getStatus());
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void testBulkWriteMakesOneRepositoryCallPerKindOfWritePerChunk() {
+        // Arrange
+        ReflectionTestUtils.setField(todoService, "bulkChunkSize", 6);
+        List<TodoBulkOperation> operations = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            TodoBulkOperation.Type op = TodoBulkOperation.Type.values()[i % 3];
+            Todo todo = op == TodoBulkOperation.Type.DELETE ? null : new Todo("Task " + i, "Description", new Date(), "Low");
+            operations.add(new TodoBulkOperation(op, op == TodoBulkOperation.Type.CREATE ? null : "id" + i, todo));
+        }
+        when(todoRepository.insertAll(anyList())).thenReturn(Map.of());
+        when(todoRepository.replaceAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(todoRepository.removeMatching(anyList(), eq(TodoFilter.none()))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        List<TodoBulkResult> results = todoService.bulkWrite(operations);
+
+        // Assert
+        assertTrue(results.stream().allMatch(result -> result.getStatus() < 300));
+        verify(todoRepository, times(2)).insertAll(anyList());
+        verify(todoRepository, times(2)).replaceAll(anyList());
+        verify(todoRepository, times(2)).removeMatching(anyList(), eq(TodoFilter.none()));
+        verifyNoMoreInteractions(todoRepository);
+    }
+
+    @Test
+    void testBulkWriteRejectsOversizedRequest() {
+        // Arrange
+        ReflectionTestUtils.setField(todoService, "bulkMaxOperations", 1);
+        List<TodoBulkOperation> operations = Arrays.asList(
+                new TodoBulkOperation(TodoBulkOperation.Type.DELETE, "1", null),
+                new TodoBulkOperation(TodoBulkOperation.Type.DELETE, "2", null));
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> todoService.bulkWrite(operations));
+        verifyNoInteractions(todoRepository);
+    }
+
+    @Test
+    void testArchiveCompletedPublishesArchivedEvents() {
+        // Arrange
+        Date before = new Date();
+        when(todoRepository.archiveCompleted(before, 500)).thenReturn(List.of("1", "2"));
+
+        // Act
+        int archived = todoService.archiveCompleted(before, 500);
+
+        // Assert
+        assertEquals(2, archived);
+        ArgumentCaptor<TodoChangedEvent> events = ArgumentCaptor.forClass(TodoChangedEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        assertEquals(List.of("1", "2"), events.getAllValues().stream().map(TodoChangedEvent::getId).toList());
+        assertTrue(events.getAllValues().stream().allMatch(event -> event.getType() == TodoChangedEvent.Type.ARCHIVED));
+        assertTrue(events.getAllValues().stream().allMatch(TodoChangedEvent::isRemoved));
+    }
+
+    @Test
+    void testArchiveCompletedWithNothingDue() {
+        // Arrange
+        Date before = new Date();
+        when(todoRepository.archiveCompleted(before, 500)).thenReturn(List.of());
+
+        // Act
+        int archived = todoService.archiveCompleted(before, 500);
+
+        // Assert
+        assertEquals(0, archived);
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void testGetArchivedTodoById() {
+        // Arrange
+        Todo todo = new Todo("Done", "Long ago", null, "Low");
+        when(todoRepository.findArchivedById("1")).thenReturn(Optional.of(todo));
+
+        // Act
+        Optional<Todo> result = todoService.getArchivedTodoById("1");
+
+        // Assert
+        assertSame(todo, result.orElseThrow());
+        verify(todoRepository, never()).findById("1");
+    }
+
+    @Test
+    void testUpdateMatchingPublishesUpdatedEvents() {
+        // Arrange
+        TodoFilter filter = new TodoFilter(false, "High", null, null);
+        Todo todo = new Todo("Overdue", "Now done", null, "High");
+        todo.setId("1");
+        todo.setCompleted(true);
+        when(todoRepository.updateMatching(List.of("1", "2"), filter, Map.of("completed", true))).thenReturn(List.of(todo));
+
+        // Act
+        int updated = todoService.updateMatching(List.of("1", "2"), filter, Map.of("completed", true));
+
+        // Assert
+        assertEquals(1, updated);
+        ArgumentCaptor<TodoChangedEvent> event = ArgumentCaptor.forClass(TodoChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(TodoChangedEvent.Type.UPDATED, event.getValue().getType());
+        assertSame(todo, event.getValue().getTodo());
+    }
+
+    @Test
+    void testDeleteMatchingPublishesDeletedEvents() {
+        // Arrange
+        TodoFilter filter = new TodoFilter(true, null, null, null);
+        when(todoRepository.removeMatching(List.of("1", "2"), filter)).thenReturn(List.of("1", "2"));
+
+        // Act
+        int deleted = todoService.deleteMatching(List.of("1", "2"), filter);
+
+        // Assert
+        assertEquals(2, deleted);
+        ArgumentCaptor<TodoChangedEvent> events = ArgumentCaptor.forClass(TodoChangedEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        assertTrue(events.getAllValues().stream().allMatch(event -> event.getType() == TodoChangedEvent.Type.DELETED));
+    }
+
+    // Runs the calls concurrently while the repository is held up, and releases it once all but the first are waiting
+    private <T> List<T> runConcurrently(int callers, Callable<T> call, SingleFlight<?, ?> flight, CountDownLatch repository)
+            throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<T>> futures = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                futures.add(executor.submit(call));
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (flight.waiting() < callers - 1 && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            repository.countDown();
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                results.add(future.get(10, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testConcurrentReadsOfOneTodoShareOneRepositoryCall() throws Exception {
+        // Arrange
+        Todo todo = new Todo("Hot", "Read by everyone", null, "High");
+        CountDownLatch repository = new CountDownLatch(1);
+        when(todoRepository.findById("1")).thenAnswer(invocation -> {
+            repository.await(10, TimeUnit.SECONDS);
+            return Optional.of(todo);
+        });
+
+        // Act
+        List<Optional<Todo>> results = runConcurrently(200, () -> todoService.getTodoById("1"),
+                (SingleFlight<?, ?>) ReflectionTestUtils.getField(todoService, "todoReads"), repository);
+
+        // Assert
+        verify(todoRepository, times(1)).findById("1");
+        assertEquals(200, results.size());
+        assertTrue(results.stream().allMatch(result -> result.orElseThrow() == todo));
+    }
+
+    @Test
+    void testConcurrentReadsOfOnePageShareOneRepositoryCall() throws Exception {
+        // Arrange
+        Page<Todo> page = new PageImpl<>(List.of(new Todo("Hot", "On the first page", null, "High")));
+        CountDownLatch repository = new CountDownLatch(1);
+        when(todoRepository.findAll(any(TodoFilter.class), any(Pageable.class))).thenAnswer(invocation -> {
+            repository.await(10, TimeUnit.SECONDS);
+            return page;
+        });
+
+        // Act
+        List<Page<Todo>> results = runConcurrently(200,
+                () -> todoService.getAllTodos(new TodoFilter(false, "High", null, null), PageRequest.of(0, 20, Sort.by("dueDate"))),
+                (SingleFlight<?, ?>) ReflectionTestUtils.getField(todoService, "pageReads"), repository);
+
+        // Assert
+        verify(todoRepository, times(1)).findAll(any(TodoFilter.class), any(Pageable.class));
+        assertTrue(results.stream().allMatch(result -> result == page));
+    }
+
+    @Test
+    void testDifferentPagesAreNotShared() {
+        // Arrange
+        when(todoRepository.findAll(any(TodoFilter.class), any(Pageable.class))).thenReturn(Page.empty());
+
+        // Act
+        todoService.getAllTodos(TodoFilter.none(), PageRequest.of(0, 20));
+        todoService.getAllTodos(TodoFilter.none(), PageRequest.of(1, 20));
+        todoService.getAllTodos(new TodoFilter(true, null, null, null), PageRequest.of(0, 20));
+
+        // Assert
+        verify(todoRepository, times(3)).findAll(any(TodoFilter.class), any(Pageable.class));
+    }
+
+    @Test
+    void testReadAfterAWriteDoesNotJoinACallStartedBeforeIt() throws Exception {
+        // Arrange
+        Todo before = new Todo("Before", "Old", null, "High");
+        Todo after = new Todo("After", "New", null, "High");
+        CountDownLatch slowRead = new CountDownLatch(1);
+        CountDownLatch readStarted = new CountDownLatch(1);
+        when(todoRepository.findById("1")).thenAnswer(invocation -> {
+            readStarted.countDown();
+            slowRead.await(10, TimeUnit.SECONDS);
+            return Optional.of(before);
+        }).thenReturn(Optional.of(after));
+        when(todoRepository.replace(eq("1"), any(Todo.class))).thenReturn(after);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<Optional<Todo>> earlyRead = executor.submit(() -> todoService.getTodoById("1"));
+        readStarted.await(10, TimeUnit.SECONDS);
+
+        // Act
+        todoService.updateTodo("1", new Todo("After", "New", null, "High"));
+        Optional<Todo> lateRead = todoService.getTodoById("1");
+        slowRead.countDown();
+
+        // Assert
+        assertSame(after, lateRead.orElseThrow());
+        assertSame(before, earlyRead.get(10, TimeUnit.SECONDS).orElseThrow());
+        verify(todoRepository, times(2)).findById("1");
+        executor.shutdown();
     }
 }
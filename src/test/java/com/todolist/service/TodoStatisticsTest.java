@@ -0,0 +1,227 @@
+package com.todolist.service;
+
+import com.todolist.model.Todo;
+import com.todolist.model.TodoStats;
+import com.todolist.model.TodoTally;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TodoStatisticsTest {
+
+    private static final Instant NOON = Instant.parse("2026-10-17T12:00:00Z");
+
+    private MutableClock clock;
+    private TodoStatistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(NOON);
+        statistics = new TodoStatistics(clock);
+        statistics.finishLoad();
+    }
+
+    private static Todo todo(String id, String priority, boolean completed, Instant due) {
+        Todo todo = new Todo("Task " + id, null, due == null ? null : Date.from(due), priority);
+        todo.setId(id);
+        todo.setCompleted(completed);
+        return todo;
+    }
+
+    @Test
+    void testCountsWrites() {
+        // Arrange
+        statistics.put(todo("1", "High", false, NOON.minus(Duration.ofDays(2))));
+        statistics.put(todo("2", "High", false, NOON.plus(Duration.ofHours(3))));
+        statistics.put(todo("3", "Low", true, NOON.minus(Duration.ofDays(1))));
+        statistics.put(todo("4", null, false, null));
+
+        // Act
+        TodoStats stats = statistics.snapshot();
+
+        // Assert
+        assertEquals(4, stats.getTotal());
+        assertEquals(1, stats.getCompleted());
+        assertEquals(3, stats.getOpen());
+        assertEquals(Map.of("High", 2L, "Low", 1L, "none", 1L), stats.getByPriority());
+        assertEquals(1, stats.getOverdue());
+        assertEquals(1, stats.getDueToday());
+    }
+
+    @Test
+    void testUpdateAndDeleteTakeBackPreviousCounts() {
+        // Arrange
+        statistics.put(todo("1", "High", false, NOON.minus(Duration.ofDays(2))));
+        statistics.put(todo("2", "Low", false, NOON));
+        statistics.put(todo("1", "Medium", true, NOON.minus(Duration.ofDays(2))));
+        statistics.remove("2");
+        statistics.remove("missing");
+
+        // Act
+        TodoStats stats = statistics.snapshot();
+
+        // Assert
+        assertEquals(1, stats.getTotal());
+        assertEquals(1, stats.getCompleted());
+        assertEquals(Map.of("Medium", 1L), stats.getByPriority());
+        assertEquals(0, stats.getOverdue());
+        assertEquals(0, stats.getDueToday());
+    }
+
+    @Test
+    void testOverdueAdvancesWithTheDate() {
+        // Arrange
+        statistics.put(todo("1", "High", false, NOON));
+        statistics.put(todo("2", "High", false, NOON.plus(Duration.ofDays(1))));
+        assertEquals(0, statistics.snapshot().getOverdue());
+
+        // Act
+        clock.set(NOON.plus(Duration.ofDays(1)));
+        TodoStats nextDay = statistics.snapshot();
+        statistics.remove("1");
+        TodoStats afterDelete = statistics.snapshot();
+
+        // Assert
+        assertEquals(1, nextDay.getOverdue());
+        assertEquals(1, nextDay.getDueToday());
+        assertEquals(0, afterDelete.getOverdue());
+    }
+
+    @Test
+    void testAgreesWithMatchingTallies() {
+        // Arrange
+        statistics.put(todo("1", "High", false, NOON.minus(Duration.ofDays(1))));
+        statistics.put(todo("2", null, true, null));
+        LocalDate yesterday = LocalDate.of(2026, 10, 16);
+
+        // Act & Assert
+        assertTrue(statistics.agrees(List.of(new TodoTally("High", false, yesterday, 1), new TodoTally(null, true, null, 1))));
+        assertFalse(statistics.agrees(List.of(new TodoTally("Low", false, yesterday, 1), new TodoTally(null, true, null, 1))));
+    }
+
+    @Test
+    void testRebuildReplacesDriftedStates() {
+        // Arrange
+        statistics.put(todo("1", "High", false, null));
+        statistics.put(todo("gone", "High", false, null));
+
+        // Act
+        statistics.startRebuild();
+        statistics.rebuild(todo("1", "Low", true, null));
+        statistics.rebuild(todo("2", "Low", false, NOON.minus(Duration.ofDays(1))));
+        statistics.finishRebuild();
+        TodoStats rebuilt = statistics.snapshot();
+        statistics.put(todo("1", "Low", false, null));
+        TodoStats afterUpdate = statistics.snapshot();
+
+        // Assert
+        assertEquals(2, rebuilt.getTotal());
+        assertEquals(1, rebuilt.getCompleted());
+        assertEquals(Map.of("Low", 2L), rebuilt.getByPriority());
+        assertEquals(1, rebuilt.getOverdue());
+        assertEquals(2, afterUpdate.getTotal());
+        assertEquals(0, afterUpdate.getCompleted());
+        assertEquals(Map.of("Low", 2L), afterUpdate.getByPriority());
+    }
+
+    @Test
+    void testRebuildKeepsWritesMadeWhileItRan() {
+        // Arrange
+        statistics.put(todo("1", "High", false, null));
+        statistics.put(todo("2", "High", false, null));
+        statistics.startRebuild();
+        statistics.put(todo("1", "High", true, null));
+        statistics.remove("2");
+        statistics.put(todo("3", "Low", false, null));
+
+        // Act
+        statistics.rebuild(todo("1", "High", false, null));
+        statistics.rebuild(todo("2", "High", false, null));
+        statistics.finishRebuild();
+        TodoStats stats = statistics.snapshot();
+
+        // Assert
+        assertEquals(2, stats.getTotal());
+        assertEquals(1, stats.getCompleted());
+        assertEquals(Map.of("High", 1L, "Low", 1L), stats.getByPriority());
+    }
+
+    @Test
+    void testAbortedRebuildChangesNothing() {
+        // Arrange
+        statistics.put(todo("1", "High", false, null));
+        statistics.startRebuild();
+        statistics.rebuild(todo("1", "Low", false, null));
+
+        // Act
+        statistics.abortRebuild();
+        statistics.put(todo("1", "Low", false, null));
+
+        // Assert
+        assertEquals(Map.of("Low", 1L), statistics.snapshot().getByPriority());
+    }
+
+    @Test
+    void testLoadDoesNotOverwriteWritesMadeDuringLoad() {
+        // Arrange
+        TodoStatistics loading = new TodoStatistics(clock);
+        loading.put(todo("1", "High", true, null));
+        loading.remove("2");
+
+        // Act
+        loading.load(todo("1", "High", false, null));
+        loading.load(todo("2", "Low", false, null));
+        loading.load(todo("3", "Low", false, null));
+        loading.finishLoad();
+        TodoStats stats = loading.snapshot();
+
+        // Assert
+        assertEquals(2, stats.getTotal());
+        assertEquals(1, stats.getCompleted());
+        assertEquals(Map.of("High", 1L, "Low", 1L), stats.getByPriority());
+    }
+
+    @Test
+    void testSnapshotBeforeLoadFinishes() {
+        assertThrows(IllegalStateException.class, () -> new TodoStatistics(clock).snapshot());
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void set(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}